@@ -0,0 +1,57 @@
+package com.example.weatherApp.benchmark;
+
+import com.example.weatherApp.WeatherAppApplication;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * The application context wired against {@link UpstreamStubServer}, so benchmarks go
+ * through the real Spring proxies, caches and HTTP client without calling the real APIs.
+ */
+@State(Scope.Benchmark)
+public class ApplicationState {
+
+    // Above any thread count the benchmarks run with
+    private static final int MAX_CONCURRENT_CALLS = 512;
+
+    private UpstreamStubServer stubServer;
+    private ConfigurableApplicationContext context;
+
+    @Setup(Level.Trial)
+    public void start() throws Exception {
+        stubServer = new UpstreamStubServer(0);
+        context = new SpringApplicationBuilder(WeatherAppApplication.class)
+                .web(WebApplicationType.NONE)
+                .run("--openweathermap.api.url=" + stubServer.openWeatherMapUrl(),
+                        "--ipgeolocation.api.url=" + stubServer.ipGeolocationUrl(),
+                        // Benchmarks miss far more often than the upstream quota allows, rejected calls
+                        // would measure the fallback path instead of the lookup
+                        "--weather.upstream.rate-limit.enabled=false",
+                        "--weather.upstream.resilience.dependencies.openWeatherMap.max-concurrent-calls=" + MAX_CONCURRENT_CALLS,
+                        "--weather.upstream.resilience.dependencies.ipGeolocation.max-concurrent-calls=" + MAX_CONCURRENT_CALLS,
+                        "--logging.level.com.example.weatherApp=WARN",
+                        "--spring.main.banner-mode=off");
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        context.close();
+        stubServer.close();
+    }
+
+    public <T> T bean(Class<T> type) {
+        return context.getBean(type);
+    }
+
+    public void clearCaches() {
+        CacheManager cacheManager = context.getBean(CacheManager.class);
+        cacheManager.getCacheNames().forEach(name -> cacheManager.getCache(name).clear());
+    }
+}
@@ -0,0 +1,80 @@
+package com.example.weatherApp.benchmark;
+
+import com.example.weatherApp.model.DailyForecast;
+import com.example.weatherApp.model.WeatherData;
+import com.example.weatherApp.service.api.OpenWeatherMapClient;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cache hit and miss paths through the {@code @Cacheable} proxy of {@link OpenWeatherMapClient}.
+ * Misses go to the local stub server, so they include HTTP and parsing but no network latency.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CacheLookupBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class Warm {
+        OpenWeatherMapClient client;
+
+        @Setup(Level.Trial)
+        public void setUp(ApplicationState application) {
+            client = application.bean(OpenWeatherMapClient.class);
+            client.getCurrentWeatherByCity("Oslo");
+            client.getForecastByCoordinates(59.9139, 10.7522, 5);
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Cold {
+        OpenWeatherMapClient client;
+        ApplicationState application;
+
+        @Setup(Level.Trial)
+        public void setUp(ApplicationState application) {
+            this.application = application;
+            this.client = application.bean(OpenWeatherMapClient.class);
+        }
+
+        @Setup(Level.Invocation)
+        public void clear() {
+            application.clearCaches();
+        }
+    }
+
+    @Benchmark
+    public WeatherData currentWeatherHit(Warm warm) {
+        return warm.client.getCurrentWeatherByCity("Oslo");
+    }
+
+    @Benchmark
+    public List<DailyForecast> forecastHit(Warm warm) {
+        return warm.client.getForecastByCoordinates(59.9139, 10.7522, 5);
+    }
+
+    @Benchmark
+    public WeatherData currentWeatherMiss(Cold cold) {
+        return cold.client.getCurrentWeatherByCity("Oslo");
+    }
+
+    @Benchmark
+    public List<DailyForecast> forecastMiss(Cold cold) {
+        return cold.client.getForecastByCoordinates(59.9139, 10.7522, 5);
+    }
+}
@@ -0,0 +1,48 @@
+package com.example.weatherApp.benchmark;
+
+import com.example.weatherApp.model.WeatherData;
+import com.example.weatherApp.model.WeatherSearchRequest;
+import com.example.weatherApp.service.WeatherService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson serialization of a five day {@link WeatherData} response with the application's
+ * {@link ObjectMapper}, the work done for every JSON API response.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SerializationBenchmark {
+
+    private ObjectMapper objectMapper;
+    private WeatherData weatherData;
+
+    @Setup(Level.Trial)
+    public void setUp(ApplicationState application) {
+        objectMapper = application.bean(ObjectMapper.class);
+        weatherData = application.bean(WeatherService.class)
+                .getWeatherData(WeatherSearchRequest.builder().city("Oslo").days(5).build(), null);
+    }
+
+    @Benchmark
+    public byte[] serializeWeatherData() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(weatherData);
+    }
+}
@@ -0,0 +1,76 @@
+package com.example.weatherApp.benchmark;
+
+import com.example.weatherApp.controller.PreSerializedJsonHttpMessageConverter;
+import com.example.weatherApp.model.Coordinates;
+import com.example.weatherApp.model.WeatherData;
+import com.example.weatherApp.model.WeatherSearchRequest;
+import com.example.weatherApp.service.WeatherService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.mock.http.MockHttpOutputMessage;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Writing a cached five day {@link WeatherData} response body: Jackson's converter against
+ * {@link PreSerializedJsonHttpMessageConverter}. Each operation writes a fresh copy with the
+ * coordinates of another caller, as every request assembles its own response from the shared
+ * cached parts.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SerializedResponseBenchmark {
+
+    private MappingJackson2HttpMessageConverter jackson;
+    private PreSerializedJsonHttpMessageConverter preSerialized;
+    private WeatherData weatherData;
+    private long callers;
+
+    @Setup(Level.Trial)
+    public void setUp(ApplicationState application) {
+        jackson = new MappingJackson2HttpMessageConverter(application.bean(ObjectMapper.class));
+        preSerialized = application.bean(PreSerializedJsonHttpMessageConverter.class);
+        weatherData = application.bean(WeatherService.class)
+                .getWeatherData(WeatherSearchRequest.builder().city("Oslo").days(5).build(), null);
+    }
+
+    @Benchmark
+    public MockHttpOutputMessage jacksonConverter() throws IOException {
+        MockHttpOutputMessage outputMessage = new MockHttpOutputMessage();
+        jackson.write(nextResponse(), MediaType.APPLICATION_JSON, outputMessage);
+        return outputMessage;
+    }
+
+    @Benchmark
+    public MockHttpOutputMessage preSerializedConverter() throws IOException {
+        MockHttpOutputMessage outputMessage = new MockHttpOutputMessage();
+        preSerialized.write(nextResponse(), MediaType.APPLICATION_JSON, outputMessage);
+        return outputMessage;
+    }
+
+    // Callers within the cell of the cached entries
+    private WeatherData nextResponse() {
+        Coordinates coordinates = weatherData.getCoordinates();
+        double offset = (callers++ % 1000) * 1e-6;
+        return weatherData.toBuilder()
+                .coordinates(new Coordinates(coordinates.getLatitude() + offset, coordinates.getLongitude() - offset))
+                .build();
+    }
+}
@@ -0,0 +1,107 @@
+package com.example.weatherApp.benchmark;
+
+import com.example.weatherApp.WeatherAppApplication;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Load test of {@code GET /api/weather/city/{city}} over real HTTP, comparing Tomcat's
+ * platform thread pool with {@code spring.threads.virtual.enabled}. Every request asks for
+ * a new city, so each one is a cache miss that waits on the delayed upstream stub.
+ *
+ * <p>Tomcat is capped at {@value #TOMCAT_THREADS} threads while {@value #CLIENTS} clients
+ * are calling, so platform mode saturates at about TOMCAT_THREADS / upstream round trip.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Threads(ThreadModeBenchmark.CLIENTS)
+@Fork(1)
+public class ThreadModeBenchmark {
+
+    static final int CLIENTS = 200;
+    static final int TOMCAT_THREADS = 20;
+
+    @Param({"false", "true"})
+    public boolean virtualThreads;
+
+    // Long enough that the benchmark is bound by threads, not by CPU on a small machine
+    @Param("250")
+    public long upstreamLatencyMillis;
+
+    private final AtomicLong cities = new AtomicLong();
+    private UpstreamStubServer stubServer;
+    private ConfigurableApplicationContext context;
+    private HttpClient httpClient;
+    private String baseUrl;
+
+    @Setup(Level.Trial)
+    public void start() throws Exception {
+        stubServer = new UpstreamStubServer(upstreamLatencyMillis);
+        context = new SpringApplicationBuilder(WeatherAppApplication.class)
+                .web(WebApplicationType.SERVLET)
+                .run("--server.port=0",
+                        "--server.tomcat.threads.max=" + TOMCAT_THREADS,
+                        "--spring.threads.virtual.enabled=" + virtualThreads,
+                        // Upstream connections must not be the bottleneck in either mode
+                        "--weather.http.max-connections=" + (CLIENTS * 2),
+                        "--weather.http.max-connections-per-route=" + (CLIENTS * 2),
+                        // Nor the upstream quota: the 600 per minute limit and 20 call bulkhead would
+                        // turn most misses into 503 long before either thread mode saturates
+                        "--weather.upstream.rate-limit.enabled=false",
+                        "--weather.upstream.resilience.dependencies.openWeatherMap.max-concurrent-calls=" + (CLIENTS * 2),
+                        "--weather.upstream.resilience.dependencies.ipGeolocation.max-concurrent-calls=" + (CLIENTS * 2),
+                        "--openweathermap.api.url=" + stubServer.openWeatherMapUrl(),
+                        "--ipgeolocation.api.url=" + stubServer.ipGeolocationUrl(),
+                        "--logging.level.com.example.weatherApp=WARN",
+                        "--spring.main.banner-mode=off");
+        baseUrl = "http://127.0.0.1:" + context.getEnvironment().getProperty("local.server.port");
+        httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .build();
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        httpClient.close();
+        context.close();
+        stubServer.close();
+    }
+
+    @Benchmark
+    public int getWeatherByCityMiss() throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(
+                        URI.create(baseUrl + "/api/weather/city/City-" + cities.incrementAndGet() + "?days=1"))
+                .GET()
+                .build();
+        HttpResponse<byte[]> response = httpClient.send(request, HttpResponse.BodyHandlers.ofByteArray());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("Unexpected status " + response.statusCode());
+        }
+        return response.body().length;
+    }
+}
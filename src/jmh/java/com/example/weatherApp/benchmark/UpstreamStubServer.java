@@ -0,0 +1,83 @@
+package com.example.weatherApp.benchmark;
+
+import com.example.weatherApp.service.api.Payloads;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Local stand-in for OpenWeatherMap and ipgeolocation.io that serves the recorded payloads,
+ * optionally after a fixed delay to mimic upstream latency.
+ */
+public class UpstreamStubServer implements AutoCloseable {
+
+    static {
+        // Without TCP_NODELAY every response waits for the client's delayed ACK (~40ms)
+        System.setProperty("sun.net.httpserver.nodelay", "true");
+    }
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final long latencyMillis;
+    private final AtomicLong requests = new AtomicLong();
+
+    public UpstreamStubServer(long latencyMillis) throws IOException {
+        this.latencyMillis = latencyMillis;
+        this.server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 1024);
+        this.executor = Executors.newCachedThreadPool();
+
+        byte[] current = Payloads.read("openweather-current.json");
+        byte[] onecall = Payloads.read("openweather-onecall.json");
+        byte[] location = Payloads.read("ipgeolocation.json");
+        server.createContext("/data/2.5/weather", exchange -> respond(exchange, current));
+        server.createContext("/data/2.5/onecall", exchange -> respond(exchange, onecall));
+        server.createContext("/ipgeo", exchange -> respond(exchange, location));
+        server.setExecutor(executor);
+        server.start();
+    }
+
+    public String openWeatherMapUrl() {
+        return baseUrl() + "/data/2.5";
+    }
+
+    public String ipGeolocationUrl() {
+        return baseUrl() + "/ipgeo";
+    }
+
+    public long requestCount() {
+        return requests.get();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    private String baseUrl() {
+        return "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    private void respond(HttpExchange exchange, byte[] body) throws IOException {
+        requests.incrementAndGet();
+        if (latencyMillis > 0) {
+            try {
+                Thread.sleep(latencyMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+}
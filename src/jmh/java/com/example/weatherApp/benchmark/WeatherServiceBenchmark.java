@@ -0,0 +1,66 @@
+package com.example.weatherApp.benchmark;
+
+import com.example.weatherApp.model.WeatherData;
+import com.example.weatherApp.model.WeatherSearchRequest;
+import com.example.weatherApp.service.WeatherService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link WeatherService#getWeatherData} dispatch for each request branch on warm caches.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class WeatherServiceBenchmark {
+
+    private WeatherService weatherService;
+    private WeatherSearchRequest cityRequest;
+    private WeatherSearchRequest coordinatesRequest;
+    private WeatherSearchRequest userLocationRequest;
+    private MockHttpServletRequest httpRequest;
+
+    @Setup(Level.Trial)
+    public void setUp(ApplicationState application) {
+        weatherService = application.bean(WeatherService.class);
+        cityRequest = WeatherSearchRequest.builder().city("Oslo").days(5).build();
+        coordinatesRequest = WeatherSearchRequest.builder().latitude("59.9139").longitude("10.7522").days(5).build();
+        userLocationRequest = WeatherSearchRequest.builder().useUserLocation(true).days(5).build();
+        httpRequest = new MockHttpServletRequest();
+        httpRequest.addHeader("X-Forwarded-For", "84.208.20.110");
+
+        getWeatherByCity();
+        getWeatherByCoordinates();
+        getWeatherByUserLocation();
+    }
+
+    @Benchmark
+    public WeatherData getWeatherByCity() {
+        return weatherService.getWeatherData(cityRequest, null);
+    }
+
+    @Benchmark
+    public WeatherData getWeatherByCoordinates() {
+        return weatherService.getWeatherData(coordinatesRequest, null);
+    }
+
+    @Benchmark
+    public WeatherData getWeatherByUserLocation() {
+        return weatherService.getWeatherData(userLocationRequest, httpRequest);
+    }
+}
@@ -0,0 +1,45 @@
+package com.example.weatherApp.service.api;
+
+import com.example.weatherApp.model.LocationData;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parsing of a recorded ipgeolocation.io response by {@link IpGeolocationResponseParser}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LocationParsingBenchmark {
+
+    private String payload;
+    private IpGeolocationResponseParser parser;
+
+    @Setup
+    public void setUp() throws IOException {
+        payload = new String(Payloads.read("ipgeolocation.json"), StandardCharsets.UTF_8);
+        parser = new IpGeolocationResponseParser(new ObjectMapper(), new SimpleMeterRegistry());
+    }
+
+    @Benchmark
+    public LocationData parseLocation() {
+        return parser.parseLocation(payload, "84.208.20.110");
+    }
+}
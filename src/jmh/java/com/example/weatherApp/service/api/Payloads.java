@@ -0,0 +1,22 @@
+package com.example.weatherApp.service.api;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Recorded upstream responses shared with the unit tests, see {@code src/test/resources/payloads}.
+ */
+public final class Payloads {
+
+    private Payloads() {
+    }
+
+    public static byte[] read(String name) throws IOException {
+        try (InputStream in = Payloads.class.getResourceAsStream("/payloads/" + name)) {
+            if (in == null) {
+                throw new IOException("Missing payload: " + name);
+            }
+            return in.readAllBytes();
+        }
+    }
+}
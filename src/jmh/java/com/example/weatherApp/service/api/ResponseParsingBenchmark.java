@@ -0,0 +1,77 @@
+package com.example.weatherApp.service.api;
+
+import com.example.weatherApp.model.DailyForecast;
+import com.example.weatherApp.model.WeatherData;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Streaming parser versus the previous tree-model parser on recorded OpenWeatherMap
+ * payloads. Run with {@code -prof gc} to compare allocation per operation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ResponseParsingBenchmark {
+
+    @Param({"1", "5"})
+    private int days;
+
+    private byte[] currentPayload;
+    private byte[] onecallPayload;
+    private OpenWeatherMapResponseParser streamingParser;
+    private TreeModelResponseParser treeParser;
+
+    @Setup
+    public void setUp() throws IOException {
+        currentPayload = Payloads.read("openweather-current.json");
+        onecallPayload = Payloads.read("openweather-onecall.json");
+        ObjectMapper objectMapper = new ObjectMapper();
+        streamingParser = new OpenWeatherMapResponseParser(objectMapper, new SimpleMeterRegistry());
+        treeParser = new TreeModelResponseParser(objectMapper);
+    }
+
+    @Benchmark
+    public WeatherData currentWeatherStreaming() throws IOException {
+        return streamingParser.parseCurrentWeather(stream(currentPayload));
+    }
+
+    @Benchmark
+    public WeatherData currentWeatherTree() throws IOException {
+        return treeParser.parseCurrentWeather(stream(currentPayload));
+    }
+
+    @Benchmark
+    public List<DailyForecast> forecastStreaming() throws IOException {
+        return streamingParser.parseDailyForecast(stream(onecallPayload), days);
+    }
+
+    @Benchmark
+    public List<DailyForecast> forecastTree() throws IOException {
+        return treeParser.parseDailyForecast(stream(onecallPayload), days);
+    }
+
+    private static InputStream stream(byte[] payload) {
+        return new ByteArrayInputStream(payload);
+    }
+}
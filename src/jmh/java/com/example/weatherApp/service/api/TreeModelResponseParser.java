@@ -0,0 +1,95 @@
+package com.example.weatherApp.service.api;
+
+import com.example.weatherApp.model.Coordinates;
+import com.example.weatherApp.model.CurrentWeather;
+import com.example.weatherApp.model.DailyForecast;
+import com.example.weatherApp.model.WeatherData;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Baseline for the parsing benchmarks: the previous implementation, which read the whole
+ * body into a String and mapped it from a JsonNode tree.
+ */
+public class TreeModelResponseParser {
+
+    private final ObjectMapper objectMapper;
+
+    public TreeModelResponseParser(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    public WeatherData parseCurrentWeather(InputStream body) throws IOException {
+        JsonNode root = objectMapper.readTree(new String(body.readAllBytes(), StandardCharsets.UTF_8));
+
+        String cityName = root.path("name").asText();
+        String countryCode = root.path("sys").path("country").asText();
+
+        double latitude = root.path("coord").path("lat").asDouble();
+        double longitude = root.path("coord").path("lon").asDouble();
+        Coordinates coordinates = new Coordinates(latitude, longitude);
+
+        JsonNode mainNode = root.path("main");
+        JsonNode weatherNode = root.path("weather").get(0);
+
+        CurrentWeather currentWeather = CurrentWeather.builder()
+                .temperature(mainNode.path("temp").asDouble())
+                .feelsLike(mainNode.path("feels_like").asDouble())
+                .humidity(mainNode.path("humidity").asDouble())
+                .pressure(mainNode.path("pressure").asDouble())
+                .windSpeed(root.path("wind").path("speed").asDouble())
+                .description(weatherNode.path("description").asText())
+                .icon(weatherNode.path("icon").asText())
+                .build();
+
+        return WeatherData.builder()
+                .cityName(cityName)
+                .countryCode(countryCode)
+                .coordinates(coordinates)
+                .currentWeather(currentWeather)
+                .dailyForecasts(new ArrayList<>())
+                .timestamp(LocalDateTime.now())
+                .build();
+    }
+
+    public List<DailyForecast> parseDailyForecast(InputStream body, int days) throws IOException {
+        JsonNode root = objectMapper.readTree(new String(body.readAllBytes(), StandardCharsets.UTF_8));
+        JsonNode dailyArray = root.path("daily");
+
+        List<DailyForecast> dailyForecasts = new ArrayList<>();
+        int limit = Math.min(days, dailyArray.size());
+
+        for (int i = 0; i < limit; i++) {
+            JsonNode day = dailyArray.get(i);
+
+            long dt = day.path("dt").asLong();
+            LocalDate forecastDate = Instant.ofEpochSecond(dt)
+                    .atZone(ZoneId.systemDefault())
+                    .toLocalDate();
+
+            JsonNode temp = day.path("temp");
+            JsonNode weather = day.path("weather").get(0);
+
+            dailyForecasts.add(DailyForecast.builder()
+                    .date(forecastDate)
+                    .minTemperature(temp.path("min").asDouble())
+                    .maxTemperature(temp.path("max").asDouble())
+                    .humidity(day.path("humidity").asDouble())
+                    .description(weather.path("description").asText())
+                    .icon(weather.path("icon").asText())
+                    .build());
+        }
+
+        return dailyForecasts;
+    }
+}
@@ -0,0 +1,69 @@
+package com.example.weatherApp.service.cache;
+
+import com.example.weatherApp.model.WeatherData;
+import com.example.weatherApp.service.api.OpenWeatherMapResponseParser;
+import com.example.weatherApp.service.api.Payloads;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Encoding and decoding of a current weather entry with its eight day forecast, the
+ * shared cache value of a warm city lookup, by the JSON and the binary codec. The
+ * encoded size is printed once per trial.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CacheValueCodecBenchmark {
+
+    @Param({"json", "binary"})
+    public String codecName;
+
+    private CacheValueCodec codec;
+    private WeatherData weatherData;
+    private byte[] encoded;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+        OpenWeatherMapResponseParser parser = new OpenWeatherMapResponseParser(objectMapper, new SimpleMeterRegistry());
+        weatherData = parser.parseCurrentWeather(new ByteArrayInputStream(Payloads.read("openweather-current.json")))
+                .toBuilder()
+                .dailyForecasts(parser.parseDailyForecast(
+                        new ByteArrayInputStream(Payloads.read("openweather-onecall.json")), 8))
+                .build();
+        codec = "json".equals(codecName) ? new JsonCacheValueCodec(objectMapper) : new BinaryCacheValueCodec();
+        encoded = codec.encode("currentWeather", weatherData);
+        System.out.println(codecName + " encoded size: " + encoded.length + " bytes");
+    }
+
+    @Benchmark
+    public byte[] encode() throws IOException {
+        return codec.encode("currentWeather", weatherData);
+    }
+
+    @Benchmark
+    public Object decode() throws IOException {
+        return codec.decode("currentWeather", encoded);
+    }
+}
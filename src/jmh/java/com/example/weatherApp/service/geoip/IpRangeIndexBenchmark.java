@@ -0,0 +1,70 @@
+package com.example.weatherApp.service.geoip;
+
+import com.example.weatherApp.model.LocationData;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Lookup of random client IPs in a generated IP range database of the given number of
+ * ranges (IP2Location LITE DB5 has about three million). The load time is printed once
+ * per trial.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class IpRangeIndexBenchmark {
+
+    @Param({"1000000"})
+    public int ranges;
+
+    private IpRangeIndex index;
+    private String[] addresses;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        // Consecutive ranges of equal size over the whole address space, 10000 locations
+        StringBuilder csv = new StringBuilder(ranges * 48);
+        long size = (1L << 32) / ranges;
+        for (int i = 0; i < ranges; i++) {
+            int location = i % 10_000;
+            csv.append(i * size).append(',').append((i + 1) * size - 1)
+                    .append(",NO,Norway,City ").append(location)
+                    .append(',').append(location / 200.0).append(',').append(location / 100.0).append('\n');
+        }
+        long started = System.nanoTime();
+        index = IpRangeIndex.parse(new StringReader(csv.toString()));
+        System.out.println(ranges + " ranges loaded in "
+                + TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started) + " ms");
+
+        SplittableRandom random = new SplittableRandom(42);
+        addresses = new String[4096];
+        for (int i = 0; i < addresses.length; i++) {
+            addresses[i] = random.nextInt(1, 224) + "." + random.nextInt(256) + "." + random.nextInt(256) + "."
+                    + random.nextInt(256);
+        }
+    }
+
+    @Benchmark
+    public LocationData lookup() {
+        return index.lookup(addresses[next++ & (addresses.length - 1)]);
+    }
+}
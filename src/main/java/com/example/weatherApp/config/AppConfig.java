@@ -1,20 +1,27 @@
 package com.example.weatherApp.config;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
 import org.springframework.web.client.RestTemplate;
 
 @Configuration
 public class AppConfig {
 
     @Bean
-    public RestTemplate restTemplate() {
-        return new RestTemplate();
+    public RestTemplate restTemplate(RestTemplateBuilder restTemplateBuilder,
+                                     ClientHttpRequestFactory clientHttpRequestFactory) {
+        return restTemplateBuilder
+                .requestFactory(() -> clientHttpRequestFactory)
+                .build();
     }
     
     @Bean
-    public ObjectMapper objectMapper() {
-        return new ObjectMapper();
+    public ObjectMapper objectMapper(Jackson2ObjectMapperBuilder objectMapperBuilder) {
+        // Built from Boot's builder so java.time types serialize and the MVC defaults apply
+        return objectMapperBuilder.build();
     }
 }
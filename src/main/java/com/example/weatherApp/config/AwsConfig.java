@@ -3,24 +3,35 @@ package com.example.weatherApp.config;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.util.StringUtils;
 import software.amazon.awssdk.auth.credentials.DefaultCredentialsProvider;
 import software.amazon.awssdk.enhanced.dynamodb.DynamoDbEnhancedClient;
 import software.amazon.awssdk.regions.Region;
 import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+import software.amazon.awssdk.services.dynamodb.DynamoDbClientBuilder;
 import software.amazon.awssdk.services.s3.S3Client;
 
+import java.net.URI;
+
 @Configuration
 public class AwsConfig {
 
     @Value("${aws.region:#{environment.AWS_REGION}}")
     private String awsRegion;
 
+    // Set to e.g. http://localhost:8000 to use DynamoDB Local
+    @Value("${aws.dynamodb.endpoint:}")
+    private String dynamoDbEndpoint;
+
     @Bean
     public DynamoDbClient dynamoDbClient() {
-        return DynamoDbClient.builder()
+        DynamoDbClientBuilder builder = DynamoDbClient.builder()
                 .region(Region.of(awsRegion))
-                .credentialsProvider(DefaultCredentialsProvider.create())
-                .build();
+                .credentialsProvider(DefaultCredentialsProvider.create());
+        if (StringUtils.hasText(dynamoDbEndpoint)) {
+            builder.endpointOverride(URI.create(dynamoDbEndpoint));
+        }
+        return builder.build();
     }
 
     @Bean
@@ -0,0 +1,14 @@
+package com.example.weatherApp.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "weather.batch")
+public class BatchProperties {
+
+    // Entries accepted in one batch request
+    private int maxItems = 200;
+    // Cache misses of one batch fetched from upstream at the same time, not shared between batches
+    private int parallelism = 16;
+}
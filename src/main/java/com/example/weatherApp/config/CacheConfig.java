@@ -1,25 +1,194 @@
 package com.example.weatherApp.config;
 
+import com.example.weatherApp.service.cache.CacheEntryWeigher;
+import com.example.weatherApp.service.cache.CacheRefresher;
+import com.example.weatherApp.service.cache.CityCoordinatesIndex;
+import com.example.weatherApp.service.cache.CoordinateKeyStrategy;
+import com.example.weatherApp.service.cache.ExactKeyStrategy;
+import com.example.weatherApp.service.cache.GeohashKeyStrategy;
+import com.example.weatherApp.service.cache.GridKeyStrategy;
+import com.example.weatherApp.service.cache.HardTtlExpiry;
+import com.example.weatherApp.service.cache.SharedCache;
+import com.example.weatherApp.service.cache.SingleFlightCaffeineCache;
+import com.example.weatherApp.service.cache.TwoLevelCacheManager;
+import com.example.weatherApp.service.jfr.CacheOperationEvent;
+import com.example.weatherApp.service.ratelimit.UpstreamPriority;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.CacheLoader;
 import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.config.MeterFilter;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.cache.Cache;
 import org.springframework.cache.CacheManager;
 import org.springframework.cache.caffeine.CaffeineCacheManager;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
 
-import java.util.concurrent.TimeUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
 
 @Configuration
-public class CacheConfig {
+@EnableConfigurationProperties(CacheProperties.class)
+public class CacheConfig implements DisposableBean {
 
+    public static final List<String> CACHE_NAMES = List.of("currentWeather", "forecastWeather", "ipLocation",
+            CityCoordinatesIndex.CACHE_NAME);
+    // Caches keyed by coordinates (currentWeather also holds the city-keyed entries)
+    private static final List<String> COORDINATE_CACHES = List.of("currentWeather", "forecastWeather");
+    private static final CacheEntryWeigher WEIGHER = new CacheEntryWeigher();
+
+    private final List<ExecutorService> refreshExecutors = new CopyOnWriteArrayList<>();
+
+    // Caches are built as Caffeine AsyncCaches. Spring serves the blocking @Cacheable methods
+    // through their synchronous view and the Mono-returning reactive ones through the futures;
+    // blocking sync misses are loaded on the calling thread, see SingleFlightCaffeineCache
     @Bean
-    public CacheManager cacheManager() {
-        CaffeineCacheManager cacheManager = new CaffeineCacheManager(
-                "currentWeather", "forecastWeather", "ipLocation");
-        
-        cacheManager.setCaffeine(Caffeine.newBuilder()
-                .maximumSize(100)
-                .expireAfterWrite(1, TimeUnit.HOURS));
-        
-        return cacheManager;
+    public CacheManager cacheManager(CacheProperties cacheProperties, CacheRefresher cacheRefresher,
+                                     Environment environment, ObjectProvider<SharedCache> sharedCacheProvider,
+                                     MeterRegistry meterRegistry) {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager() {
+            @Override
+            protected Cache adaptCaffeineCache(String name, AsyncCache<Object, Object> cache) {
+                return new SingleFlightCaffeineCache(name, cache, isAllowNullValues(), meterRegistry);
+            }
+        };
+        boolean virtualThreads = Threading.VIRTUAL.isActive(environment);
+        SharedCache sharedCache = sharedCacheProvider.getIfAvailable();
+
+        for (String cacheName : CACHE_NAMES) {
+            CacheProperties.CacheSpec spec = cacheProperties.getSpec(cacheName);
+            Caffeine<Object, Object> builder = Caffeine.newBuilder()
+                    .maximumWeight(spec.getMaximumWeight().toBytes())
+                    .weigher(WEIGHER)
+                    // Expire-after-write that also lets a restored snapshot entry keep its remaining TTL
+                    .expireAfter(new HardTtlExpiry(spec.getHardTtl()))
+                    .recordStats();
+
+            if (spec.getSoftTtl() == null) {
+                cacheManager.registerCustomCache(cacheName, builder.buildAsync());
+                continue;
+            }
+
+            // Stale-while-revalidate: past the soft TTL the entry is still returned and
+            // reloaded in the background, the hard TTL remains the upper bound
+            // refresh-threads still caps concurrent reloads when they run on virtual threads
+            ExecutorService executor = Executors.newFixedThreadPool(spec.getRefreshThreads(),
+                    refreshThreadFactory(cacheName, virtualThreads));
+            refreshExecutors.add(executor);
+
+            cacheManager.registerCustomCache(cacheName, builder
+                    .refreshAfterWrite(spec.getSoftTtl())
+                    .executor(executor)
+                    .buildAsync(refreshLoader(cacheName, cacheRefresher, sharedCache)));
+        }
+
+        // With weather.cache.shared.enabled the Caffeine caches become the L1 in front of it
+        return sharedCache != null ? new TwoLevelCacheManager(cacheManager, sharedCache) : cacheManager;
+    }
+
+    @Bean
+    public CoordinateKeyStrategy coordinateKeyStrategy(CacheProperties cacheProperties) {
+        CacheProperties.CoordinateKeys coordinateKeys = cacheProperties.getCoordinateKeys();
+        return switch (coordinateKeys.getStrategy()) {
+            case EXACT -> new ExactKeyStrategy();
+            case GRID -> new GridKeyStrategy(coordinateKeys.getGridDegrees());
+            case GEOHASH -> new GeohashKeyStrategy(coordinateKeys.getGeohashLength());
+        };
+    }
+
+    // Adds a precision tag to the cache.* meters, so hit rates of instances running with
+    // different key precisions can be compared side by side. Prometheus requires the same tag
+    // keys on all meters of a name, so the other caches get "none", and caches outside the
+    // cache manager or without a shared level get the manager and level tags as well
+    @Bean
+    public MeterFilter cachePrecisionMeterFilter(CoordinateKeyStrategy coordinateKeyStrategy) {
+        Tag precision = Tag.of("precision", coordinateKeyStrategy.precision());
+        Tag noPrecision = Tag.of("precision", "none");
+        return new MeterFilter() {
+            @Override
+            public Meter.Id map(Meter.Id id) {
+                if (!id.getName().startsWith("cache.")) {
+                    return id;
+                }
+                String cache = id.getTag("cache");
+                List<Tag> missing = new ArrayList<>(4);
+                if (id.getTag("precision") == null) {
+                    missing.add(COORDINATE_CACHES.contains(cache) ? precision : noPrecision);
+                }
+                if (id.getTag("level") == null) {
+                    missing.add(Tag.of("level", "l1"));
+                }
+                if (id.getTag("cache.manager") == null) {
+                    missing.add(Tag.of("cache.manager", "none"));
+                }
+                if (id.getTag("name") == null && cache != null) {
+                    missing.add(Tag.of("name", cache));
+                }
+                return missing.isEmpty() ? id : id.withTags(missing);
+            }
+        };
+    }
+
+    @Override
+    public void destroy() {
+        refreshExecutors.forEach(ExecutorService::shutdownNow);
+    }
+
+    private static ThreadFactory refreshThreadFactory(String cacheName, boolean virtualThreads) {
+        String prefix = "refresh-" + cacheName + "-";
+        return virtualThreads
+                ? Thread.ofVirtual().name(prefix, 1).factory()
+                : new CustomizableThreadFactory(prefix);
+    }
+
+    private CacheLoader<Object, Object> refreshLoader(String cacheName, CacheRefresher cacheRefresher,
+                                                      SharedCache sharedCache) {
+        return new CacheLoader<>() {
+            @Override
+            public Object load(Object key) {
+                // Misses are loaded by the @Cacheable method itself
+                return null;
+            }
+
+            @Override
+            public CompletableFuture<Object> asyncLoad(Object key, Executor executor) {
+                // Completes in place, a blocking lookup must not hop to the refresh executor
+                return CompletableFuture.completedFuture(null);
+            }
+
+            @Override
+            public Object reload(Object key, Object oldValue) {
+                // Queued behind user requests at the upstream rate limit; a failed reload keeps the old value
+                CacheOperationEvent event = new CacheOperationEvent();
+                event.begin();
+                Object value = null;
+                try {
+                    value = UpstreamPriority.REFRESH.call(() -> cacheRefresher.reload(cacheName, key));
+                } finally {
+                    Object reloaded = value;
+                    event.record(cacheName, CacheOperationEvent.REFRESH, key, reloaded != null ? "loaded" : "error",
+                            () -> reloaded != null ? WEIGHER.weigh(key, reloaded) : -1);
+                }
+                // Refreshed entries are shared too, or other nodes would keep reading the old one
+                if (sharedCache != null) {
+                    sharedCache.put(cacheName, key, value);
+                }
+                return value;
+            }
+        };
     }
-}
\ No newline at end of file
+}
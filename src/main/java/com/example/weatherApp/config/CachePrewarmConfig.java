@@ -0,0 +1,34 @@
+package com.example.weatherApp.config;
+
+import com.example.weatherApp.service.cache.CacheRefresher;
+import com.example.weatherApp.service.cache.CacheWarmer;
+import com.example.weatherApp.service.cache.HotLocationTracker;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Pre-warming of the most requested locations within an upstream call budget.
+ */
+@Configuration
+@ConditionalOnProperty(name = "weather.cache.prewarm.enabled", havingValue = "true")
+public class CachePrewarmConfig {
+
+    @Bean
+    public CacheWarmer cacheWarmer(HotLocationTracker hotLocations, CacheManager cacheManager,
+                                   CacheRefresher cacheRefresher, MeterRegistry meterRegistry,
+                                   CacheProperties cacheProperties, Environment environment) {
+        ThreadFactory threadFactory = Threading.VIRTUAL.isActive(environment)
+                ? Thread.ofVirtual().name("cache-prewarm-", 1).factory()
+                : new CustomizableThreadFactory("cache-prewarm-");
+        return new CacheWarmer(hotLocations, cacheManager, cacheRefresher, meterRegistry,
+                cacheProperties.getPrewarm(), threadFactory);
+    }
+}
@@ -0,0 +1,123 @@
+package com.example.weatherApp.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@Data
+@ConfigurationProperties(prefix = "weather.cache")
+public class CacheProperties {
+
+    private Map<String, CacheSpec> specs = new LinkedHashMap<>();
+    private CoordinateKeys coordinateKeys = new CoordinateKeys();
+    private Shared shared = new Shared();
+    private Snapshot snapshot = new Snapshot();
+    private Prewarm prewarm = new Prewarm();
+    private SerializedResponses serializedResponses = new SerializedResponses();
+    private RenderedPages renderedPages = new RenderedPages();
+
+    public CacheSpec getSpec(String cacheName) {
+        return specs.getOrDefault(cacheName, new CacheSpec());
+    }
+
+    @Data
+    public static class CacheSpec {
+        // Upper bound on the estimated heap used by the cache, see CacheEntryWeigher
+        private DataSize maximumWeight = DataSize.ofMegabytes(1);
+        // Entries older than this are still served while a background reload replaces them.
+        // Leave unset to disable refresh-ahead for the cache.
+        private Duration softTtl;
+        private Duration hardTtl = Duration.ofHours(1);
+        private int refreshThreads = 1;
+    }
+
+    // How coordinates are snapped before they become part of a cache key
+    @Data
+    public static class CoordinateKeys {
+        private Strategy strategy = Strategy.EXACT;
+        // Cell size of the grid strategy
+        private double gridDegrees = 0.01;
+        // Hash length of the geohash strategy, 6 is a cell of about 1.2 x 0.6 km
+        private int geohashLength = 6;
+
+        public enum Strategy {
+            EXACT, GRID, GEOHASH
+        }
+    }
+
+    // Second cache level shared by all instances, see SharedCacheConfig
+    @Data
+    public static class Shared {
+        private boolean enabled = false;
+        private Store store = Store.DYNAMODB;
+        private String tableName = "weather-cache";
+        // Serialized form of the shared entries, see BinaryCacheValueCodec
+        private Codec codec = Codec.BINARY;
+        // Creates the table when missing, e.g. on DynamoDB Local
+        private boolean createTable = false;
+        private int writeThreads = 4;
+        // Writes beyond this are dropped, the next miss writes the entry again
+        private int writeQueueCapacity = 1000;
+
+        public enum Store {
+            DYNAMODB, MEMORY
+        }
+
+        public enum Codec {
+            BINARY, JSON
+        }
+    }
+
+    // Snapshot of the local caches restored on startup, see CacheSnapshotConfig
+    @Data
+    public static class Snapshot {
+        private boolean enabled = false;
+        private Store store = Store.FILE;
+        private String path = "cache-snapshot.bin";
+        private String s3Bucket;
+        private String s3Key = "weather-app/cache-snapshot.bin";
+        private List<String> caches = List.of("currentWeather", "forecastWeather", "ipLocation");
+        private Duration interval = Duration.ofMinutes(5);
+        // Readiness waits at most this long for the restore
+        private Duration restoreTimeout = Duration.ofSeconds(20);
+
+        public enum Store {
+            FILE, S3
+        }
+    }
+
+    // Reloading of the most requested locations ahead of expiry, see CacheWarmer
+    @Data
+    public static class Prewarm {
+        private boolean enabled = false;
+        private int topLocations = 50;
+        // Locations counted by the top-K sketch, bounds its memory
+        private int sketchCapacity = 1000;
+        private Duration interval = Duration.ofMinutes(1);
+        private Duration refreshBeforeExpiry = Duration.ofMinutes(10);
+        // Upper bound on the upstream calls made by the warmer, never by user requests
+        private int upstreamCallsPerMinute = 60;
+    }
+
+    // Encoded JSON of the weather responses, see SerializedResponseConfig
+    @Data
+    public static class SerializedResponses {
+        private boolean enabled = false;
+        // Bounds the encodings of the cached response parts
+        private DataSize maximumWeight = DataSize.ofMegabytes(16);
+        private Duration ttl = Duration.ofHours(1);
+    }
+
+    // Rendered weather pages, see RenderedPageCache
+    @Data
+    public static class RenderedPages {
+        private boolean enabled = false;
+        private DataSize maximumWeight = DataSize.ofMegabytes(16);
+        private Duration ttl = Duration.ofHours(1);
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.weatherApp.config;
+
+import com.example.weatherApp.service.cache.CacheSnapshotLifecycle;
+import com.example.weatherApp.service.cache.CacheSnapshotStore;
+import com.example.weatherApp.service.cache.CacheSnapshotter;
+import com.example.weatherApp.service.cache.FileCacheSnapshotStore;
+import com.example.weatherApp.service.cache.S3CacheSnapshotStore;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.util.Assert;
+import software.amazon.awssdk.services.s3.S3Client;
+
+import java.nio.file.Path;
+import java.time.Clock;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Snapshots of the node-local caches, so a restarted instance does not start cold and send
+ * every first request of the next hour upstream.
+ */
+@Configuration
+@ConditionalOnProperty(name = "weather.cache.snapshot.enabled", havingValue = "true")
+public class CacheSnapshotConfig {
+
+    @Bean
+    @ConditionalOnProperty(name = "weather.cache.snapshot.store", havingValue = "file", matchIfMissing = true)
+    public CacheSnapshotStore fileCacheSnapshotStore(CacheProperties cacheProperties) {
+        return new FileCacheSnapshotStore(Path.of(cacheProperties.getSnapshot().getPath()));
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "weather.cache.snapshot.store", havingValue = "s3")
+    public CacheSnapshotStore s3CacheSnapshotStore(CacheProperties cacheProperties, S3Client s3Client) {
+        CacheProperties.Snapshot snapshot = cacheProperties.getSnapshot();
+        Assert.hasText(snapshot.getS3Bucket(), "weather.cache.snapshot.s3-bucket is required for the s3 store");
+        return new S3CacheSnapshotStore(s3Client, snapshot.getS3Bucket(), snapshot.getS3Key());
+    }
+
+    @Bean
+    public CacheSnapshotter cacheSnapshotter(CacheManager cacheManager, CacheSnapshotStore store,
+                                             CacheProperties cacheProperties) {
+        return new CacheSnapshotter(cacheManager, store, cacheProperties.getSnapshot().getCaches(),
+                Clock.systemUTC());
+    }
+
+    @Bean
+    public CacheSnapshotLifecycle cacheSnapshotLifecycle(CacheSnapshotter snapshotter,
+                                                         CacheProperties cacheProperties, Environment environment) {
+        CacheProperties.Snapshot snapshot = cacheProperties.getSnapshot();
+        ThreadFactory threadFactory = Threading.VIRTUAL.isActive(environment)
+                ? Thread.ofVirtual().name("cache-snapshot-", 1).factory()
+                : new CustomizableThreadFactory("cache-snapshot-");
+        return new CacheSnapshotLifecycle(snapshotter, snapshot.getInterval(), snapshot.getRestoreTimeout(),
+                threadFactory);
+    }
+}
@@ -0,0 +1,37 @@
+package com.example.weatherApp.config;
+
+import com.example.weatherApp.service.UpstreamFanOut;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+@Configuration
+@EnableConfigurationProperties({FanOutProperties.class, BatchProperties.class})
+public class FanOutConfig {
+
+    // Not exposed as an Executor bean, that would replace Boot's applicationTaskExecutor
+    @Bean(destroyMethod = "shutdown")
+    public UpstreamFanOut upstreamFanOut(FanOutProperties properties, Environment environment) {
+        ThreadFactory threadFactory = Threading.VIRTUAL.isActive(environment)
+                ? Thread.ofVirtual().name("fanout-", 1).factory()
+                : new CustomizableThreadFactory("fanout-");
+
+        // When saturated the caller runs the lookup itself, which degrades to sequential fetching
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(properties.getThreads(), properties.getThreads(),
+                60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(properties.getQueueCapacity()),
+                threadFactory,
+                new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.allowCoreThreadTimeOut(true);
+
+        return new UpstreamFanOut(executor, properties.getTimeout());
+    }
+}
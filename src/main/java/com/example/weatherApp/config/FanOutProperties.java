@@ -0,0 +1,18 @@
+package com.example.weatherApp.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "weather.fanout")
+public class FanOutProperties {
+
+    // Threads running the independent upstream lookups of a request in parallel
+    private int threads = 32;
+    // Lookups waiting for a thread, beyond this the calling thread runs them itself
+    private int queueCapacity = 256;
+    // Overall deadline for all upstream lookups of one request
+    private Duration timeout = Duration.ofSeconds(6);
+}
@@ -0,0 +1,18 @@
+package com.example.weatherApp.config;
+
+import com.example.weatherApp.service.jfr.FlightRecordingEndpoint;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * JFR recordings of the upstream call, response parse and cache operation events, started
+ * and downloaded on demand through {@code /actuator/flightrecording}.
+ */
+@Configuration
+public class FlightRecorderConfig {
+
+    @Bean(destroyMethod = "close")
+    public FlightRecordingEndpoint flightRecordingEndpoint() {
+        return new FlightRecordingEndpoint();
+    }
+}
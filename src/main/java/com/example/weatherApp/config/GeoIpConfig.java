@@ -0,0 +1,35 @@
+package com.example.weatherApp.config;
+
+import com.example.weatherApp.service.geoip.IpDatabaseReloader;
+import com.example.weatherApp.service.geoip.LocalIpLocationResolver;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import java.nio.file.Path;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Local IP range database in front of ipgeolocation.io. Client IPs are too many for the
+ * {@code ipLocation} cache to help much, a local lookup takes microseconds instead of a
+ * round trip.
+ */
+@Configuration
+@EnableConfigurationProperties(GeoIpProperties.class)
+@ConditionalOnProperty(name = "weather.geoip.enabled", havingValue = "true")
+public class GeoIpConfig {
+
+    @Bean
+    public IpDatabaseReloader ipDatabaseReloader(LocalIpLocationResolver resolver, GeoIpProperties properties,
+                                                 Environment environment) {
+        ThreadFactory threadFactory = Threading.VIRTUAL.isActive(environment)
+                ? Thread.ofVirtual().name("geoip-reload-", 1).factory()
+                : new CustomizableThreadFactory("geoip-reload-");
+        return new IpDatabaseReloader(resolver, Path.of(properties.getPath()), properties.getCheckInterval(),
+                threadFactory);
+    }
+}
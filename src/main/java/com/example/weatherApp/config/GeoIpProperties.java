@@ -0,0 +1,17 @@
+package com.example.weatherApp.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "weather.geoip")
+public class GeoIpProperties {
+
+    private boolean enabled = false;
+    // CSV of start_ip,end_ip,country_code,country,city,latitude,longitude, see IpRangeIndex
+    private String path = "ip-locations.csv";
+    // How often the file's modification time is checked for a reload
+    private Duration checkInterval = Duration.ofMinutes(1);
+}
@@ -0,0 +1,29 @@
+package com.example.weatherApp.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "weather.http")
+public class HttpClientProperties {
+
+    public enum ClientType {
+        // Pooled Apache HttpClient, HTTP/1.1 with keep-alive
+        APACHE,
+        // JDK HttpClient, negotiates HTTP/2 over TLS and falls back to HTTP/1.1
+        JDK
+    }
+
+    private ClientType client = ClientType.APACHE;
+    private int maxConnections = 100;
+    private int maxConnectionsPerRoute = 20;
+    private Duration connectTimeout = Duration.ofSeconds(2);
+    private Duration readTimeout = Duration.ofSeconds(5);
+    // How long a request may wait for a free pooled connection
+    private Duration connectionRequestTimeout = Duration.ofSeconds(2);
+    private Duration idleTimeout = Duration.ofSeconds(30);
+    private Duration connectionTimeToLive = Duration.ofMinutes(5);
+    private boolean compression = true;
+}
@@ -0,0 +1,66 @@
+package com.example.weatherApp.config;
+
+import com.example.weatherApp.service.cache.StaleValueStore;
+import com.example.weatherApp.service.ratelimit.DynamoDbTokenBucket;
+import com.example.weatherApp.service.ratelimit.LocalTokenBucket;
+import com.example.weatherApp.service.ratelimit.TokenBucket;
+import com.example.weatherApp.service.ratelimit.UpstreamPriority;
+import com.example.weatherApp.service.ratelimit.UpstreamQuota;
+import com.example.weatherApp.service.ratelimit.UpstreamRateLimiter;
+import com.example.weatherApp.service.resilience.UpstreamGuards;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Client-side rate limit of the OpenWeatherMap calls, so bursts queue or fall back to
+ * stale values instead of running into the plan's quota.
+ */
+@Configuration
+@EnableConfigurationProperties(RateLimitProperties.class)
+public class RateLimitConfig {
+
+    @Bean
+    @ConditionalOnProperty(name = "weather.upstream.rate-limit.enabled", havingValue = "true")
+    public TokenBucket upstreamTokenBucket(RateLimitProperties properties,
+                                           ObjectProvider<DynamoDbClient> dynamoDbClient) {
+        double tokensPerSecond = properties.getTokensPerMinute() / 60d;
+        return switch (properties.getStore()) {
+            case LOCAL -> new LocalTokenBucket(properties.getBurst(), tokensPerSecond);
+            case DYNAMODB -> new DynamoDbTokenBucket(dynamoDbClient.getObject(), properties.getTableName(),
+                    properties.getBucketId(), properties.getBurst(), tokensPerSecond, Clock.systemUTC());
+        };
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "weather.upstream.rate-limit.enabled", havingValue = "true")
+    public UpstreamRateLimiter upstreamRateLimiter(TokenBucket upstreamTokenBucket, RateLimitProperties properties,
+                                                   MeterRegistry meterRegistry) {
+        return new UpstreamRateLimiter(upstreamTokenBucket, properties.getLeaseSize(),
+                properties.getTokensPerMinute() / 60d,
+                Map.of(UpstreamPriority.USER, properties.getUserMaxWait(),
+                        UpstreamPriority.REFRESH, properties.getRefreshMaxWait(),
+                        UpstreamPriority.PREFETCH, properties.getPrefetchMaxWait()),
+                meterRegistry);
+    }
+
+    // Without rate limiting the quota still answers upstream 429s with stale values
+    @Bean
+    public UpstreamQuota upstreamQuota(UpstreamGuards upstreamGuards, ObjectProvider<UpstreamRateLimiter> rateLimiter,
+                                       RateLimitProperties properties, MeterRegistry meterRegistry) {
+        StaleValueStore staleValues = new StaleValueStore(properties.getStaleMaximumWeight().toBytes(),
+                properties.getStaleRetention());
+        // About the time until the next token
+        Duration retryAfter = Duration.ofSeconds(Math.max(1, (long) Math.ceil(60d / properties.getTokensPerMinute())));
+        return new UpstreamQuota(upstreamGuards.get(UpstreamGuards.OPEN_WEATHER_MAP), rateLimiter.getIfAvailable(),
+                staleValues, retryAfter, meterRegistry);
+    }
+}
@@ -0,0 +1,35 @@
+package com.example.weatherApp.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "weather.upstream.rate-limit")
+public class RateLimitProperties {
+
+    private boolean enabled = false;
+    // The OpenWeatherMap plan's calls per minute, for all instances together with the dynamodb store
+    private int tokensPerMinute = 60;
+    // Calls that may be made at once after a quiet period
+    private int burst = 60;
+    private Store store = Store.LOCAL;
+    // Table keyed by "id", the shared cache table will do
+    private String tableName = "weather-cache";
+    private String bucketId = "ratelimit#openweathermap";
+    // Tokens taken from the bucket at once, raise it for the dynamodb store
+    private int leaseSize = 1;
+    // How long a call may wait for a token, by priority
+    private Duration userMaxWait = Duration.ofMillis(500);
+    private Duration refreshMaxWait = Duration.ofSeconds(10);
+    private Duration prefetchMaxWait = Duration.ofSeconds(10);
+    // Last fetched values served when no upstream call can be made
+    private Duration staleRetention = Duration.ofHours(24);
+    private DataSize staleMaximumWeight = DataSize.ofMegabytes(16);
+
+    public enum Store {
+        LOCAL, DYNAMODB
+    }
+}
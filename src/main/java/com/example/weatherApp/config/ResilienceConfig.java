@@ -0,0 +1,28 @@
+package com.example.weatherApp.config;
+
+import com.example.weatherApp.service.resilience.CircuitBreakersEndpoint;
+import com.example.weatherApp.service.resilience.UpstreamGuards;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Bulkhead and circuit breaker per upstream dependency, so a slow ipgeolocation.io cannot
+ * tie up the threads serving {@code /city} and an unavailable upstream fails fast with a
+ * fallback instead of a timeout.
+ */
+@Configuration
+@EnableConfigurationProperties(ResilienceProperties.class)
+public class ResilienceConfig {
+
+    @Bean
+    public UpstreamGuards upstreamGuards(ResilienceProperties properties, MeterRegistry meterRegistry) {
+        return new UpstreamGuards(properties, meterRegistry);
+    }
+
+    @Bean
+    public CircuitBreakersEndpoint circuitBreakersEndpoint(UpstreamGuards upstreamGuards) {
+        return new CircuitBreakersEndpoint(upstreamGuards);
+    }
+}
@@ -0,0 +1,58 @@
+package com.example.weatherApp.config;
+
+import com.example.weatherApp.model.LocationData;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@Data
+@ConfigurationProperties(prefix = "weather.upstream.resilience")
+public class ResilienceProperties {
+
+    // Bulkhead and circuit breaker settings by upstream dependency, see UpstreamGuards
+    private Map<String, Dependency> dependencies = new LinkedHashMap<>();
+    // Served for client IPs while the geolocation service is unavailable
+    private DefaultLocation defaultLocation = new DefaultLocation();
+
+    public Dependency getDependency(String name) {
+        return dependencies.getOrDefault(name, new Dependency());
+    }
+
+    @Data
+    public static class Dependency {
+        // Calls in flight at once; further calls wait up to max-wait for a slot
+        private int maxConcurrentCalls = 20;
+        private Duration maxWait = Duration.ofMillis(100);
+        // Outcomes of the last calls the failure rate is taken over
+        private int slidingWindowSize = 20;
+        private int minimumCalls = 10;
+        // Percentage of failed calls that opens the breaker
+        private int failureRateThreshold = 50;
+        private Duration openDuration = Duration.ofSeconds(30);
+        // Probes let through after open-duration, all of them must succeed to close
+        private int halfOpenCalls = 3;
+    }
+
+    @Data
+    public static class DefaultLocation {
+        private String city = "Oslo";
+        private String country = "Norway";
+        private String countryCode = "NO";
+        private double latitude = 59.91;
+        private double longitude = 10.75;
+
+        public LocationData forIp(String ipAddress) {
+            return LocationData.builder()
+                    .city(city)
+                    .country(country)
+                    .countryCode(countryCode)
+                    .latitude(latitude)
+                    .longitude(longitude)
+                    .ipAddress(ipAddress)
+                    .build();
+        }
+    }
+}
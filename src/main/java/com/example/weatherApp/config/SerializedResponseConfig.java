@@ -0,0 +1,33 @@
+package com.example.weatherApp.config;
+
+import com.example.weatherApp.controller.PreSerializedJsonHttpMessageConverter;
+import com.example.weatherApp.service.cache.SerializedResponseCache;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Weather API responses written from their cached JSON encoding. Boot puts converter beans
+ * ahead of its defaults, so {@link PreSerializedJsonHttpMessageConverter} takes
+ * {@code WeatherData} before Jackson does.
+ */
+@Configuration
+@ConditionalOnProperty(name = "weather.cache.serialized-responses.enabled", havingValue = "true")
+public class SerializedResponseConfig {
+
+    @Bean
+    public SerializedResponseCache serializedResponseCache(ObjectMapper objectMapper, CacheProperties cacheProperties,
+                                                           MeterRegistry meterRegistry) {
+        CacheProperties.SerializedResponses properties = cacheProperties.getSerializedResponses();
+        return new SerializedResponseCache(objectMapper, properties.getMaximumWeight().toBytes(),
+                properties.getTtl(), meterRegistry);
+    }
+
+    @Bean
+    public PreSerializedJsonHttpMessageConverter preSerializedJsonHttpMessageConverter(
+            SerializedResponseCache serializedResponseCache) {
+        return new PreSerializedJsonHttpMessageConverter(serializedResponseCache);
+    }
+}
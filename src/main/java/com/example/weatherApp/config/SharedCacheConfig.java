@@ -0,0 +1,97 @@
+package com.example.weatherApp.config;
+
+import com.example.weatherApp.service.cache.BinaryCacheValueCodec;
+import com.example.weatherApp.service.cache.CacheValueCodec;
+import com.example.weatherApp.service.cache.DynamoDbSharedCacheStore;
+import com.example.weatherApp.service.cache.InMemorySharedCacheStore;
+import com.example.weatherApp.service.cache.JsonCacheValueCodec;
+import com.example.weatherApp.service.cache.SharedCache;
+import com.example.weatherApp.service.cache.SharedCacheStore;
+import com.example.weatherApp.service.cache.TwoLevelCacheMeterBinderProvider;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import reactor.core.scheduler.Schedulers;
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbEnhancedClient;
+import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Second cache level shared by all instances, so a scaled-out fleet fetches each entry
+ * from upstream once instead of once per node. CacheConfig puts it behind the Caffeine caches.
+ */
+@Configuration
+@ConditionalOnProperty(name = "weather.cache.shared.enabled", havingValue = "true")
+public class SharedCacheConfig {
+
+    @Bean
+    @ConditionalOnProperty(name = "weather.cache.shared.store", havingValue = "dynamodb", matchIfMissing = true)
+    public SharedCacheStore dynamoDbSharedCacheStore(CacheProperties cacheProperties,
+                                                     DynamoDbEnhancedClient enhancedClient,
+                                                     DynamoDbClient dynamoDbClient) {
+        CacheProperties.Shared shared = cacheProperties.getShared();
+        DynamoDbSharedCacheStore store = new DynamoDbSharedCacheStore(enhancedClient, shared.getTableName());
+        if (shared.isCreateTable()) {
+            store.createTableIfMissing(dynamoDbClient);
+        }
+        return store;
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "weather.cache.shared.store", havingValue = "memory")
+    public SharedCacheStore inMemorySharedCacheStore() {
+        return new InMemorySharedCacheStore();
+    }
+
+    @Bean(destroyMethod = "shutdown")
+    public SharedCache sharedCache(SharedCacheStore store, ObjectMapper objectMapper,
+                                   CacheProperties cacheProperties, Environment environment) {
+        CacheProperties.Shared shared = cacheProperties.getShared();
+        ThreadFactory threadFactory = Threading.VIRTUAL.isActive(environment)
+                ? Thread.ofVirtual().name("cache-shared-", 1).factory()
+                : new CustomizableThreadFactory("cache-shared-");
+
+        // Rejected writes are counted and dropped by SharedCache
+        ThreadPoolExecutor writeExecutor = new ThreadPoolExecutor(shared.getWriteThreads(), shared.getWriteThreads(),
+                60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(shared.getWriteQueueCapacity()),
+                threadFactory,
+                new ThreadPoolExecutor.AbortPolicy());
+        writeExecutor.allowCoreThreadTimeOut(true);
+
+        // Shared entries live as long as an L1 entry stays fresh, so an entry another node
+        // picks up is never older than a refresh-ahead entry of its own would be
+        Map<String, Duration> timeToLive = new LinkedHashMap<>();
+        for (String cacheName : CacheConfig.CACHE_NAMES) {
+            CacheProperties.CacheSpec spec = cacheProperties.getSpec(cacheName);
+            timeToLive.put(cacheName, spec.getSoftTtl() != null ? spec.getSoftTtl() : spec.getHardTtl());
+        }
+
+        // Entries written with the other codec fail to decode and are read as misses
+        CacheValueCodec codec = switch (shared.getCodec()) {
+            case BINARY -> new BinaryCacheValueCodec();
+            case JSON -> new JsonCacheValueCodec(objectMapper);
+        };
+
+        // Reactive lookups read the store off the event loop
+        return new SharedCache(store, codec, writeExecutor,
+                task -> Schedulers.boundedElastic().schedule(task), timeToLive, Clock.systemUTC());
+    }
+
+    @Bean
+    public TwoLevelCacheMeterBinderProvider twoLevelCacheMeterBinderProvider() {
+        return new TwoLevelCacheMeterBinderProvider();
+    }
+}
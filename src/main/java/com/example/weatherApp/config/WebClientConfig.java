@@ -0,0 +1,39 @@
+package com.example.weatherApp.config;
+
+import io.netty.channel.ChannelOption;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+/**
+ * Non-blocking WebClient for the reactive upstream clients, configured from the same
+ * {@code weather.http.*} settings as the blocking RestTemplate.
+ */
+@Configuration
+@ConditionalOnProperty(name = "weather.client.mode", havingValue = "reactive")
+public class WebClientConfig {
+
+    @Bean
+    public WebClient upstreamWebClient(WebClient.Builder builder, HttpClientProperties properties) {
+        // Reactor Netty keeps one pool per remote address, so the per-route limit applies to each pool
+        ConnectionProvider connectionProvider = ConnectionProvider.builder("upstream")
+                .maxConnections(properties.getMaxConnectionsPerRoute())
+                .pendingAcquireTimeout(properties.getConnectionRequestTimeout())
+                .maxIdleTime(properties.getIdleTimeout())
+                .maxLifeTime(properties.getConnectionTimeToLive())
+                .build();
+
+        HttpClient httpClient = HttpClient.create(connectionProvider)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) properties.getConnectTimeout().toMillis())
+                .responseTimeout(properties.getReadTimeout())
+                .compress(properties.isCompression());
+
+        return builder
+                .clientConnector(new ReactorClientHttpConnector(httpClient))
+                .build();
+    }
+}
@@ -1,8 +1,10 @@
 package com.example.weatherApp.controller;
 
+import com.example.weatherApp.service.resilience.UpstreamUnavailableException;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.MethodArgumentNotValidException;
@@ -10,6 +12,9 @@ import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.client.HttpClientErrorException;
 import org.springframework.web.client.RestClientException;
+import org.springframework.web.reactive.function.client.WebClientException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import org.springframework.web.server.ResponseStatusException;
 
 import java.util.HashMap;
 import java.util.Map;
@@ -32,11 +37,26 @@ public class GlobalExceptionHandler {
     @ExceptionHandler(HttpClientErrorException.class)
     public ResponseEntity<ErrorResponse> handleHttpClientError(HttpClientErrorException ex) {
         log.error("HTTP client error: {}", ex.getMessage());
+        // Our upstream quota is not the user's rate limit
+        if (ex.getStatusCode().isSameCodeAs(HttpStatus.TOO_MANY_REQUESTS)) {
+            return new ResponseEntity<>(
+                    new ErrorResponse("External API Error", "External service is over capacity, retry later"),
+                    HttpStatus.SERVICE_UNAVAILABLE);
+        }
         return new ResponseEntity<>(
                 new ErrorResponse("External API Error", ex.getStatusCode().value() + " - " + ex.getStatusText()),
                 ex.getStatusCode());
     }
     
+    // No upstream call could be made (rate limit, open circuit, full bulkhead) and no fallback was available
+    @ExceptionHandler(UpstreamUnavailableException.class)
+    public ResponseEntity<ErrorResponse> handleUpstreamUnavailable(UpstreamUnavailableException ex) {
+        log.warn("Upstream unavailable: {}", ex.getMessage());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, Long.toString(ex.getRetryAfter().toSeconds()))
+                .body(new ErrorResponse("External API Error", "External service is over capacity, retry later"));
+    }
+
     @ExceptionHandler(RestClientException.class)
     public ResponseEntity<ErrorResponse> handleRestClientException(RestClientException ex) {
         log.error("Rest client error: {}", ex.getMessage());
@@ -45,6 +65,35 @@ public class GlobalExceptionHandler {
                 HttpStatus.SERVICE_UNAVAILABLE);
     }
     
+    @ExceptionHandler(ResponseStatusException.class)
+    public ResponseEntity<ErrorResponse> handleResponseStatusException(ResponseStatusException ex) {
+        log.error("Request rejected: {}", ex.getReason());
+        return new ResponseEntity<>(
+                new ErrorResponse("Request Error", ex.getReason()),
+                ex.getStatusCode());
+    }
+    
+    // Reactive client mode, mapped like the RestTemplate exceptions above
+
+    @ExceptionHandler(WebClientResponseException.class)
+    public ResponseEntity<ErrorResponse> handleWebClientResponseException(WebClientResponseException ex) {
+        if (!ex.getStatusCode().is4xxClientError()) {
+            return handleWebClientException(ex);
+        }
+        log.error("HTTP client error: {}", ex.getMessage());
+        return new ResponseEntity<>(
+                new ErrorResponse("External API Error", ex.getStatusCode().value() + " - " + ex.getStatusText()),
+                ex.getStatusCode());
+    }
+
+    @ExceptionHandler(WebClientException.class)
+    public ResponseEntity<ErrorResponse> handleWebClientException(WebClientException ex) {
+        log.error("Web client error: {}", ex.getMessage());
+        return new ResponseEntity<>(
+                new ErrorResponse("External API Error", "Could not connect to external service"),
+                HttpStatus.SERVICE_UNAVAILABLE);
+    }
+    
     @ExceptionHandler(Exception.class)
     public ResponseEntity<ErrorResponse> handleGenericException(Exception ex) {
         log.error("Unexpected error: ", ex);
@@ -0,0 +1,40 @@
+package com.example.weatherApp.controller;
+
+import com.example.weatherApp.model.WeatherData;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ResponseEntity;
+
+import java.time.Duration;
+
+/**
+ * Validators and freshness headers of the weather responses. A GET with a matching
+ * {@code If-None-Match} is answered with 304 by Spring before the body is serialized or
+ * the page is rendered.
+ */
+final class HttpCaching {
+
+    private HttpCaching() {
+    }
+
+    // Responses for the caller's own location must not be shared by the CDN
+    static ResponseEntity<WeatherData> ok(WeatherData weatherData, String version, Duration remaining,
+                                          boolean shared) {
+        return ResponseEntity.ok()
+                .eTag(etag(version))
+                .cacheControl(cacheControl(remaining, shared))
+                .body(weatherData);
+    }
+
+    // Revalidated on every use when the cache entries behind the response are not known
+    static CacheControl cacheControl(Duration remaining, boolean shared) {
+        CacheControl cacheControl = remaining == null || remaining.isZero()
+                ? CacheControl.noCache()
+                : CacheControl.maxAge(remaining);
+        return shared ? cacheControl.cachePublic() : cacheControl.cachePrivate();
+    }
+
+    // Weak, the JSON and a gzipped copy are equivalent. See WeatherVersions for the version
+    static String etag(String version) {
+        return "W/\"" + version + "\"";
+    }
+}
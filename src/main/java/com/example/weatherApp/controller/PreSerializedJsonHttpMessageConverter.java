@@ -0,0 +1,49 @@
+package com.example.weatherApp.controller;
+
+import com.example.weatherApp.model.WeatherData;
+import com.example.weatherApp.service.cache.SerializedResponseCache;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+
+import java.io.IOException;
+
+/**
+ * Writes {@link WeatherData} responses as JSON from {@link SerializedResponseCache}, ahead of
+ * the Jackson converter. The cached bytes go to the response body as they are, with their
+ * length as Content-Length. Write only: requests are still read by Jackson.
+ */
+public class PreSerializedJsonHttpMessageConverter extends AbstractHttpMessageConverter<WeatherData> {
+
+    private final SerializedResponseCache serializedResponses;
+
+    public PreSerializedJsonHttpMessageConverter(SerializedResponseCache serializedResponses) {
+        super(MediaType.APPLICATION_JSON, new MediaType("application", "*+json"));
+        this.serializedResponses = serializedResponses;
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return WeatherData.class.isAssignableFrom(clazz);
+    }
+
+    @Override
+    public boolean canRead(Class<?> clazz, MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    protected WeatherData readInternal(Class<? extends WeatherData> clazz, HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("Write only converter", inputMessage);
+    }
+
+    @Override
+    protected void writeInternal(WeatherData weatherData, HttpOutputMessage outputMessage) throws IOException {
+        byte[] json = serializedResponses.get(weatherData);
+        // Headers are committed with the first access to the body
+        outputMessage.getHeaders().setContentLength(json.length);
+        outputMessage.getBody().write(json);
+    }
+}
@@ -0,0 +1,92 @@
+package com.example.weatherApp.controller;
+
+import com.example.weatherApp.model.WeatherData;
+import com.example.weatherApp.model.WeatherSearchRequest;
+import com.example.weatherApp.service.ReactiveWeatherService;
+import com.example.weatherApp.service.cache.WeatherFreshness;
+import com.example.weatherApp.service.cache.WeatherVersions;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+
+/**
+ * Same API as {@link WeatherController}, served when {@code weather.client.mode=reactive}.
+ * Returning a {@link Mono} completes the request asynchronously, so no servlet thread is
+ * held while the upstream calls are in flight.
+ */
+@RestController
+@RequestMapping("/api/weather")
+@ConditionalOnProperty(name = "weather.client.mode", havingValue = "reactive")
+@RequiredArgsConstructor
+@Slf4j
+public class ReactiveWeatherController {
+
+    private final ReactiveWeatherService weatherService;
+    private final WeatherFreshness freshness;
+    private final WeatherVersions versions;
+
+    @PostMapping("/search")
+    public Mono<ResponseEntity<WeatherData>> searchWeather(
+            @Valid @RequestBody WeatherSearchRequest request,
+            HttpServletRequest httpRequest) {
+
+        log.info("Received weather search request: {}", request);
+        return weatherService.getWeatherData(request, httpRequest)
+                .map(ResponseEntity::ok);
+    }
+
+    @GetMapping("/city/{city}")
+    public Mono<ResponseEntity<WeatherData>> getWeatherByCity(
+            @PathVariable String city,
+            @RequestParam(required = false, defaultValue = "5") int days) {
+
+        log.info("Getting weather for city: {}, days: {}", city, days);
+        WeatherSearchRequest request = WeatherSearchRequest.builder()
+                .city(city)
+                .days(days)
+                .build();
+
+        return weatherService.getWeatherData(request, null)
+                .map(weatherData -> HttpCaching.ok(weatherData, versions.version(weatherData),
+                        freshness.remaining(request, weatherData), true));
+    }
+
+    @GetMapping("/coordinates")
+    public Mono<ResponseEntity<WeatherData>> getWeatherByCoordinates(
+            @RequestParam String latitude,
+            @RequestParam String longitude,
+            @RequestParam(required = false, defaultValue = "5") int days) {
+
+        log.info("Getting weather for coordinates: {}, {}, days: {}", latitude, longitude, days);
+        WeatherSearchRequest request = WeatherSearchRequest.builder()
+                .latitude(latitude)
+                .longitude(longitude)
+                .days(days)
+                .build();
+
+        return weatherService.getWeatherData(request, null)
+                .map(weatherData -> HttpCaching.ok(weatherData, versions.version(weatherData),
+                        freshness.remaining(request, weatherData), true));
+    }
+
+    @GetMapping("/current-location")
+    public Mono<ResponseEntity<WeatherData>> getWeatherForCurrentLocation(
+            @RequestParam(required = false, defaultValue = "5") int days,
+            HttpServletRequest httpRequest) {
+
+        log.info("Getting weather for current location, days: {}", days);
+        WeatherSearchRequest request = WeatherSearchRequest.builder()
+                .useUserLocation(true)
+                .days(days)
+                .build();
+
+        return weatherService.getWeatherData(request, httpRequest)
+                .map(weatherData -> HttpCaching.ok(weatherData, versions.version(weatherData),
+                        freshness.remaining(request, weatherData), false));
+    }
+}
@@ -1,22 +1,40 @@
 package com.example.weatherApp.controller;
 
+import com.example.weatherApp.model.WeatherBatchItem;
 import com.example.weatherApp.model.WeatherData;
 import com.example.weatherApp.model.WeatherSearchRequest;
+import com.example.weatherApp.service.ClientIpResolver;
+import com.example.weatherApp.service.WeatherBatchService;
 import com.example.weatherApp.service.WeatherService;
+import com.example.weatherApp.service.cache.WeatherFreshness;
+import com.example.weatherApp.service.cache.WeatherVersions;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
 
 @RestController
 @RequestMapping("/api/weather")
+@ConditionalOnProperty(name = "weather.client.mode", havingValue = "blocking", matchIfMissing = true)
 @RequiredArgsConstructor
 @Slf4j
 public class WeatherController {
 
     private final WeatherService weatherService;
+    private final WeatherBatchService weatherBatchService;
+    private final WeatherFreshness freshness;
+    private final WeatherVersions versions;
+    private final ObjectMapper objectMapper;
 
     /**
      * Get weather data based on search parameters
@@ -54,7 +72,8 @@ public class WeatherController {
                 .build();
         
         WeatherData weatherData = weatherService.getWeatherData(request, null);
-        return ResponseEntity.ok(weatherData);
+        return HttpCaching.ok(weatherData, versions.version(weatherData),
+                freshness.remaining(request, weatherData), true);
     }
     
     /**
@@ -79,7 +98,8 @@ public class WeatherController {
                 .build();
         
         WeatherData weatherData = weatherService.getWeatherData(request, null);
-        return ResponseEntity.ok(weatherData);
+        return HttpCaching.ok(weatherData, versions.version(weatherData),
+                freshness.remaining(request, weatherData), true);
     }
     
     /**
@@ -101,6 +121,56 @@ public class WeatherController {
                 .build();
         
         WeatherData weatherData = weatherService.getWeatherData(request, httpRequest);
-        return ResponseEntity.ok(weatherData);
+        return HttpCaching.ok(weatherData, versions.version(weatherData),
+                freshness.remaining(request, weatherData), false);
+    }
+
+    /**
+     * Get weather data for many searches in one call
+     * 
+     * @param requests Search parameters, one result per entry
+     * @param httpRequest HTTP request (to extract client IP if needed)
+     * @return Results in request order, a failed entry carries its own status and error
+     */
+    @PostMapping(value = "/batch", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<List<WeatherBatchItem>> getWeatherBatch(
+            @RequestBody List<WeatherSearchRequest> requests,
+            HttpServletRequest httpRequest) {
+        
+        log.info("Received weather batch request with {} entries", requests.size());
+        List<WeatherBatchItem> results = weatherBatchService.getWeatherData(
+                requests, ClientIpResolver.resolve(httpRequest));
+        return ResponseEntity.ok(results);
+    }
+    
+    /**
+     * Get weather data for many searches as newline-delimited JSON
+     * 
+     * @param requests Search parameters, one result per entry
+     * @param httpRequest HTTP request (to extract client IP if needed)
+     * @return One line per result, written as soon as it completes (match them up by index)
+     */
+    @PostMapping(value = "/batch", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamWeatherBatch(
+            @RequestBody List<WeatherSearchRequest> requests,
+            HttpServletRequest httpRequest) {
+        
+        log.info("Received streaming weather batch request with {} entries", requests.size());
+        // Checked and resolved up front, the body is written after the request has been handed off
+        weatherBatchService.checkBatchSize(requests);
+        String clientIp = ClientIpResolver.resolve(httpRequest);
+        
+        StreamingResponseBody body = out -> weatherBatchService.streamWeatherData(requests, clientIp, item -> {
+            try {
+                out.write(objectMapper.writeValueAsBytes(item));
+                out.write('\n');
+                out.flush();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
     }
-}
\ No newline at end of file
+}
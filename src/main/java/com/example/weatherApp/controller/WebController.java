@@ -3,19 +3,43 @@ package com.example.weatherApp.controller;
 import com.example.weatherApp.model.WeatherData;
 import com.example.weatherApp.model.WeatherSearchRequest;
 import com.example.weatherApp.service.WeatherService;
+import com.example.weatherApp.service.cache.RenderedPageCache;
+import com.example.weatherApp.service.cache.WeatherFreshness;
+import com.example.weatherApp.service.cache.WeatherVersions;
 import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.ModelAttribute;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.View;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+import org.thymeleaf.spring6.view.ThymeleafViewResolver;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
 
 @Controller
 @RequiredArgsConstructor
 public class WebController {
 
+    private static final MediaType TEXT_HTML_UTF8 = new MediaType(MediaType.TEXT_HTML, StandardCharsets.UTF_8);
+
     private final WeatherService weatherService;
+    private final WeatherFreshness freshness;
+    private final WeatherVersions versions;
+    private final RenderedPageCache renderedPages;
+    // Looked up when rendering, there is none when the context is started without a web server
+    private final ObjectProvider<ThymeleafViewResolver> thymeleafViewResolver;
     
     @GetMapping("/")
     public String home(Model model) {
@@ -23,16 +47,69 @@ public class WebController {
         return "index";
     }
     
-    @PostMapping("/weather")
-    public String getWeather(@ModelAttribute WeatherSearchRequest searchRequest, 
-                             Model model, 
-                             HttpServletRequest request) {
+    // The search form submits here, so result pages can be linked, cached and revalidated
+    @GetMapping("/weather")
+    public ResponseEntity<byte[]> showWeather(@ModelAttribute WeatherSearchRequest searchRequest,
+                                              Locale locale,
+                                              HttpServletRequest request,
+                                              HttpServletResponse response,
+                                              WebRequest webRequest) {
         
         WeatherData weatherData = weatherService.getWeatherData(searchRequest, request);
         
-        model.addAttribute("weatherData", weatherData);
-        model.addAttribute("searchRequest", searchRequest);
+        // Pages for the caller's own location must not be shared by the CDN
+        boolean byLocation = Boolean.TRUE.equals(searchRequest.getUseUserLocation())
+                || ((searchRequest.getCity() == null || searchRequest.getCity().isEmpty())
+                    && (searchRequest.getLatitude() == null || searchRequest.getLongitude() == null));
+        response.setHeader(HttpHeaders.CACHE_CONTROL, HttpCaching.cacheControl(
+                freshness.remaining(searchRequest, weatherData), !byLocation).getHeaderValue());
+        // Answered with 304 without rendering the page
+        String etag = HttpCaching.etag(versions.version(weatherData));
+        if (webRequest.checkNotModified(etag)) {
+            return null;
+        }
+        
+        return htmlPage(weatherPage(searchRequest, weatherData, locale, request, response), locale);
+    }
+    
+    @PostMapping("/weather")
+    public ResponseEntity<byte[]> getWeather(@ModelAttribute WeatherSearchRequest searchRequest,
+                                             Locale locale,
+                                             HttpServletRequest request,
+                                             HttpServletResponse response) {
         
-        return "weather";
+        WeatherData weatherData = weatherService.getWeatherData(searchRequest, request);
+        
+        return htmlPage(weatherPage(searchRequest, weatherData, locale, request, response), locale);
+    }
+    
+    // The page shows nothing but the weather data, so it is rendered once per data version
+    private byte[] weatherPage(WeatherSearchRequest searchRequest, WeatherData weatherData, Locale locale,
+                               HttpServletRequest request, HttpServletResponse response) {
+        Map<String, Object> model = Map.of("weatherData", weatherData, "searchRequest", searchRequest);
+        int days = Optional.ofNullable(searchRequest.getDays()).orElse(5);
+        return renderedPages.get(weatherData, days, locale,
+                () -> render("weather", model, locale, request, response));
+    }
+    
+    // Headers of a rendered view, which are not set when the page comes from the cache
+    private static ResponseEntity<byte[]> htmlPage(byte[] html, Locale locale) {
+        return ResponseEntity.ok()
+                .contentType(TEXT_HTML_UTF8)
+                .header(HttpHeaders.CONTENT_LANGUAGE, locale.toLanguageTag())
+                .body(html);
+    }
+    
+    private byte[] render(String viewName, Map<String, ?> model, Locale locale,
+                          HttpServletRequest request, HttpServletResponse response) {
+        // Rendered into a buffer, the response body is written from the returned bytes
+        ContentCachingResponseWrapper buffer = new ContentCachingResponseWrapper(response);
+        try {
+            View view = thymeleafViewResolver.getObject().resolveViewName(viewName, locale);
+            view.render(model, request, buffer);
+        } catch (Exception e) {
+            throw new IllegalStateException("Could not render view " + viewName, e);
+        }
+        return buffer.getContentAsByteArray();
     }
-}
\ No newline at end of file
+}
@@ -2,12 +2,12 @@ package com.example.weatherApp.model;
 
 import lombok.AllArgsConstructor;
 import lombok.Builder;
-import lombok.Data;
-import lombok.NoArgsConstructor;
+import lombok.Value;
+import lombok.extern.jackson.Jacksonized;
 
-@Data
-@Builder
-@NoArgsConstructor
+@Value
+@Builder(toBuilder = true)
+@Jacksonized
 @AllArgsConstructor
 public class Coordinates {
     private Double latitude;
@@ -0,0 +1,24 @@
+package com.example.weatherApp.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Value;
+import lombok.extern.jackson.Jacksonized;
+
+/**
+ * Result for one entry of a batch request. {@code index} is the entry's position in the
+ * request, either {@code weather} or {@code error} is set.
+ */
+@Value
+@Builder(toBuilder = true)
+@Jacksonized
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class WeatherBatchItem {
+    private int index;
+    private int status;
+    private WeatherData weather;
+    private String error;
+    private String details;
+}
@@ -2,15 +2,19 @@ package com.example.weatherApp.model;
 
 import lombok.AllArgsConstructor;
 import lombok.Builder;
-import lombok.Data;
-import lombok.NoArgsConstructor;
+import lombok.Value;
+import lombok.extern.jackson.Jacksonized;
 
 import java.time.LocalDateTime;
 import java.util.List;
 
-@Data
-@Builder
-@NoArgsConstructor
+/**
+ * Immutable, cached instances are shared between requests. Build a copy with
+ * {@link #toBuilder()} instead of changing one, and keep {@code dailyForecasts} unmodifiable.
+ */
+@Value
+@Builder(toBuilder = true)
+@Jacksonized
 @AllArgsConstructor
 public class WeatherData {
     private String cityName;
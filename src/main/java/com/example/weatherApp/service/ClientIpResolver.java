@@ -0,0 +1,33 @@
+package com.example.weatherApp.service;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+/**
+ * Resolves the caller's IP address from the usual proxy headers, falling back to the
+ * remote address. Shared by the blocking and the reactive weather service.
+ */
+public final class ClientIpResolver {
+
+    private ClientIpResolver() {
+    }
+
+    public static String resolve(HttpServletRequest request) {
+        String clientIp = request.getHeader("X-Forwarded-For");
+        if (clientIp == null || clientIp.isEmpty() || "unknown".equalsIgnoreCase(clientIp)) {
+            clientIp = request.getHeader("Proxy-Client-IP");
+        }
+        if (clientIp == null || clientIp.isEmpty() || "unknown".equalsIgnoreCase(clientIp)) {
+            clientIp = request.getHeader("WL-Proxy-Client-IP");
+        }
+        if (clientIp == null || clientIp.isEmpty() || "unknown".equalsIgnoreCase(clientIp)) {
+            clientIp = request.getRemoteAddr();
+        }
+        
+        // If it's still empty, use a default IP for testing
+        if (clientIp == null || clientIp.isEmpty()) {
+            clientIp = "8.8.8.8"; // Google DNS as fallback
+        }
+        
+        return clientIp;
+    }
+}
@@ -0,0 +1,136 @@
+package com.example.weatherApp.service;
+
+import com.example.weatherApp.model.Coordinates;
+import com.example.weatherApp.model.LocationData;
+import com.example.weatherApp.model.WeatherData;
+import com.example.weatherApp.model.WeatherSearchRequest;
+import com.example.weatherApp.service.api.ReactiveIpGeolocationClient;
+import com.example.weatherApp.service.api.ReactiveOpenWeatherMapClient;
+import com.example.weatherApp.service.cache.CityCoordinatesIndex;
+import com.example.weatherApp.service.cache.CityLocation;
+import com.example.weatherApp.service.cache.HotLocationTracker;
+import com.example.weatherApp.service.geoip.LocalIpLocationResolver;
+import com.example.weatherApp.service.resilience.Fallbacks;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * Non-blocking counterpart of {@link WeatherService} with the same request dispatch.
+ * Lookups that do not depend on each other are subscribed to concurrently.
+ */
+@Service
+@ConditionalOnProperty(name = "weather.client.mode", havingValue = "reactive")
+@RequiredArgsConstructor
+@Slf4j
+public class ReactiveWeatherService {
+
+    private final ReactiveOpenWeatherMapClient weatherClient;
+    private final ReactiveIpGeolocationClient locationClient;
+    private final LocalIpLocationResolver localIpLocations;
+    private final CityCoordinatesIndex cityIndex;
+    private final HotLocationTracker hotLocations;
+    private final MeterRegistry meterRegistry;
+
+    public Mono<WeatherData> getWeatherData(WeatherSearchRequest request, HttpServletRequest httpRequest) {
+        int days = Optional.ofNullable(request.getDays()).orElse(5);
+
+        // The servlet request is only valid on the calling thread, so the IP is resolved up front
+        if (request.getUseUserLocation() != null && request.getUseUserLocation()) {
+            String clientIp = ClientIpResolver.resolve(httpRequest);
+            return timed("ip", () -> getForecastByIpAddress(clientIp, days));
+        }
+        if (request.getLatitude() != null && request.getLongitude() != null) {
+            double latitude = Double.parseDouble(request.getLatitude());
+            double longitude = Double.parseDouble(request.getLongitude());
+            return timed("coordinates", () -> getForecastByCoordinates(latitude, longitude, days));
+        }
+        if (request.getCity() != null && !request.getCity().isEmpty()) {
+            return timed("city", () -> getForecastByCity(request.getCity(), days));
+        }
+        String clientIp = ClientIpResolver.resolve(httpRequest);
+        return timed("default", () -> getForecastByIpAddress(clientIp, days));
+    }
+
+    // Recorded as weather.request like the blocking requests, from subscription to the last signal
+    private Mono<WeatherData> timed(String branch, Supplier<Mono<WeatherData>> request) {
+        return Mono.defer(() -> {
+            Timer.Sample sample = Timer.start(meterRegistry);
+            return request.get().doFinally(signal -> sample.stop(Timer.builder("weather.request")
+                    .description("End-to-end time of a weather request, by request branch")
+                    .tag("branch", branch)
+                    .tag("outcome", switch (signal) {
+                        case ON_ERROR -> "error";
+                        case CANCEL -> "cancelled";
+                        default -> "success";
+                    })
+                    .register(meterRegistry)));
+        });
+    }
+
+    private Mono<WeatherData> getForecastByCity(String city, int days) {
+        // A known city is a coordinate lookup, sharing its entries with coordinate callers
+        CityLocation location = cityIndex.get(city);
+        if (location != null) {
+            return getForecastByCoordinates(location.latitude(), location.longitude(), days)
+                    .map(weatherData -> weatherData.toBuilder()
+                            .cityName(location.cityName())
+                            .countryCode(location.countryCode())
+                            .build());
+        }
+
+        // The forecast needs the coordinates resolved by the current weather lookup
+        return Fallbacks.orFallback(weatherClient.getCurrentWeatherByCity(city))
+                .doOnNext(currentWeather -> cityIndex.put(city, currentWeather))
+                .flatMap(currentWeather -> withForecast(currentWeather,
+                        currentWeather.getCoordinates().getLatitude(),
+                        currentWeather.getCoordinates().getLongitude(), days));
+    }
+
+    // The cache entries may stand for a whole key cell, the response reports the coordinates that were looked up
+    private Mono<WeatherData> getForecastByCoordinates(double latitude, double longitude, int days) {
+        hotLocations.record(latitude, longitude, days);
+        return Mono.zip(
+                        Fallbacks.orFallback(weatherClient.getCurrentWeatherByCoordinates(latitude, longitude)),
+                        Fallbacks.orFallback(weatherClient.getForecastByCoordinates(latitude, longitude, days)))
+                .map(tuple -> tuple.getT1().toBuilder()
+                        .coordinates(new Coordinates(latitude, longitude))
+                        .dailyForecasts(tuple.getT2())
+                        .build());
+    }
+
+    private Mono<WeatherData> getForecastByIpAddress(String ipAddress, int days) {
+        // The local IP database first, the geolocation API for addresses it does not know
+        return Mono.justOrEmpty(localIpLocations.resolve(ipAddress))
+                .switchIfEmpty(Mono.defer(() -> Fallbacks.orFallback(locationClient.getLocationByIp(ipAddress))))
+                .flatMap(locationData -> getForecastByCoordinates(
+                                locationData.getLatitude(), locationData.getLongitude(), days)
+                        .map(weatherData -> withLocationName(weatherData, locationData)));
+    }
+
+    private Mono<WeatherData> withForecast(WeatherData currentWeather, double latitude, double longitude, int days) {
+        return Fallbacks.orFallback(weatherClient.getForecastByCoordinates(latitude, longitude, days))
+                .map(forecasts -> currentWeather.toBuilder()
+                        .dailyForecasts(forecasts)
+                        .build());
+    }
+
+    // Set the city name from geolocation if not present in weather data
+    private static WeatherData withLocationName(WeatherData weatherData, LocationData locationData) {
+        if (weatherData.getCityName() != null && !weatherData.getCityName().isEmpty()) {
+            return weatherData;
+        }
+        return weatherData.toBuilder()
+                .cityName(locationData.getCity())
+                .countryCode(locationData.getCountryCode())
+                .build();
+    }
+}
@@ -0,0 +1,72 @@
+package com.example.weatherApp.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Timing breakdown of one weather request. Each stage is recorded as
+ * {@code weather.request.stage} and kept for the summary logged when the request ends.
+ * Stages may run on different threads.
+ */
+class RequestTimings {
+
+    private final MeterRegistry meterRegistry;
+    private final String branch;
+    private final long startNanos = System.nanoTime();
+    private final long deadlineNanos;
+    private final Map<String, Long> stageNanos = new ConcurrentSkipListMap<>();
+
+    RequestTimings(MeterRegistry meterRegistry, String branch, Duration timeout) {
+        this.meterRegistry = meterRegistry;
+        this.branch = branch;
+        this.deadlineNanos = startNanos + timeout.toNanos();
+    }
+
+    <T> T time(String stage, Supplier<T> supplier) {
+        long start = System.nanoTime();
+        try {
+            return supplier.get();
+        } finally {
+            long elapsed = System.nanoTime() - start;
+            stageNanos.put(stage, elapsed);
+            Timer.builder("weather.request.stage")
+                    .description("Time spent in one stage of a weather request")
+                    .tag("branch", branch)
+                    .tag("stage", stage)
+                    .register(meterRegistry)
+                    .record(elapsed, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    long remainingNanos() {
+        return deadlineNanos - System.nanoTime();
+    }
+
+    String branch() {
+        return branch;
+    }
+
+    // Total time of the request, the stages that ran in parallel overlap
+    long finish(boolean failed) {
+        long elapsed = System.nanoTime() - startNanos;
+        Timer.builder("weather.request")
+                .description("End-to-end time of a weather request, by request branch")
+                .tag("branch", branch)
+                .tag("outcome", failed ? "error" : "success")
+                .register(meterRegistry)
+                .record(elapsed, TimeUnit.NANOSECONDS);
+        return elapsed;
+    }
+
+    Map<String, Long> stageMillis() {
+        Map<String, Long> millis = new ConcurrentSkipListMap<>();
+        stageNanos.forEach((stage, nanos) -> millis.put(stage, TimeUnit.NANOSECONDS.toMillis(nanos)));
+        return millis;
+    }
+}
@@ -0,0 +1,60 @@
+package com.example.weatherApp.service;
+
+import org.springframework.web.client.ResourceAccessException;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Runs independent upstream lookups of one request in parallel on a bounded executor and
+ * joins them against the request's deadline.
+ */
+public class UpstreamFanOut {
+
+    private final ExecutorService executor;
+    private final Duration timeout;
+
+    public UpstreamFanOut(ExecutorService executor, Duration timeout) {
+        this.executor = executor;
+        this.timeout = timeout;
+    }
+
+    public <T> CompletableFuture<T> fork(Supplier<T> lookup) {
+        return CompletableFuture.supplyAsync(lookup, executor);
+    }
+
+    // Upstream failures are rethrown unchanged so GlobalExceptionHandler maps them as before
+    public <T> T join(CompletableFuture<T> future, long remainingNanos) {
+        try {
+            return future.get(Math.max(remainingNanos, 0), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            throw new ResourceAccessException("Upstream lookups did not complete within " + timeout);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for upstream lookups", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (cause instanceof Error error) {
+                throw error;
+            }
+            throw new IllegalStateException("Upstream lookup failed", cause);
+        }
+    }
+
+    public Duration getTimeout() {
+        return timeout;
+    }
+
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
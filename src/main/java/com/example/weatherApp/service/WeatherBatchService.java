@@ -0,0 +1,266 @@
+package com.example.weatherApp.service;
+
+import com.example.weatherApp.config.BatchProperties;
+import com.example.weatherApp.model.LocationData;
+import com.example.weatherApp.model.WeatherBatchItem;
+import com.example.weatherApp.model.WeatherData;
+import com.example.weatherApp.model.WeatherSearchRequest;
+import com.example.weatherApp.service.cache.CityCoordinatesIndex;
+import com.example.weatherApp.service.cache.CityKey;
+import com.example.weatherApp.service.cache.CityLocation;
+import com.example.weatherApp.service.cache.WeatherCacheKeys;
+import com.example.weatherApp.service.resilience.UpstreamUnavailableException;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+/**
+ * Answers many weather searches in one call. Identical entries are looked up once, entries
+ * whose data is already cached are answered on the calling thread and the rest are fetched
+ * concurrently, at most {@code weather.batch.parallelism} at a time. A failing entry is
+ * reported in its own result and does not fail the batch.
+ *
+ * <p>The parallelism is per batch, concurrent batches fetch side by side. Their upstream calls
+ * together are bounded by the bulkhead of each dependency, see {@code UpstreamGuards}.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class WeatherBatchService {
+
+    private final WeatherService weatherService;
+    private final CacheManager cacheManager;
+    private final WeatherCacheKeys cacheKeys;
+    private final Validator validator;
+    private final BatchProperties batchProperties;
+
+    // Results in request order
+    public List<WeatherBatchItem> getWeatherData(List<WeatherSearchRequest> requests, String clientIp) {
+        WeatherBatchItem[] results = new WeatherBatchItem[requests.size()];
+        streamWeatherData(requests, clientIp, item -> results[item.getIndex()] = item);
+        return Arrays.asList(results);
+    }
+
+    // Results in completion order, the consumer is always called on the calling thread
+    public void streamWeatherData(List<WeatherSearchRequest> requests, String clientIp,
+                                  Consumer<WeatherBatchItem> consumer) {
+        checkBatchSize(requests);
+
+        Map<BatchKey, List<Integer>> entries = new LinkedHashMap<>();
+        List<Integer> nullEntries = new ArrayList<>();
+        for (int index = 0; index < requests.size(); index++) {
+            WeatherSearchRequest request = requests.get(index);
+            if (request == null) {
+                nullEntries.add(index);
+                continue;
+            }
+            entries.computeIfAbsent(batchKey(request), key -> new ArrayList<>()).add(index);
+        }
+
+        List<List<Integer>> answeredInline = new ArrayList<>();
+        if (!nullEntries.isEmpty()) {
+            answeredInline.add(nullEntries);
+        }
+        BlockingQueue<Completed> completed = new LinkedBlockingQueue<>();
+        Semaphore permits = new Semaphore(batchProperties.getParallelism());
+        AtomicBoolean abandoned = new AtomicBoolean();
+        int pending = 0;
+
+        // Misses wait for a permit on their own virtual thread, so the caller is never held up
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (List<Integer> indexes : entries.values()) {
+                WeatherSearchRequest request = requests.get(indexes.get(0));
+                if (!isValid(request) || isCached(request, clientIp)) {
+                    answeredInline.add(indexes);
+                    continue;
+                }
+                pending++;
+                executor.execute(() -> {
+                    try {
+                        permits.acquire();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                    try {
+                        if (!abandoned.get()) {
+                            completed.add(new Completed(indexes, lookup(request, clientIp)));
+                        }
+                    } finally {
+                        permits.release();
+                    }
+                });
+            }
+
+            boolean delivered = false;
+            try {
+                for (List<Integer> indexes : answeredInline) {
+                    emit(indexes, lookup(requests.get(indexes.get(0)), clientIp), consumer);
+                }
+                for (; pending > 0; pending--) {
+                    Completed next = completed.take();
+                    emit(next.indexes(), next.result(), consumer);
+                }
+                delivered = true;
+            } finally {
+                // The consumer failed, e.g. the client disconnected, or the caller was interrupted:
+                // misses still queued must not call upstream for results nobody reads
+                if (!delivered) {
+                    abandoned.set(true);
+                    executor.shutdownNow();
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for batch entries", e);
+        }
+
+        log.debug("Batch of {} entries: {} distinct, {} answered without fetching",
+                requests.size(), entries.size(), answeredInline.size());
+    }
+
+    public void checkBatchSize(List<?> requests) {
+        if (requests.size() > batchProperties.getMaxItems()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "A batch may contain at most " + batchProperties.getMaxItems() + " entries");
+        }
+    }
+
+    private WeatherBatchItem lookup(WeatherSearchRequest request, String clientIp) {
+        if (request == null) {
+            return error(HttpStatus.BAD_REQUEST.value(), "Validation Error", "Batch entry must not be null");
+        }
+        Set<ConstraintViolation<WeatherSearchRequest>> violations = validator.validate(request);
+        if (!violations.isEmpty()) {
+            return error(HttpStatus.BAD_REQUEST.value(), "Validation Error", violations.iterator().next().getMessage());
+        }
+        // Mapped like GlobalExceptionHandler maps the single-search endpoints
+        try {
+            return WeatherBatchItem.builder()
+                    .status(HttpStatus.OK.value())
+                    .weather(weatherService.getWeatherDataForClient(request, clientIp))
+                    .build();
+        } catch (HttpClientErrorException e) {
+            // Our upstream quota is not the user's rate limit
+            if (e.getStatusCode().isSameCodeAs(HttpStatus.TOO_MANY_REQUESTS)) {
+                return error(HttpStatus.SERVICE_UNAVAILABLE.value(), "External API Error",
+                        "External service is over capacity, retry later");
+            }
+            return error(e.getStatusCode().value(), "External API Error",
+                    e.getStatusCode().value() + " - " + e.getStatusText());
+        } catch (UpstreamUnavailableException e) {
+            return error(HttpStatus.SERVICE_UNAVAILABLE.value(), "External API Error",
+                    "External service is over capacity, retry later");
+        } catch (RestClientException e) {
+            return error(HttpStatus.SERVICE_UNAVAILABLE.value(), "External API Error",
+                    "Could not connect to external service");
+        } catch (RuntimeException e) {
+            log.error("Unexpected error in batch entry {}: ", request, e);
+            return error(HttpStatus.INTERNAL_SERVER_ERROR.value(), "Server Error", "An unexpected error occurred");
+        }
+    }
+
+    private boolean isValid(WeatherSearchRequest request) {
+        return validator.validate(request).isEmpty();
+    }
+
+    // Mirrors the dispatch in WeatherService, true when every resource the entry needs is cached
+    private boolean isCached(WeatherSearchRequest request, String clientIp) {
+        int days = Optional.ofNullable(request.getDays()).orElse(5);
+
+        if (request.getUseUserLocation() != null && request.getUseUserLocation()) {
+            return isLocationCached(clientIp, days);
+        }
+        if (request.getLatitude() != null && request.getLongitude() != null) {
+            return isCoordinatesCached(Double.parseDouble(request.getLatitude()),
+                    Double.parseDouble(request.getLongitude()), days);
+        }
+        if (request.getCity() != null && !request.getCity().isEmpty()) {
+            CityLocation location = peek(CityCoordinatesIndex.CACHE_NAME, cacheKeys.city(request.getCity()),
+                    CityLocation.class);
+            if (location != null) {
+                return isCoordinatesCached(location.latitude(), location.longitude(), days);
+            }
+            WeatherData current = peek("currentWeather", cacheKeys.city(request.getCity()), WeatherData.class);
+            return current != null && peek("forecastWeather", cacheKeys.forecast(
+                    current.getCoordinates().getLatitude(), current.getCoordinates().getLongitude(), days),
+                    List.class) != null;
+        }
+        return isLocationCached(clientIp, days);
+    }
+
+    private boolean isLocationCached(String clientIp, int days) {
+        LocationData location = peek("ipLocation", clientIp, LocationData.class);
+        return location != null && isCoordinatesCached(location.getLatitude(), location.getLongitude(), days);
+    }
+
+    private boolean isCoordinatesCached(double latitude, double longitude, int days) {
+        return peek("currentWeather", cacheKeys.coordinates(latitude, longitude), WeatherData.class) != null
+                && peek("forecastWeather", cacheKeys.forecast(latitude, longitude, days), List.class) != null;
+    }
+
+    // Reads Caffeine quietly: no hit/miss stats, no refresh and no load are triggered
+    @SuppressWarnings("unchecked")
+    private <T> T peek(String cacheName, Object key, Class<T> type) {
+        Cache cache = cacheManager.getCache(cacheName);
+        if (cache == null || key == null) {
+            return null;
+        }
+        if (cache.getNativeCache() instanceof com.github.benmanes.caffeine.cache.Cache<?, ?> caffeine) {
+            Object value = ((com.github.benmanes.caffeine.cache.Cache<Object, Object>) caffeine)
+                    .policy().getIfPresentQuietly(key);
+            return type.isInstance(value) ? type.cast(value) : null;
+        }
+        return cache.get(key, type);
+    }
+
+    private static void emit(List<Integer> indexes, WeatherBatchItem result, Consumer<WeatherBatchItem> consumer) {
+        for (int index : indexes) {
+            consumer.accept(result.toBuilder().index(index).build());
+        }
+    }
+
+    private static WeatherBatchItem error(int status, String error, String details) {
+        return WeatherBatchItem.builder()
+                .status(status)
+                .error(error)
+                .details(details)
+                .build();
+    }
+
+    // Entries with the same search parameters, city names compared as cache keys, are answered by one lookup
+    private BatchKey batchKey(WeatherSearchRequest request) {
+        CityKey city = request.getCity() == null || request.getCity().isEmpty() ? null : cacheKeys.city(request.getCity());
+        return new BatchKey(city, request.getLatitude(), request.getLongitude(),
+                Optional.ofNullable(request.getDays()).orElse(5),
+                Boolean.TRUE.equals(request.getUseUserLocation()));
+    }
+
+    private record BatchKey(CityKey city, String latitude, String longitude, int days, boolean useUserLocation) {
+    }
+
+    private record Completed(List<Integer> indexes, WeatherBatchItem result) {
+    }
+}
@@ -1,16 +1,28 @@
 package com.example.weatherApp.service;
 
+import com.example.weatherApp.model.Coordinates;
+import com.example.weatherApp.model.DailyForecast;
 import com.example.weatherApp.model.LocationData;
 import com.example.weatherApp.model.WeatherData;
 import com.example.weatherApp.model.WeatherSearchRequest;
 import com.example.weatherApp.service.api.IpGeolocationClient;
 import com.example.weatherApp.service.api.OpenWeatherMapClient;
+import com.example.weatherApp.service.cache.CityCoordinatesIndex;
+import com.example.weatherApp.service.cache.CityLocation;
+import com.example.weatherApp.service.cache.HotLocationTracker;
+import com.example.weatherApp.service.geoip.LocalIpLocationResolver;
+import com.example.weatherApp.service.resilience.Fallbacks;
+import io.micrometer.core.instrument.MeterRegistry;
 import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
+import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
 
 @Service
 @RequiredArgsConstructor
@@ -19,81 +31,144 @@ public class WeatherService {
 
     private final OpenWeatherMapClient weatherClient;
     private final IpGeolocationClient locationClient;
+    private final LocalIpLocationResolver localIpLocations;
+    private final CityCoordinatesIndex cityIndex;
+    private final HotLocationTracker hotLocations;
+    private final UpstreamFanOut upstreamFanOut;
+    private final MeterRegistry meterRegistry;
 
     public WeatherData getWeatherData(WeatherSearchRequest request, HttpServletRequest httpRequest) {
-        WeatherData weatherData;
+        return getWeatherData(request, () -> ClientIpResolver.resolve(httpRequest));
+    }
+
+    // For callers that resolved the client IP up front, e.g. batch items running on other threads
+    public WeatherData getWeatherDataForClient(WeatherSearchRequest request, String clientIp) {
+        return getWeatherData(request, () -> clientIp);
+    }
+
+    private WeatherData getWeatherData(WeatherSearchRequest request, Supplier<String> clientIp) {
+        int days = Optional.ofNullable(request.getDays()).orElse(5);
         
         // Use user's location based on IP address if requested
         if (request.getUseUserLocation() != null && request.getUseUserLocation()) {
-            String ipAddress = getClientIpAddress(httpRequest);
-            LocationData locationData = locationClient.getLocationByIp(ipAddress);
-            
-            int days = Optional.ofNullable(request.getDays()).orElse(5);
-            weatherData = weatherClient.getForecastByCoordinates(
-                    locationData.getLatitude(),
-                    locationData.getLongitude(),
-                    days
-            );
-            
-            // Set the city name from geolocation if not present in weather data
-            if (weatherData.getCityName() == null || weatherData.getCityName().isEmpty()) {
-                weatherData.setCityName(locationData.getCity());
-                weatherData.setCountryCode(locationData.getCountryCode());
-            }
+            RequestTimings timings = startTimings("ip");
+            return timed(timings, () -> getForecastByIpAddress(clientIp.get(), days, timings));
         }
         // Search by coordinates if provided
         else if (request.getLatitude() != null && request.getLongitude() != null) {
             double latitude = Double.parseDouble(request.getLatitude());
             double longitude = Double.parseDouble(request.getLongitude());
-            
-            int days = Optional.ofNullable(request.getDays()).orElse(5);
-            weatherData = weatherClient.getForecastByCoordinates(latitude, longitude, days);
+            RequestTimings timings = startTimings("coordinates");
+            return timed(timings, () -> getForecastByCoordinates(latitude, longitude, days, timings));
         }
         // Search by city if provided
         else if (request.getCity() != null && !request.getCity().isEmpty()) {
-            int days = Optional.ofNullable(request.getDays()).orElse(5);
-            weatherData = weatherClient.getForecastByCity(request.getCity(), days);
+            RequestTimings timings = startTimings("city");
+            return timed(timings, () -> getForecastByCity(request.getCity(), days, timings));
         }
         // Default to user's location
         else {
-            String ipAddress = getClientIpAddress(httpRequest);
-            LocationData locationData = locationClient.getLocationByIp(ipAddress);
-            
-            int days = Optional.ofNullable(request.getDays()).orElse(5);
-            weatherData = weatherClient.getForecastByCoordinates(
-                    locationData.getLatitude(),
-                    locationData.getLongitude(),
-                    days
-            );
-            
-            // Set the city name from geolocation if not present in weather data
-            if (weatherData.getCityName() == null || weatherData.getCityName().isEmpty()) {
-                weatherData.setCityName(locationData.getCity());
-                weatherData.setCountryCode(locationData.getCountryCode());
-            }
+            RequestTimings timings = startTimings("default");
+            return timed(timings, () -> getForecastByIpAddress(clientIp.get(), days, timings));
         }
-        
-        return weatherData;
     }
 
-    // Helper method to get client IP address
-    private String getClientIpAddress(HttpServletRequest request) {
-        String clientIp = request.getHeader("X-Forwarded-For");
-        if (clientIp == null || clientIp.isEmpty() || "unknown".equalsIgnoreCase(clientIp)) {
-            clientIp = request.getHeader("Proxy-Client-IP");
+    // Failed requests are recorded too, they are often the slowest ones
+    private WeatherData timed(RequestTimings timings, Supplier<WeatherData> request) {
+        boolean failed = true;
+        try {
+            WeatherData weatherData = request.get();
+            failed = false;
+            return weatherData;
+        } finally {
+            long elapsed = timings.finish(failed);
+            log.debug("Weather request ({}) took {} ms, stages in ms: {}",
+                    timings.branch(), TimeUnit.NANOSECONDS.toMillis(elapsed), timings.stageMillis());
         }
-        if (clientIp == null || clientIp.isEmpty() || "unknown".equalsIgnoreCase(clientIp)) {
-            clientIp = request.getHeader("WL-Proxy-Client-IP");
+    }
+
+    // Each upstream resource is looked up through the client's cache proxy on its own and
+    // combined into a new response object, the cached values themselves are never modified.
+    // Lookups that cannot reach upstream for lack of quota fall back to the last fetched value
+
+    private WeatherData getForecastByCity(String city, int days, RequestTimings timings) {
+        // A known city is a coordinate lookup, sharing its entries with coordinate callers
+        CityLocation location = cityIndex.get(city);
+        if (location != null) {
+            return getForecastByCoordinates(location.latitude(), location.longitude(), days, timings).toBuilder()
+                    .cityName(location.cityName())
+                    .countryCode(location.countryCode())
+                    .build();
         }
-        if (clientIp == null || clientIp.isEmpty() || "unknown".equalsIgnoreCase(clientIp)) {
-            clientIp = request.getRemoteAddr();
+
+        // The forecast needs the coordinates resolved by the current weather lookup
+        WeatherData currentWeather = timings.time("current", () ->
+                Fallbacks.orFallback(() -> weatherClient.getCurrentWeatherByCity(city)));
+        cityIndex.put(city, currentWeather);
+        List<DailyForecast> forecasts = timings.time("forecast", () -> Fallbacks.orFallback(() ->
+                weatherClient.getForecastByCoordinates(currentWeather.getCoordinates().getLatitude(),
+                        currentWeather.getCoordinates().getLongitude(), days)));
+        return withForecast(currentWeather, forecasts);
+    }
+
+    private WeatherData getForecastByCoordinates(double latitude, double longitude, int days, RequestTimings timings) {
+        hotLocations.record(latitude, longitude, days);
+
+        // Independent lookups: the forecast runs on the fan-out executor while this thread
+        // fetches the current weather, so the latency is the slower of the two
+        CompletableFuture<List<DailyForecast>> forecasts = upstreamFanOut.fork(() ->
+                timings.time("forecast", () -> Fallbacks.orFallback(() ->
+                        weatherClient.getForecastByCoordinates(latitude, longitude, days))));
+        WeatherData currentWeather;
+        try {
+            currentWeather = timings.time("current", () -> Fallbacks.orFallback(() ->
+                    weatherClient.getCurrentWeatherByCoordinates(latitude, longitude)));
+        } catch (RuntimeException | Error e) {
+            // The request has failed: a forecast still queued for a fan-out worker is dropped. One
+            // already running is left to finish, other requests may be waiting on its cache load
+            forecasts.cancel(true);
+            throw e;
         }
+
+        // The cache entries may stand for a whole key cell, the response reports the coordinates that were looked up
+        return currentWeather.toBuilder()
+                .coordinates(new Coordinates(latitude, longitude))
+                .dailyForecasts(upstreamFanOut.join(forecasts, timings.remainingNanos()))
+                .build();
+    }
+
+    // The local IP database first, the geolocation API for addresses it does not know
+    private LocationData resolveLocation(String ipAddress) {
+        LocationData local = localIpLocations.resolve(ipAddress);
+        return local != null ? local : Fallbacks.orFallback(() -> locationClient.getLocationByIp(ipAddress));
+    }
+
+    private WeatherData getForecastByIpAddress(String ipAddress, int days, RequestTimings timings) {
+        LocationData locationData = timings.time("location", () -> resolveLocation(ipAddress));
+        WeatherData weatherData = getForecastByCoordinates(
+                locationData.getLatitude(),
+                locationData.getLongitude(),
+                days,
+                timings
+        );
         
-        // If it's still empty, use a default IP for testing
-        if (clientIp == null || clientIp.isEmpty()) {
-            clientIp = "8.8.8.8"; // Google DNS as fallback
+        // Set the city name from geolocation if not present in weather data
+        if (weatherData.getCityName() == null || weatherData.getCityName().isEmpty()) {
+            weatherData = weatherData.toBuilder()
+                    .cityName(locationData.getCity())
+                    .countryCode(locationData.getCountryCode())
+                    .build();
         }
-        
-        return clientIp;
+        return weatherData;
+    }
+
+    private WeatherData withForecast(WeatherData currentWeather, List<DailyForecast> forecasts) {
+        return currentWeather.toBuilder()
+                .dailyForecasts(forecasts)
+                .build();
+    }
+
+    private RequestTimings startTimings(String branch) {
+        return new RequestTimings(meterRegistry, branch, upstreamFanOut.getTimeout());
     }
-}
\ No newline at end of file
+}
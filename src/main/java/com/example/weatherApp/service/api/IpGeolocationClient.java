@@ -1,24 +1,31 @@
 package com.example.weatherApp.service.api;
 
+import com.example.weatherApp.config.ResilienceProperties;
 import com.example.weatherApp.model.LocationData;
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.example.weatherApp.service.jfr.UpstreamCallEvent;
+import com.example.weatherApp.service.resilience.UpstreamGuards;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
+import org.springframework.web.client.HttpStatusCodeException;
 import org.springframework.web.client.RestTemplate;
 import org.springframework.web.util.UriComponentsBuilder;
 
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class IpGeolocationClient {
 
     private final RestTemplate restTemplate;
-    private final ObjectMapper objectMapper;
+    private final IpGeolocationResponseParser responseParser;
+    private final UpstreamGuards upstreamGuards;
+    private final ResilienceProperties resilienceProperties;
 
     @Value("${ipgeolocation.api.key:#{environment.IPGEO_API_KEY}}")
     private String apiKey;
@@ -26,34 +33,47 @@ public class IpGeolocationClient {
     @Value("${ipgeolocation.api.url:https://api.ipgeolocation.io/ipgeo}")
     private String apiUrl;
 
-    @Cacheable(value = "ipLocation", key = "#ipAddress")
+    @Cacheable(value = "ipLocation", key = "#ipAddress", sync = true)
     public LocationData getLocationByIp(String ipAddress) {
-        String uri = UriComponentsBuilder.fromHttpUrl(apiUrl)
-                .queryParam("apiKey", apiKey)
-                .queryParam("ip", ipAddress)
-                .toUriString();
+        return fetchLocationByIp(ipAddress);
+    }
 
-        log.debug("Calling IP Geolocation API for IP: {}", ipAddress);
-        ResponseEntity<String> response = restTemplate.getForEntity(uri, String.class);
-        return parseLocationResponse(response.getBody(), ipAddress);
+    // While ipgeolocation.io is unavailable the call fails fast with the coarse default location as fallback
+    public LocationData fetchLocationByIp(String ipAddress) {
+        return upstreamGuards.get(UpstreamGuards.IP_GEOLOCATION).call(() -> requestLocationByIp(ipAddress),
+                () -> resilienceProperties.getDefaultLocation().forIp(ipAddress));
     }
 
-    private LocationData parseLocationResponse(String responseBody, String ipAddress) {
+    private LocationData requestLocationByIp(String ipAddress) {
+        // URI variables keep the client IP and API key out of the http.client.requests uri tag
+        String uriTemplate = UriComponentsBuilder.fromHttpUrl(apiUrl)
+                .queryParam("apiKey", "{apiKey}")
+                .queryParam("ip", "{ip}")
+                .build()
+                .toUriString();
+
+        log.debug("Calling IP Geolocation API for IP: {}", ipAddress);
+        UpstreamCallEvent event = new UpstreamCallEvent();
+        event.begin();
         try {
-            JsonNode root = objectMapper.readTree(responseBody);
-            
-            return LocationData.builder()
-                    .city(root.path("city").asText())
-                    .country(root.path("country_name").asText())
-                    .countryCode(root.path("country_code2").asText())
-                    .latitude(Double.parseDouble(root.path("latitude").asText()))
-                    .longitude(Double.parseDouble(root.path("longitude").asText()))
-                    .ipAddress(ipAddress)
-                    .build();
-            
-        } catch (Exception e) {
-            log.error("Error parsing location response: {}", e.getMessage(), e);
-            throw new RuntimeException("Failed to parse location data", e);
+            ResponseEntity<String> response = restTemplate.getForEntity(uriTemplate, String.class,
+                    Map.of("apiKey", apiKey, "ip", ipAddress));
+            event.setStatus(response.getStatusCode().value());
+            if (event.isEnabled() && response.getBody() != null) {
+                event.setBytes(response.getBody().getBytes(StandardCharsets.UTF_8).length);
+            }
+            LocationData location = responseParser.parseLocation(response.getBody(), ipAddress);
+            event.setOutcome("success");
+            return location;
+        } catch (HttpStatusCodeException e) {
+            event.setStatus(e.getStatusCode().value());
+            event.setOutcome("error");
+            throw e;
+        } catch (RuntimeException e) {
+            event.setOutcome(e.getClass().getSimpleName());
+            throw e;
+        } finally {
+            event.record("ipGeolocation", "location", ipAddress);
         }
     }
-}
\ No newline at end of file
+}
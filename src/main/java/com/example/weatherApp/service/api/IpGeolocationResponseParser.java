@@ -0,0 +1,60 @@
+package com.example.weatherApp.service.api;
+
+import com.example.weatherApp.model.LocationData;
+import com.example.weatherApp.service.jfr.ResponseParseEvent;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Maps ipgeolocation.io responses, shared by the blocking and the reactive client.
+ */
+@Component
+@Slf4j
+public class IpGeolocationResponseParser {
+
+    private final ObjectMapper objectMapper;
+    private final Timer timer;
+
+    public IpGeolocationResponseParser(ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        this.objectMapper = objectMapper;
+        this.timer = Timer.builder("weather.upstream.parse")
+                .description("Time spent parsing an upstream response")
+                .tag("dependency", "ipGeolocation")
+                .tag("response", "location")
+                .register(meterRegistry);
+    }
+
+    public LocationData parseLocation(String responseBody, String ipAddress) {
+        ResponseParseEvent event = new ResponseParseEvent();
+        event.begin();
+        long start = System.nanoTime();
+        boolean failed = true;
+        try {
+            JsonNode root = objectMapper.readTree(responseBody);
+            
+            LocationData location = LocationData.builder()
+                    .city(root.path("city").asText())
+                    .country(root.path("country_name").asText())
+                    .countryCode(root.path("country_code2").asText())
+                    .latitude(Double.parseDouble(root.path("latitude").asText()))
+                    .longitude(Double.parseDouble(root.path("longitude").asText()))
+                    .ipAddress(ipAddress)
+                    .build();
+            failed = false;
+            return location;
+            
+        } catch (Exception e) {
+            log.error("Error parsing location response: {}", e.getMessage(), e);
+            throw new RuntimeException("Failed to parse location data", e);
+        } finally {
+            timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            event.record("ipGeolocation", "location", failed);
+        }
+    }
+}
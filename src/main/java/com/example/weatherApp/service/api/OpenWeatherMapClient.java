@@ -1,26 +1,27 @@
 package com.example.weatherApp.service.api;
 
-import com.example.weatherApp.model.Coordinates;
-import com.example.weatherApp.model.CurrentWeather;
 import com.example.weatherApp.model.DailyForecast;
 import com.example.weatherApp.model.WeatherData;
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.example.weatherApp.service.cache.CityKey;
+import com.example.weatherApp.service.cache.CoordinatesKey;
+import com.example.weatherApp.service.cache.ForecastKey;
+import com.example.weatherApp.service.cache.WeatherCacheKeys;
+import com.example.weatherApp.service.jfr.UpstreamCallEvent;
+import com.example.weatherApp.service.ratelimit.UpstreamQuota;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cache.annotation.Cacheable;
-import org.springframework.http.ResponseEntity;
+import org.springframework.http.HttpMethod;
 import org.springframework.stereotype.Service;
+import org.springframework.web.client.HttpStatusCodeException;
 import org.springframework.web.client.RestTemplate;
 import org.springframework.web.util.UriComponentsBuilder;
 
-import java.time.Instant;
-import java.time.LocalDate;
-import java.time.LocalDateTime;
-import java.time.ZoneId;
-import java.util.ArrayList;
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
+import java.util.Map;
 
 @Service
 @RequiredArgsConstructor
@@ -28,7 +29,9 @@ import java.util.List;
 public class OpenWeatherMapClient {
 
     private final RestTemplate restTemplate;
-    private final ObjectMapper objectMapper;
+    private final OpenWeatherMapResponseParser responseParser;
+    private final WeatherCacheKeys cacheKeys;
+    private final UpstreamQuota upstreamQuota;
 
     @Value("${openweathermap.api.key:#{environment.OPENWEATHER_API_KEY}}")
     private String apiKey;
@@ -36,159 +39,124 @@ public class OpenWeatherMapClient {
     @Value("${openweathermap.api.url:https://api.openweathermap.org/data/2.5}")
     private String apiUrl;
 
-    @Cacheable(value = "currentWeather", key = "#city")
+    // sync: concurrent misses for one key make one upstream call, see SingleFlightCaffeineCache
+    @Cacheable(value = "currentWeather", key = "@cacheKeys.city(#city)", sync = true)
     public WeatherData getCurrentWeatherByCity(String city) {
-        String uri = UriComponentsBuilder.fromHttpUrl(apiUrl + "/weather")
-                .queryParam("q", city)
-                .queryParam("appid", apiKey)
-                .queryParam("units", "metric")
-                .toUriString();
-
-        log.debug("Calling OpenWeatherMap API for city: {}", city);
-        ResponseEntity<String> response = restTemplate.getForEntity(uri, String.class);
-        return parseCurrentWeatherResponse(response.getBody());
+        return fetchCurrentWeatherByCity(city);
     }
 
-    @Cacheable(value = "currentWeather", key = "#latitude + '-' + #longitude")
+    @Cacheable(value = "currentWeather", key = "@cacheKeys.coordinates(#latitude, #longitude)", sync = true)
     public WeatherData getCurrentWeatherByCoordinates(Double latitude, Double longitude) {
-        String uri = UriComponentsBuilder.fromHttpUrl(apiUrl + "/weather")
-                .queryParam("lat", latitude)
-                .queryParam("lon", longitude)
-                .queryParam("appid", apiKey)
+        return fetchCurrentWeatherByCoordinates(latitude, longitude);
+    }
+
+    @Cacheable(value = "forecastWeather", key = "@cacheKeys.forecast(#latitude, #longitude, #days)", sync = true)
+    public List<DailyForecast> getForecastByCoordinates(Double latitude, Double longitude, int days) {
+        return fetchForecastByCoordinates(latitude, longitude, days);
+    }
+
+    // Uncached fetch path, shared by cache misses and background refreshes. Cities and
+    // coordinates are fetched for their cache key, so an entry does not depend on which
+    // caller missed first. Misses are loaded once per key by the sync cache, refreshes once per
+    // key by Caffeine. Every upstream call passes the rate limit, see UpstreamQuota
+
+    public WeatherData fetchCurrentWeatherByCity(String city) {
+        CityKey key = cacheKeys.city(city);
+        return upstreamQuota.call("currentWeather", key, () -> requestCurrentWeatherByCity(key));
+    }
+
+    public WeatherData fetchCurrentWeatherByCoordinates(Double latitude, Double longitude) {
+        CoordinatesKey key = cacheKeys.coordinates(latitude, longitude);
+        return upstreamQuota.call("currentWeather", key, () -> requestCurrentWeatherByCoordinates(key));
+    }
+
+    public List<DailyForecast> fetchForecastByCoordinates(Double latitude, Double longitude, int days) {
+        ForecastKey key = cacheKeys.forecast(latitude, longitude, days);
+        return upstreamQuota.call("forecastWeather", key, () -> requestForecastByCoordinates(key));
+    }
+
+    private WeatherData requestCurrentWeatherByCity(CityKey key) {
+        // Values are passed as URI variables so the http.client.requests uri tag is the
+        // template, not one meter per city (and not the API key)
+        String uriTemplate = UriComponentsBuilder.fromHttpUrl(apiUrl + "/weather")
+                .queryParam("q", "{city}")
+                .queryParam("appid", "{appid}")
                 .queryParam("units", "metric")
+                .build()
                 .toUriString();
 
-        log.debug("Calling OpenWeatherMap API for coordinates: {}, {}", latitude, longitude);
-        ResponseEntity<String> response = restTemplate.getForEntity(uri, String.class);
-        return parseCurrentWeatherResponse(response.getBody());
+        log.debug("Calling OpenWeatherMap API for city: {}", key.query());
+        return get("currentWeather", key, uriTemplate, Map.of("city", key.query(), "appid", apiKey),
+                responseParser::parseCurrentWeather);
     }
 
-    @Cacheable(value = "forecastWeather", key = "#city + '-' + #days")
-    public WeatherData getForecastByCity(String city, int days) {
-        // First get current weather to get coordinates
-        WeatherData currentWeather = getCurrentWeatherByCity(city);
-        return getForecastByCoordinates(
-                currentWeather.getCoordinates().getLatitude(),
-                currentWeather.getCoordinates().getLongitude(),
-                days
-        );
+    private WeatherData requestCurrentWeatherByCoordinates(CoordinatesKey key) {
+        String uriTemplate = UriComponentsBuilder.fromHttpUrl(apiUrl + "/weather")
+                .queryParam("lat", "{lat}")
+                .queryParam("lon", "{lon}")
+                .queryParam("appid", "{appid}")
+                .queryParam("units", "metric")
+                .build()
+                .toUriString();
+
+        log.debug("Calling OpenWeatherMap API for coordinates: {}, {}", key.latitude(), key.longitude());
+        return get("currentWeather", key, uriTemplate,
+                Map.of("lat", key.latitude(), "lon", key.longitude(), "appid", apiKey),
+                responseParser::parseCurrentWeather);
     }
 
-    @Cacheable(value = "forecastWeather", key = "#latitude + '-' + #longitude + '-' + #days")
-    public WeatherData getForecastByCoordinates(Double latitude, Double longitude, int days) {
-        // First get the current weather
-        WeatherData currentWeather = getCurrentWeatherByCoordinates(latitude, longitude);
-        
-        // Now get the forecast data using the OneCall API
-        String uri = UriComponentsBuilder.fromHttpUrl(apiUrl + "/onecall")
-                .queryParam("lat", latitude)
-                .queryParam("lon", longitude)
+    private List<DailyForecast> requestForecastByCoordinates(ForecastKey key) {
+        // Get the forecast data using the OneCall API
+        String uriTemplate = UriComponentsBuilder.fromHttpUrl(apiUrl + "/onecall")
+                .queryParam("lat", "{lat}")
+                .queryParam("lon", "{lon}")
                 .queryParam("exclude", "minutely,hourly,alerts")
-                .queryParam("appid", apiKey)
+                .queryParam("appid", "{appid}")
                 .queryParam("units", "metric")
+                .build()
                 .toUriString();
 
-        log.debug("Calling OpenWeatherMap OneCall API for forecast: {}, {}", latitude, longitude);
-        ResponseEntity<String> response = restTemplate.getForEntity(uri, String.class);
-        
-        // Parse the forecast data and add it to the current weather data
-        List<DailyForecast> forecasts = parseForecastResponse(response.getBody(), days);
-        currentWeather.setDailyForecasts(forecasts);
-        
-        return currentWeather;
+        CoordinatesKey location = key.location();
+        log.debug("Calling OpenWeatherMap OneCall API for forecast: {}, {}", location.latitude(), location.longitude());
+        return get("forecastWeather", key, uriTemplate,
+                Map.of("lat", location.latitude(), "lon", location.longitude(), "appid", apiKey),
+                body -> responseParser.parseDailyForecast(body, key.days()));
     }
 
-    private WeatherData parseCurrentWeatherResponse(String responseBody) {
+    // Recorded as an UpstreamCallEvent; the body is only counted while a recording takes the event
+    private <T> T get(String operation, Object key, String uriTemplate, Map<String, ?> uriVariables,
+                      BodyParser<T> parser) {
+        UpstreamCallEvent event = new UpstreamCallEvent();
+        event.begin();
         try {
-            JsonNode root = objectMapper.readTree(responseBody);
-            
-            String cityName = root.path("name").asText();
-            String countryCode = root.path("sys").path("country").asText();
-            
-            // Parse coordinates
-            double latitude = root.path("coord").path("lat").asDouble();
-            double longitude = root.path("coord").path("lon").asDouble();
-            Coordinates coordinates = new Coordinates(latitude, longitude);
-            
-            // Parse current weather
-            JsonNode mainNode = root.path("main");
-            JsonNode weatherNode = root.path("weather").get(0);
-            
-            CurrentWeather currentWeather = CurrentWeather.builder()
-                    .temperature(mainNode.path("temp").asDouble())
-                    .feelsLike(mainNode.path("feels_like").asDouble())
-                    .humidity(mainNode.path("humidity").asDouble())
-                    .pressure(mainNode.path("pressure").asDouble())
-                    .windSpeed(root.path("wind").path("speed").asDouble())
-                    .description(weatherNode.path("description").asText())
-                    .icon(weatherNode.path("icon").asText())
-                    .build();
-            
-            return WeatherData.builder()
-                    .cityName(cityName)
-                    .countryCode(countryCode)
-                    .coordinates(coordinates)
-                    .currentWeather(currentWeather)
-                    .dailyForecasts(new ArrayList<>())
-                    .timestamp(LocalDateTime.now())
-                    .build();
-            
-        } catch (Exception e) {
-            log.error("Error parsing weather response: {}", e.getMessage(), e);
-            throw new RuntimeException("Failed to parse weather data", e);
+            T result = restTemplate.execute(uriTemplate, HttpMethod.GET, null, response -> {
+                event.setStatus(response.getStatusCode().value());
+                if (!event.isEnabled()) {
+                    return parser.parse(response.getBody());
+                }
+                CountingInputStream body = new CountingInputStream(response.getBody());
+                try {
+                    return parser.parse(body);
+                } finally {
+                    event.setBytes(body.getCount());
+                }
+            }, uriVariables);
+            event.setOutcome("success");
+            return result;
+        } catch (HttpStatusCodeException e) {
+            event.setStatus(e.getStatusCode().value());
+            event.setOutcome("error");
+            throw e;
+        } catch (RuntimeException e) {
+            event.setOutcome(e.getClass().getSimpleName());
+            throw e;
+        } finally {
+            event.record("openWeatherMap", operation, key);
         }
     }
 
-    private List<DailyForecast> parseForecastResponse(String responseBody, int days) {
-        try {
-            JsonNode root = objectMapper.readTree(responseBody);
-            JsonNode dailyArray = root.path("daily");
-            
-            List<DailyForecast> dailyForecasts = new ArrayList<>();
-            
-            // Limit the number of days to what was requested or available
-            int limit = Math.min(days, dailyArray.size());
-            
-            for (int i = 0; i < limit; i++) {
-                JsonNode day = dailyArray.get(i);
-                
-                // Get the date
-                long dt = day.path("dt").asLong();
-                LocalDate forecastDate = Instant.ofEpochSecond(dt)
-                        .atZone(ZoneId.systemDefault())
-                        .toLocalDate();
-                
-                // Get the temperatures
-                JsonNode temp = day.path("temp");
-                double minTemp = temp.path("min").asDouble();
-                double maxTemp = temp.path("max").asDouble();
-                
-                // Get humidity
-                double humidity = day.path("humidity").asDouble();
-                
-                // Get weather description and icon
-                JsonNode weather = day.path("weather").get(0);
-                String description = weather.path("description").asText();
-                String icon = weather.path("icon").asText();
-                
-                // Create the forecast object
-                DailyForecast forecast = DailyForecast.builder()
-                        .date(forecastDate)
-                        .minTemperature(minTemp)
-                        .maxTemperature(maxTemp)
-                        .humidity(humidity)
-                        .description(description)
-                        .icon(icon)
-                        .build();
-                
-                dailyForecasts.add(forecast);
-            }
-            
-            return dailyForecasts;
-            
-        } catch (Exception e) {
-            log.error("Error parsing forecast response: {}", e.getMessage(), e);
-            throw new RuntimeException("Failed to parse forecast data", e);
-        }
+    @FunctionalInterface
+    private interface BodyParser<T> {
+        T parse(InputStream body) throws IOException;
     }
-}
\ No newline at end of file
+}
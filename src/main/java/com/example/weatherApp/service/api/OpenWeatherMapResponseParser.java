@@ -0,0 +1,316 @@
+package com.example.weatherApp.service.api;
+
+import com.example.weatherApp.model.Coordinates;
+import com.example.weatherApp.model.CurrentWeather;
+import com.example.weatherApp.model.DailyForecast;
+import com.example.weatherApp.model.WeatherData;
+import com.example.weatherApp.service.jfr.ResponseParseEvent;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Streaming parser for OpenWeatherMap responses. Reads tokens straight from the response
+ * stream and only materializes the fields we map, everything else is skipped. The time is
+ * recorded as {@code weather.upstream.parse}; as the body is streamed it includes reading
+ * the body past the first buffer.
+ */
+@Component
+@Slf4j
+public class OpenWeatherMapResponseParser {
+
+    private final JsonFactory jsonFactory;
+    private final Timer currentWeatherTimer;
+    private final Timer forecastTimer;
+
+    public OpenWeatherMapResponseParser(ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        this.jsonFactory = objectMapper.getFactory();
+        this.currentWeatherTimer = parseTimer(meterRegistry, "currentWeather");
+        this.forecastTimer = parseTimer(meterRegistry, "forecast");
+    }
+
+    public WeatherData parseCurrentWeather(InputStream body) throws IOException {
+        return timed(currentWeatherTimer, "currentWeather", () -> readCurrentWeather(body));
+    }
+
+    public List<DailyForecast> parseDailyForecast(InputStream body, int days) throws IOException {
+        return timed(forecastTimer, "forecast", () -> readDailyForecast(body, days));
+    }
+
+    private static <T> T timed(Timer timer, String response, BodyReader<T> reader) throws IOException {
+        ResponseParseEvent event = new ResponseParseEvent();
+        event.begin();
+        long start = System.nanoTime();
+        boolean failed = true;
+        try {
+            T result = reader.read();
+            failed = false;
+            return result;
+        } finally {
+            timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            event.record("openWeatherMap", response, failed);
+        }
+    }
+
+    private static Timer parseTimer(MeterRegistry meterRegistry, String response) {
+        return Timer.builder("weather.upstream.parse")
+                .description("Time spent parsing an upstream response")
+                .tag("dependency", "openWeatherMap")
+                .tag("response", response)
+                .register(meterRegistry);
+    }
+
+    private WeatherData readCurrentWeather(InputStream body) throws IOException {
+        try (JsonParser parser = jsonFactory.createParser(body)) {
+            expectStartObject(parser);
+
+            String cityName = "";
+            String countryCode = "";
+            double latitude = 0;
+            double longitude = 0;
+            Condition condition = new Condition();
+            CurrentWeather.CurrentWeatherBuilder currentWeather = CurrentWeather.builder()
+                    .temperature(0.0)
+                    .feelsLike(0.0)
+                    .humidity(0.0)
+                    .pressure(0.0)
+                    .windSpeed(0.0);
+
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                parser.nextToken();
+                switch (field) {
+                    case "name" -> cityName = parser.getValueAsString("");
+                    case "coord" -> {
+                        if (isObject(parser)) {
+                            while (nextField(parser)) {
+                                switch (parser.currentName()) {
+                                    case "lat" -> latitude = nextDouble(parser);
+                                    case "lon" -> longitude = nextDouble(parser);
+                                    default -> skipValue(parser);
+                                }
+                            }
+                        }
+                    }
+                    case "main" -> {
+                        if (isObject(parser)) {
+                            while (nextField(parser)) {
+                                switch (parser.currentName()) {
+                                    case "temp" -> currentWeather.temperature(nextDouble(parser));
+                                    case "feels_like" -> currentWeather.feelsLike(nextDouble(parser));
+                                    case "humidity" -> currentWeather.humidity(nextDouble(parser));
+                                    case "pressure" -> currentWeather.pressure(nextDouble(parser));
+                                    default -> skipValue(parser);
+                                }
+                            }
+                        }
+                    }
+                    case "wind" -> {
+                        if (isObject(parser)) {
+                            while (nextField(parser)) {
+                                if ("speed".equals(parser.currentName())) {
+                                    currentWeather.windSpeed(nextDouble(parser));
+                                } else {
+                                    skipValue(parser);
+                                }
+                            }
+                        }
+                    }
+                    case "sys" -> {
+                        if (isObject(parser)) {
+                            while (nextField(parser)) {
+                                if ("country".equals(parser.currentName())) {
+                                    parser.nextToken();
+                                    countryCode = parser.getValueAsString("");
+                                } else {
+                                    skipValue(parser);
+                                }
+                            }
+                        }
+                    }
+                    case "weather" -> parseFirstCondition(parser, condition);
+                    default -> parser.skipChildren();
+                }
+            }
+
+            return WeatherData.builder()
+                    .cityName(cityName)
+                    .countryCode(countryCode)
+                    .coordinates(new Coordinates(latitude, longitude))
+                    .currentWeather(currentWeather
+                            .description(condition.description)
+                            .icon(condition.icon)
+                            .build())
+                    .dailyForecasts(List.of())
+                    .timestamp(LocalDateTime.now())
+                    .build();
+
+        } catch (JsonProcessingException e) {
+            log.error("Error parsing weather response: {}", e.getMessage(), e);
+            throw new RuntimeException("Failed to parse weather data", e);
+        }
+    }
+
+    private List<DailyForecast> readDailyForecast(InputStream body, int days) throws IOException {
+        try (JsonParser parser = jsonFactory.createParser(body)) {
+            expectStartObject(parser);
+
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                parser.nextToken();
+                if ("daily".equals(field) && parser.currentToken() == JsonToken.START_ARRAY) {
+                    return parseDailyArray(parser, days);
+                }
+                parser.skipChildren();
+            }
+            return List.of();
+
+        } catch (JsonProcessingException e) {
+            log.error("Error parsing forecast response: {}", e.getMessage(), e);
+            throw new RuntimeException("Failed to parse forecast data", e);
+        }
+    }
+
+    private List<DailyForecast> parseDailyArray(JsonParser parser, int days) throws IOException {
+        List<DailyForecast> dailyForecasts = new ArrayList<>(Math.max(0, Math.min(days, 8)));
+
+        // Stop reading as soon as the requested number of days has been parsed
+        while (dailyForecasts.size() < days && parser.nextToken() == JsonToken.START_OBJECT) {
+            long dt = 0;
+            double minTemp = 0;
+            double maxTemp = 0;
+            double humidity = 0;
+            Condition condition = new Condition();
+
+            while (nextField(parser)) {
+                switch (parser.currentName()) {
+                    case "dt" -> {
+                        parser.nextToken();
+                        dt = parser.getValueAsLong();
+                    }
+                    case "temp" -> {
+                        parser.nextToken();
+                        if (isObject(parser)) {
+                            while (nextField(parser)) {
+                                switch (parser.currentName()) {
+                                    case "min" -> minTemp = nextDouble(parser);
+                                    case "max" -> maxTemp = nextDouble(parser);
+                                    default -> skipValue(parser);
+                                }
+                            }
+                        }
+                    }
+                    case "humidity" -> humidity = nextDouble(parser);
+                    case "weather" -> {
+                        parser.nextToken();
+                        parseFirstCondition(parser, condition);
+                    }
+                    default -> skipValue(parser);
+                }
+            }
+
+            dailyForecasts.add(DailyForecast.builder()
+                    .date(toLocalDate(dt))
+                    .minTemperature(minTemp)
+                    .maxTemperature(maxTemp)
+                    .humidity(humidity)
+                    .description(condition.description)
+                    .icon(condition.icon)
+                    .build());
+        }
+
+        return List.copyOf(dailyForecasts);
+    }
+
+    // Reads description and icon of the first entry of a "weather" array and skips the rest
+    private void parseFirstCondition(JsonParser parser, Condition target) throws IOException {
+        if (parser.currentToken() != JsonToken.START_ARRAY) {
+            parser.skipChildren();
+            return;
+        }
+        boolean first = true;
+        while (parser.nextToken() != JsonToken.END_ARRAY) {
+            if (!first || parser.currentToken() != JsonToken.START_OBJECT) {
+                parser.skipChildren();
+                continue;
+            }
+            first = false;
+            while (nextField(parser)) {
+                switch (parser.currentName()) {
+                    case "description" -> {
+                        parser.nextToken();
+                        target.description = parser.getValueAsString("");
+                    }
+                    case "icon" -> {
+                        parser.nextToken();
+                        target.icon = parser.getValueAsString("");
+                    }
+                    default -> skipValue(parser);
+                }
+            }
+        }
+    }
+
+    private static void expectStartObject(JsonParser parser) throws IOException {
+        if (parser.nextToken() != JsonToken.START_OBJECT) {
+            throw new JsonParseException(parser, "Expected a JSON object");
+        }
+    }
+
+    // Objects are read field by field, any other value (null, scalar, array) is skipped
+    private static boolean isObject(JsonParser parser) throws IOException {
+        if (parser.currentToken() == JsonToken.START_OBJECT) {
+            return true;
+        }
+        parser.skipChildren();
+        return false;
+    }
+
+    // Advances to the next field of the current object, false once the object ends
+    private static boolean nextField(JsonParser parser) throws IOException {
+        return parser.nextToken() == JsonToken.FIELD_NAME;
+    }
+
+    private static double nextDouble(JsonParser parser) throws IOException {
+        parser.nextToken();
+        return parser.getValueAsDouble();
+    }
+
+    private static void skipValue(JsonParser parser) throws IOException {
+        parser.nextToken();
+        parser.skipChildren();
+    }
+
+    private static LocalDate toLocalDate(long epochSecond) {
+        return Instant.ofEpochSecond(epochSecond)
+                .atZone(ZoneId.systemDefault())
+                .toLocalDate();
+    }
+
+    private static class Condition {
+        private String description = "";
+        private String icon = "";
+    }
+
+    @FunctionalInterface
+    private interface BodyReader<T> {
+        T read() throws IOException;
+    }
+}
@@ -0,0 +1,58 @@
+package com.example.weatherApp.service.api;
+
+import com.example.weatherApp.config.ResilienceProperties;
+import com.example.weatherApp.model.LocationData;
+import com.example.weatherApp.service.resilience.UpstreamGuards;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.util.UriComponentsBuilder;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+
+/**
+ * Non-blocking counterpart of {@link IpGeolocationClient}, sharing its {@code ipLocation} cache.
+ */
+@Service
+@ConditionalOnProperty(name = "weather.client.mode", havingValue = "reactive")
+@RequiredArgsConstructor
+@Slf4j
+public class ReactiveIpGeolocationClient {
+
+    private final WebClient upstreamWebClient;
+    private final IpGeolocationResponseParser responseParser;
+    private final UpstreamGuards upstreamGuards;
+    private final ResilienceProperties resilienceProperties;
+
+    @Value("${ipgeolocation.api.key:#{environment.IPGEO_API_KEY}}")
+    private String apiKey;
+
+    @Value("${ipgeolocation.api.url:https://api.ipgeolocation.io/ipgeo}")
+    private String apiUrl;
+
+    @Cacheable(value = "ipLocation", key = "#ipAddress", sync = true)
+    public Mono<LocationData> getLocationByIp(String ipAddress) {
+        return fetchLocationByIp(ipAddress);
+    }
+
+    public Mono<LocationData> fetchLocationByIp(String ipAddress) {
+        String uriTemplate = UriComponentsBuilder.fromHttpUrl(apiUrl)
+                .queryParam("apiKey", "{apiKey}")
+                .queryParam("ip", "{ip}")
+                .build()
+                .toUriString();
+
+        log.debug("Calling IP Geolocation API for IP: {}", ipAddress);
+        return upstreamGuards.get(UpstreamGuards.IP_GEOLOCATION).callReactive(() -> upstreamWebClient.get()
+                        .uri(uriTemplate, Map.of("apiKey", apiKey, "ip", ipAddress))
+                        .retrieve()
+                        .bodyToMono(String.class)
+                        .map(body -> responseParser.parseLocation(body, ipAddress)),
+                () -> resilienceProperties.getDefaultLocation().forIp(ipAddress));
+    }
+}
@@ -0,0 +1,133 @@
+package com.example.weatherApp.service.api;
+
+import com.example.weatherApp.model.DailyForecast;
+import com.example.weatherApp.model.WeatherData;
+import com.example.weatherApp.service.cache.CityKey;
+import com.example.weatherApp.service.cache.CoordinatesKey;
+import com.example.weatherApp.service.cache.ForecastKey;
+import com.example.weatherApp.service.cache.WeatherCacheKeys;
+import com.example.weatherApp.service.ratelimit.UpstreamQuota;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.util.UriComponentsBuilder;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Non-blocking counterpart of {@link OpenWeatherMapClient}. Uses the same cache names and
+ * keys, with {@code sync = true} the async cache joins concurrent misses on one fetch.
+ */
+@Service
+@ConditionalOnProperty(name = "weather.client.mode", havingValue = "reactive")
+@RequiredArgsConstructor
+@Slf4j
+public class ReactiveOpenWeatherMapClient {
+
+    private final WebClient upstreamWebClient;
+    private final OpenWeatherMapResponseParser responseParser;
+    private final WeatherCacheKeys cacheKeys;
+    private final UpstreamQuota upstreamQuota;
+
+    @Value("${openweathermap.api.key:#{environment.OPENWEATHER_API_KEY}}")
+    private String apiKey;
+
+    @Value("${openweathermap.api.url:https://api.openweathermap.org/data/2.5}")
+    private String apiUrl;
+
+    @Cacheable(value = "currentWeather", key = "@cacheKeys.city(#city)", sync = true)
+    public Mono<WeatherData> getCurrentWeatherByCity(String city) {
+        return fetchCurrentWeatherByCity(city);
+    }
+
+    @Cacheable(value = "currentWeather", key = "@cacheKeys.coordinates(#latitude, #longitude)", sync = true)
+    public Mono<WeatherData> getCurrentWeatherByCoordinates(Double latitude, Double longitude) {
+        return fetchCurrentWeatherByCoordinates(latitude, longitude);
+    }
+
+    @Cacheable(value = "forecastWeather", key = "@cacheKeys.forecast(#latitude, #longitude, #days)", sync = true)
+    public Mono<List<DailyForecast>> getForecastByCoordinates(Double latitude, Double longitude, int days) {
+        return fetchForecastByCoordinates(latitude, longitude, days);
+    }
+
+    // Cities and coordinates are fetched for their cache key, as in OpenWeatherMapClient
+    public Mono<WeatherData> fetchCurrentWeatherByCity(String city) {
+        CityKey key = cacheKeys.city(city);
+        String uriTemplate = UriComponentsBuilder.fromHttpUrl(apiUrl + "/weather")
+                .queryParam("q", "{city}")
+                .queryParam("appid", "{appid}")
+                .queryParam("units", "metric")
+                .build()
+                .toUriString();
+
+        log.debug("Calling OpenWeatherMap API for city: {}", city);
+        return upstreamQuota.callReactive("currentWeather", key, () ->
+                get(uriTemplate, Map.of("city", key.query(), "appid", apiKey))
+                        .map(body -> parse(body, responseParser::parseCurrentWeather)));
+    }
+
+    public Mono<WeatherData> fetchCurrentWeatherByCoordinates(Double latitude, Double longitude) {
+        CoordinatesKey key = cacheKeys.coordinates(latitude, longitude);
+        String uriTemplate = UriComponentsBuilder.fromHttpUrl(apiUrl + "/weather")
+                .queryParam("lat", "{lat}")
+                .queryParam("lon", "{lon}")
+                .queryParam("appid", "{appid}")
+                .queryParam("units", "metric")
+                .build()
+                .toUriString();
+
+        log.debug("Calling OpenWeatherMap API for coordinates: {}, {}", latitude, longitude);
+        return upstreamQuota.callReactive("currentWeather", key, () ->
+                get(uriTemplate, Map.of("lat", key.latitude(), "lon", key.longitude(), "appid", apiKey))
+                        .map(body -> parse(body, responseParser::parseCurrentWeather)));
+    }
+
+    public Mono<List<DailyForecast>> fetchForecastByCoordinates(Double latitude, Double longitude, int days) {
+        ForecastKey key = cacheKeys.forecast(latitude, longitude, days);
+        String uriTemplate = UriComponentsBuilder.fromHttpUrl(apiUrl + "/onecall")
+                .queryParam("lat", "{lat}")
+                .queryParam("lon", "{lon}")
+                .queryParam("exclude", "minutely,hourly,alerts")
+                .queryParam("appid", "{appid}")
+                .queryParam("units", "metric")
+                .build()
+                .toUriString();
+
+        log.debug("Calling OpenWeatherMap OneCall API for forecast: {}, {}", latitude, longitude);
+        return upstreamQuota.callReactive("forecastWeather", key, () ->
+                get(uriTemplate, Map.of("lat", key.location().latitude(), "lon", key.location().longitude(),
+                        "appid", apiKey))
+                        .map(body -> parse(body, stream -> responseParser.parseDailyForecast(stream, days))));
+    }
+
+    // The body is aggregated into one buffer and handed to the streaming parser, which releases it
+    private Mono<DataBuffer> get(String uriTemplate, Map<String, ?> uriVariables) {
+        return upstreamWebClient.get()
+                .uri(uriTemplate, uriVariables)
+                .retrieve()
+                .bodyToMono(DataBuffer.class);
+    }
+
+    private static <T> T parse(DataBuffer body, BodyParser<T> parser) {
+        try (InputStream stream = body.asInputStream(true)) {
+            return parser.parse(stream);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @FunctionalInterface
+    private interface BodyParser<T> {
+        T parse(InputStream body) throws IOException;
+    }
+}
@@ -0,0 +1,426 @@
+package com.example.weatherApp.service.cache;
+
+import com.example.weatherApp.model.Coordinates;
+import com.example.weatherApp.model.CurrentWeather;
+import com.example.weatherApp.model.DailyForecast;
+import com.example.weatherApp.model.LocationData;
+import com.example.weatherApp.model.WeatherData;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compact binary form of the cached model values, a fraction of their JSON size.
+ *
+ * <p>Layout: a version byte, a value kind byte, then the value. Doubles are stored as raw
+ * 8 bytes behind a presence bitmask, dates as varint epoch days (timestamps as epoch
+ * seconds) and strings as varint references into a dictionary. The dictionary starts with
+ * the OpenWeatherMap icons and common descriptions; any other string is written once in
+ * UTF-8 and referenced by index after that. Changing the layout or the preloaded strings
+ * needs a new {@link #VERSION}, payloads of another version fail to decode.
+ */
+public class BinaryCacheValueCodec implements CacheValueCodec {
+
+    static final int VERSION = 1;
+
+    private static final int WEATHER_DATA = 1;
+    private static final int FORECASTS = 2;
+    private static final int LOCATION = 3;
+    private static final int CITY_LOCATION = 4;
+
+    // Date, null mask and two string references of one byte each
+    private static final int MIN_FORECAST_BYTES = 4;
+
+    // String references: 0 is null, 1 a new literal, n + 2 dictionary entry n
+    private static final int NULL_STRING = 0;
+    private static final int NEW_STRING = 1;
+    private static final int FIRST_REFERENCE = 2;
+
+    // Part of the format: append only together with a version bump
+    private static final List<String> PRELOADED = List.of(
+            "01d", "01n", "02d", "02n", "03d", "03n", "04d", "04n", "09d", "09n",
+            "10d", "10n", "11d", "11n", "13d", "13n", "50d", "50n",
+            "clear sky", "few clouds", "scattered clouds", "broken clouds", "overcast clouds",
+            "light rain", "moderate rain", "heavy intensity rain", "very heavy rain", "shower rain",
+            "light intensity drizzle", "drizzle", "thunderstorm", "thunderstorm with light rain",
+            "thunderstorm with rain", "light snow", "snow", "heavy snow", "sleet", "light shower snow",
+            "mist", "fog", "haze", "smoke", "dust");
+    private static final Map<String, Integer> PRELOADED_INDEX = index(PRELOADED);
+
+    @Override
+    public byte[] encode(String cacheName, Object value) {
+        Writer out = new Writer();
+        out.writeByte(VERSION);
+        switch (value) {
+            case WeatherData weatherData -> {
+                out.writeByte(WEATHER_DATA);
+                writeWeatherData(out, weatherData);
+            }
+            case List<?> forecasts -> {
+                out.writeByte(FORECASTS);
+                writeForecasts(out, forecasts);
+            }
+            case LocationData location -> {
+                out.writeByte(LOCATION);
+                writeLocation(out, location);
+            }
+            case CityLocation cityLocation -> {
+                out.writeByte(CITY_LOCATION);
+                writeCityLocation(out, cityLocation);
+            }
+            default -> throw new IllegalArgumentException("Unsupported cache value: " + value.getClass().getName());
+        }
+        return out.toByteArray();
+    }
+
+    @Override
+    public Object decode(String cacheName, byte[] payload) throws IOException {
+        Reader in = new Reader(payload);
+        int version = in.readByte();
+        if (version != VERSION) {
+            throw new IOException("Unsupported cache value format version: " + version);
+        }
+        Object value = switch (in.readByte()) {
+            case WEATHER_DATA -> readWeatherData(in);
+            case FORECASTS -> readForecasts(in);
+            case LOCATION -> readLocation(in);
+            case CITY_LOCATION -> readCityLocation(in);
+            default -> throw new IOException("Unknown cache value kind");
+        };
+        if (in.remaining() != 0) {
+            throw new IOException("Unexpected trailing bytes: " + in.remaining());
+        }
+        return value;
+    }
+
+    private static void writeWeatherData(Writer out, WeatherData weatherData) {
+        out.writeString(weatherData.getCityName());
+        out.writeString(weatherData.getCountryCode());
+
+        Coordinates coordinates = weatherData.getCoordinates();
+        out.writeBoolean(coordinates != null);
+        if (coordinates != null) {
+            out.writeDoubles(coordinates.getLatitude(), coordinates.getLongitude());
+        }
+
+        CurrentWeather current = weatherData.getCurrentWeather();
+        out.writeBoolean(current != null);
+        if (current != null) {
+            out.writeDoubles(current.getTemperature(), current.getFeelsLike(), current.getHumidity(),
+                    current.getPressure(), current.getWindSpeed());
+            out.writeString(current.getDescription());
+            out.writeString(current.getIcon());
+        }
+
+        writeForecasts(out, weatherData.getDailyForecasts());
+        LocalDateTime timestamp = weatherData.getTimestamp();
+        out.writeOptionalLong(timestamp != null ? timestamp.toEpochSecond(ZoneOffset.UTC) : null);
+        if (timestamp != null) {
+            out.writeVarLong(timestamp.getNano());
+        }
+    }
+
+    private static WeatherData readWeatherData(Reader in) throws IOException {
+        WeatherData.WeatherDataBuilder builder = WeatherData.builder()
+                .cityName(in.readString())
+                .countryCode(in.readString());
+
+        if (in.readBoolean()) {
+            int mask = in.readByte();
+            builder.coordinates(new Coordinates(in.readDouble(mask, 0), in.readDouble(mask, 1)));
+        }
+
+        if (in.readBoolean()) {
+            int mask = in.readByte();
+            builder.currentWeather(CurrentWeather.builder()
+                    .temperature(in.readDouble(mask, 0))
+                    .feelsLike(in.readDouble(mask, 1))
+                    .humidity(in.readDouble(mask, 2))
+                    .pressure(in.readDouble(mask, 3))
+                    .windSpeed(in.readDouble(mask, 4))
+                    .description(in.readString())
+                    .icon(in.readString())
+                    .build());
+        }
+
+        builder.dailyForecasts(readForecasts(in));
+        Long epochSecond = in.readOptionalLong();
+        if (epochSecond != null) {
+            builder.timestamp(LocalDateTime.ofEpochSecond(epochSecond, (int) in.readVarLong(), ZoneOffset.UTC));
+        }
+        return builder.build();
+    }
+
+    // Null and empty lists are kept apart: 0 is null, otherwise size + 1
+    private static void writeForecasts(Writer out, List<?> forecasts) {
+        if (forecasts == null) {
+            out.writeVarLong(0);
+            return;
+        }
+        out.writeVarLong(forecasts.size() + 1L);
+        for (Object element : forecasts) {
+            DailyForecast forecast = (DailyForecast) element;
+            LocalDate date = forecast.getDate();
+            out.writeOptionalLong(date != null ? date.toEpochDay() : null);
+            out.writeDoubles(forecast.getMinTemperature(), forecast.getMaxTemperature(), forecast.getHumidity());
+            out.writeString(forecast.getDescription());
+            out.writeString(forecast.getIcon());
+        }
+    }
+
+    // Unmodifiable like the parsed forecasts, the list is shared between requests
+    private static List<DailyForecast> readForecasts(Reader in) throws IOException {
+        long size = in.readVarLong() - 1;
+        if (size < 0) {
+            return null;
+        }
+        // Every forecast takes at least MIN_FORECAST_BYTES, a corrupt size must not allocate a huge list
+        if (size > in.remaining() / MIN_FORECAST_BYTES) {
+            throw new IOException("Forecast count exceeds the payload: " + size);
+        }
+        List<DailyForecast> forecasts = new ArrayList<>((int) size);
+        for (int i = 0; i < size; i++) {
+            Long epochDay = in.readOptionalLong();
+            int mask = in.readByte();
+            forecasts.add(DailyForecast.builder()
+                    .date(epochDay != null ? LocalDate.ofEpochDay(epochDay) : null)
+                    .minTemperature(in.readDouble(mask, 0))
+                    .maxTemperature(in.readDouble(mask, 1))
+                    .humidity(in.readDouble(mask, 2))
+                    .description(in.readString())
+                    .icon(in.readString())
+                    .build());
+        }
+        return List.copyOf(forecasts);
+    }
+
+    private static void writeLocation(Writer out, LocationData location) {
+        out.writeString(location.getCity());
+        out.writeString(location.getCountry());
+        out.writeString(location.getCountryCode());
+        out.writeString(location.getIpAddress());
+        out.writeDoubles(location.getLatitude(), location.getLongitude());
+    }
+
+    private static LocationData readLocation(Reader in) throws IOException {
+        LocationData.LocationDataBuilder builder = LocationData.builder()
+                .city(in.readString())
+                .country(in.readString())
+                .countryCode(in.readString())
+                .ipAddress(in.readString());
+        int mask = in.readByte();
+        return builder
+                .latitude(in.readDouble(mask, 0))
+                .longitude(in.readDouble(mask, 1))
+                .build();
+    }
+
+    private static void writeCityLocation(Writer out, CityLocation cityLocation) {
+        out.writeString(cityLocation.cityName());
+        out.writeString(cityLocation.countryCode());
+        out.writeDouble(cityLocation.latitude());
+        out.writeDouble(cityLocation.longitude());
+    }
+
+    private static CityLocation readCityLocation(Reader in) throws IOException {
+        return new CityLocation(in.readString(), in.readString(), in.readDouble(), in.readDouble());
+    }
+
+    private static Map<String, Integer> index(List<String> strings) {
+        Map<String, Integer> index = new HashMap<>();
+        for (int i = 0; i < strings.size(); i++) {
+            index.put(strings.get(i), i);
+        }
+        return Map.copyOf(index);
+    }
+
+    private static final class Writer {
+
+        private byte[] buffer = new byte[256];
+        private int position;
+        private Map<String, Integer> strings;
+
+        void writeByte(int value) {
+            ensureCapacity(1);
+            buffer[position++] = (byte) value;
+        }
+
+        void writeBoolean(boolean value) {
+            writeByte(value ? 1 : 0);
+        }
+
+        void writeVarLong(long value) {
+            ensureCapacity(10);
+            while ((value & ~0x7FL) != 0) {
+                buffer[position++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            buffer[position++] = (byte) value;
+        }
+
+        // Zigzag encoded so small negative values stay short, 0 is null
+        void writeOptionalLong(Long value) {
+            writeVarLong(value == null ? 0 : ((value << 1) ^ (value >> 63)) + 1);
+        }
+
+        void writeDouble(double value) {
+            ensureCapacity(8);
+            long bits = Double.doubleToRawLongBits(value);
+            for (int shift = 56; shift >= 0; shift -= 8) {
+                buffer[position++] = (byte) (bits >>> shift);
+            }
+        }
+
+        // A bitmask of the non-null values, then those values
+        void writeDoubles(Double... values) {
+            int mask = 0;
+            for (int i = 0; i < values.length; i++) {
+                if (values[i] != null) {
+                    mask |= 1 << i;
+                }
+            }
+            writeByte(mask);
+            for (Double value : values) {
+                if (value != null) {
+                    writeDouble(value);
+                }
+            }
+        }
+
+        void writeString(String value) {
+            if (value == null) {
+                writeVarLong(NULL_STRING);
+                return;
+            }
+            Integer reference = PRELOADED_INDEX.get(value);
+            if (reference == null && strings != null) {
+                reference = strings.get(value);
+            }
+            if (reference != null) {
+                writeVarLong(FIRST_REFERENCE + reference);
+                return;
+            }
+
+            if (strings == null) {
+                strings = new HashMap<>();
+            }
+            strings.put(value, PRELOADED.size() + strings.size());
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            writeVarLong(NEW_STRING);
+            writeVarLong(bytes.length);
+            ensureCapacity(bytes.length);
+            System.arraycopy(bytes, 0, buffer, position, bytes.length);
+            position += bytes.length;
+        }
+
+        byte[] toByteArray() {
+            return Arrays.copyOf(buffer, position);
+        }
+
+        private void ensureCapacity(int bytes) {
+            if (position + bytes > buffer.length) {
+                buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, position + bytes));
+            }
+        }
+    }
+
+    private static final class Reader {
+
+        private final byte[] buffer;
+        private int position;
+        private List<String> strings;
+
+        Reader(byte[] buffer) {
+            this.buffer = buffer;
+        }
+
+        int remaining() {
+            return buffer.length - position;
+        }
+
+        int readByte() throws IOException {
+            require(1);
+            return buffer[position++] & 0xFF;
+        }
+
+        boolean readBoolean() throws IOException {
+            return readByte() != 0;
+        }
+
+        long readVarLong() throws IOException {
+            long value = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                int b = readByte();
+                value |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return value;
+                }
+            }
+            throw new IOException("Malformed varint");
+        }
+
+        Long readOptionalLong() throws IOException {
+            long value = readVarLong();
+            if (value == 0) {
+                return null;
+            }
+            long zigzag = value - 1;
+            return (zigzag >>> 1) ^ -(zigzag & 1);
+        }
+
+        double readDouble() throws IOException {
+            require(8);
+            long bits = 0;
+            for (int i = 0; i < 8; i++) {
+                bits = (bits << 8) | (buffer[position++] & 0xFF);
+            }
+            return Double.longBitsToDouble(bits);
+        }
+
+        Double readDouble(int mask, int index) throws IOException {
+            return (mask & (1 << index)) != 0 ? readDouble() : null;
+        }
+
+        String readString() throws IOException {
+            long reference = readVarLong();
+            if (reference == NULL_STRING) {
+                return null;
+            }
+            if (reference == NEW_STRING) {
+                int length = (int) readVarLong();
+                require(length);
+                String value = new String(buffer, position, length, StandardCharsets.UTF_8);
+                position += length;
+                if (strings == null) {
+                    strings = new ArrayList<>();
+                }
+                strings.add(value);
+                return value;
+            }
+
+            long index = reference - FIRST_REFERENCE;
+            if (index < PRELOADED.size()) {
+                return PRELOADED.get((int) index);
+            }
+            index -= PRELOADED.size();
+            if (strings == null || index >= strings.size()) {
+                throw new IOException("Unknown string reference: " + reference);
+            }
+            return strings.get((int) index);
+        }
+
+        private void require(int bytes) throws IOException {
+            if (bytes < 0 || position + bytes > buffer.length) {
+                throw new IOException("Truncated cache value");
+            }
+        }
+    }
+}
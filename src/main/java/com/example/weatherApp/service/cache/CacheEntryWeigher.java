@@ -0,0 +1,88 @@
+package com.example.weatherApp.service.cache;
+
+import com.example.weatherApp.model.CurrentWeather;
+import com.example.weatherApp.model.DailyForecast;
+import com.example.weatherApp.model.LocationData;
+import com.example.weatherApp.model.WeatherData;
+import com.github.benmanes.caffeine.cache.Weigher;
+
+import java.util.List;
+
+/**
+ * Rough retained-size estimate, in bytes, of a cache entry. Not exact, but proportional
+ * to what the entry keeps on the heap, so caches can be bounded by memory instead of count.
+ */
+public class CacheEntryWeigher implements Weigher<Object, Object> {
+
+    private static final int OBJECT_HEADER = 16;
+    private static final int REFERENCE = 4;
+    private static final int BOXED_DOUBLE = 16;
+    private static final int STRING_OVERHEAD = 40;
+    private static final int LOCAL_DATE = 24;
+    private static final int LOCAL_DATE_TIME = 48;
+    private static final int LIST_OVERHEAD = 24;
+    private static final int CACHE_ENTRY_OVERHEAD = 64;
+
+    @Override
+    public int weigh(Object key, Object value) {
+        long weight = CACHE_ENTRY_OVERHEAD + estimate(key) + estimate(value);
+        return (int) Math.min(weight, Integer.MAX_VALUE);
+    }
+
+    static long estimate(Object value) {
+        if (value == null) {
+            return 0;
+        }
+        if (value instanceof WeatherData weatherData) {
+            return OBJECT_HEADER + 6 * REFERENCE
+                    + estimate(weatherData.getCityName())
+                    + estimate(weatherData.getCountryCode())
+                    + (weatherData.getCoordinates() != null ? OBJECT_HEADER + 2 * (REFERENCE + BOXED_DOUBLE) : 0)
+                    + estimate(weatherData.getCurrentWeather())
+                    + estimate(weatherData.getDailyForecasts())
+                    + (weatherData.getTimestamp() != null ? LOCAL_DATE_TIME : 0);
+        }
+        if (value instanceof CurrentWeather currentWeather) {
+            return OBJECT_HEADER + 5 * (REFERENCE + BOXED_DOUBLE) + 2 * REFERENCE
+                    + estimate(currentWeather.getDescription())
+                    + estimate(currentWeather.getIcon());
+        }
+        if (value instanceof DailyForecast dailyForecast) {
+            return OBJECT_HEADER + LOCAL_DATE + 3 * (REFERENCE + BOXED_DOUBLE) + 3 * REFERENCE
+                    + estimate(dailyForecast.getDescription())
+                    + estimate(dailyForecast.getIcon());
+        }
+        if (value instanceof LocationData locationData) {
+            return OBJECT_HEADER + 2 * (REFERENCE + BOXED_DOUBLE) + 4 * REFERENCE
+                    + estimate(locationData.getCity())
+                    + estimate(locationData.getCountry())
+                    + estimate(locationData.getCountryCode())
+                    + estimate(locationData.getIpAddress());
+        }
+        if (value instanceof CityLocation cityLocation) {
+            return OBJECT_HEADER + 2 * REFERENCE + 2 * Double.BYTES
+                    + estimate(cityLocation.cityName())
+                    + estimate(cityLocation.countryCode());
+        }
+        if (value instanceof List<?> list) {
+            long weight = LIST_OVERHEAD + (long) list.size() * REFERENCE;
+            for (Object element : list) {
+                weight += estimate(element);
+            }
+            return weight;
+        }
+        if (value instanceof String string) {
+            return STRING_OVERHEAD + string.length();
+        }
+        if (value instanceof CityKey cityKey) {
+            return OBJECT_HEADER + 2 * REFERENCE + estimate(cityKey.name()) + estimate(cityKey.countryCode());
+        }
+        if (value instanceof CoordinatesKey) {
+            return OBJECT_HEADER + 2 * Double.BYTES;
+        }
+        if (value instanceof ForecastKey forecastKey) {
+            return OBJECT_HEADER + REFERENCE + Integer.BYTES + estimate(forecastKey.location());
+        }
+        return OBJECT_HEADER;
+    }
+}
@@ -0,0 +1,43 @@
+package com.example.weatherApp.service.cache;
+
+import com.example.weatherApp.service.api.IpGeolocationClient;
+import com.example.weatherApp.service.api.OpenWeatherMapClient;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+/**
+ * Reloads a cache entry from its key through the uncached client fetch path.
+ * Used by the refresh-ahead caches once an entry is past its soft TTL.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class CacheRefresher {
+
+    // Resolved lazily, the clients are proxied by the cache manager that depends on this bean
+    private final ObjectProvider<OpenWeatherMapClient> weatherClient;
+    private final ObjectProvider<IpGeolocationClient> locationClient;
+
+    public Object reload(String cacheName, Object key) {
+        log.debug("Refreshing {} entry: {}", cacheName, key);
+
+        if (key instanceof CityKey cityKey) {
+            return weatherClient.getObject().fetchCurrentWeatherByCity(cityKey.query());
+        }
+        if (key instanceof CoordinatesKey coordinatesKey) {
+            return weatherClient.getObject().fetchCurrentWeatherByCoordinates(
+                    coordinatesKey.latitude(), coordinatesKey.longitude());
+        }
+        if (key instanceof ForecastKey forecastKey) {
+            return weatherClient.getObject().fetchForecastByCoordinates(
+                    forecastKey.location().latitude(), forecastKey.location().longitude(), forecastKey.days());
+        }
+        if (key instanceof String ipAddress && "ipLocation".equals(cacheName)) {
+            return locationClient.getObject().fetchLocationByIp(ipAddress);
+        }
+
+        throw new IllegalArgumentException("No refresh path for " + cacheName + " key: " + key);
+    }
+}
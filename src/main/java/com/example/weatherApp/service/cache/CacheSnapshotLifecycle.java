@@ -0,0 +1,122 @@
+package com.example.weatherApp.service.cache;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.web.context.WebServerGracefulShutdownLifecycle;
+import org.springframework.context.SmartLifecycle;
+
+import java.io.InterruptedIOException;
+import java.time.Duration;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Restores the cache snapshot at startup and writes one periodically and at shutdown.
+ *
+ * <p>The restore runs as an {@link ApplicationRunner}: Spring Boot reports readiness only
+ * after the runners return, so the instance takes traffic once the caches are warm or the
+ * restore timeout has passed. A restore that is still running then completes in the
+ * background, it never replaces entries cached in the meantime.
+ */
+@Slf4j
+public class CacheSnapshotLifecycle implements ApplicationRunner, SmartLifecycle {
+
+    // Stops after the web server drained its requests, so the last snapshot includes them
+    private static final int PHASE = WebServerGracefulShutdownLifecycle.SMART_LIFECYCLE_PHASE - 1;
+
+    private final CacheSnapshotter snapshotter;
+    private final Duration interval;
+    private final Duration restoreTimeout;
+    // A single thread, so the restore, scheduled snapshots and the final one never overlap
+    private final ScheduledExecutorService executor;
+    private volatile boolean running;
+    private volatile boolean restored;
+
+    public CacheSnapshotLifecycle(CacheSnapshotter snapshotter, Duration interval, Duration restoreTimeout,
+                                  ThreadFactory threadFactory) {
+        this.snapshotter = snapshotter;
+        this.interval = interval;
+        this.restoreTimeout = restoreTimeout;
+        this.executor = Executors.newSingleThreadScheduledExecutor(threadFactory);
+    }
+
+    @Override
+    public void run(ApplicationArguments args) throws InterruptedException {
+        Future<?> restore = executor.submit(this::restore);
+        try {
+            restore.get(restoreTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            log.warn("Cache snapshot restore still running after {}, accepting traffic", restoreTimeout);
+        } catch (ExecutionException e) {
+            // restore() logs its own failures
+        }
+        executor.scheduleWithFixedDelay(this::snapshot, interval.toMillis(), interval.toMillis(),
+                TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void start() {
+        running = true;
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        executor.shutdownNow();
+        try {
+            executor.awaitTermination(restoreTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        // A snapshot before the restore completed would replace the stored one with less, also
+        // when the restore was interrupted above or is still running
+        if (restored) {
+            snapshot();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getPhase() {
+        return PHASE;
+    }
+
+    private void restore() {
+        long started = System.nanoTime();
+        try {
+            int entries = snapshotter.restore();
+            restored = true;
+            log.info("Restored {} cache entries from snapshot in {} ms", entries,
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+        } catch (Exception e) {
+            if (e instanceof InterruptedIOException || Thread.currentThread().isInterrupted()) {
+                log.info("Cache snapshot restore interrupted by shutdown");
+                return;
+            }
+            // The stored snapshot cannot be read, so the next one may replace it
+            restored = true;
+            log.warn("Cache snapshot restore failed, starting cold: {}", e.toString());
+        }
+    }
+
+    private void snapshot() {
+        long started = System.nanoTime();
+        try {
+            int written = snapshotter.snapshot();
+            log.debug("Wrote cache snapshot of {} entries in {} ms", written,
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+        } catch (Exception e) {
+            log.warn("Cache snapshot failed: {}", e.toString());
+        }
+    }
+}
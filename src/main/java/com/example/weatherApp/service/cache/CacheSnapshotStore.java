@@ -0,0 +1,15 @@
+package com.example.weatherApp.service.cache;
+
+import java.io.IOException;
+
+/**
+ * Where {@link CacheSnapshotter} keeps the latest snapshot. A write replaces the previous
+ * snapshot as a whole.
+ */
+public interface CacheSnapshotStore {
+
+    // Null when no snapshot has been written yet
+    byte[] read() throws IOException;
+
+    void write(byte[] snapshot) throws IOException;
+}
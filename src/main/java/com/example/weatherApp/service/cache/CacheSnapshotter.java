@@ -0,0 +1,228 @@
+package com.example.weatherApp.service.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import com.github.benmanes.caffeine.cache.Policy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.CacheManager;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Copies the node-local Caffeine caches to a {@link CacheSnapshotStore} and back, so a
+ * restarted instance starts warm. Every entry keeps its expiry instant: entries past it
+ * are dropped on restore, the others get the TTL they had left (see {@link HardTtlExpiry}).
+ * A restored entry counts as just written for refresh-ahead, so entries with less time left
+ * than their cache's soft TTL are refreshed right away; they would expire first otherwise.
+ *
+ * <p>Layout: a version byte and the number of caches, then per cache its name, its entry
+ * count and the entries (expiry epoch millis, key, length-prefixed value). Values are
+ * written by {@link BinaryCacheValueCodec}, keys by {@link #writeKey}.
+ */
+@Slf4j
+public class CacheSnapshotter {
+
+    static final int VERSION = 1;
+
+    private static final int STRING_KEY = 1;
+    private static final int COORDINATES_KEY = 2;
+    private static final int FORECAST_KEY = 3;
+    private static final int CITY_KEY = 4;
+
+    private final CacheManager cacheManager;
+    private final CacheSnapshotStore store;
+    private final List<String> cacheNames;
+    private final Clock clock;
+    private final CacheValueCodec codec = new BinaryCacheValueCodec();
+
+    public CacheSnapshotter(CacheManager cacheManager, CacheSnapshotStore store, List<String> cacheNames,
+                            Clock clock) {
+        this.cacheManager = cacheManager;
+        this.store = store;
+        this.cacheNames = List.copyOf(cacheNames);
+        this.clock = clock;
+    }
+
+    // Returns the number of entries written
+    public int snapshot() throws IOException {
+        Instant now = clock.instant();
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        int written = 0;
+
+        out.writeByte(VERSION);
+        out.writeInt(cacheNames.size());
+        for (String cacheName : cacheNames) {
+            ByteArrayOutputStream entryBytes = new ByteArrayOutputStream();
+            DataOutputStream entries = new DataOutputStream(entryBytes);
+            int count = 0;
+
+            Cache<Object, Object> cache = caffeine(cacheName);
+            Policy.VarExpiration<Object, Object> expiration = cache != null ? expiration(cache) : null;
+            if (expiration != null) {
+                for (Map.Entry<Object, Object> entry : cache.asMap().entrySet()) {
+                    Optional<Duration> expiresAfter = expiration.getExpiresAfter(entry.getKey());
+                    if (expiresAfter.isEmpty() || !isSupportedKey(entry.getKey())) {
+                        continue;
+                    }
+                    byte[] value;
+                    try {
+                        value = codec.encode(cacheName, entry.getValue());
+                    } catch (IOException | RuntimeException e) {
+                        log.debug("Skipping {} entry {} in cache snapshot: {}", cacheName, entry.getKey(), e.toString());
+                        continue;
+                    }
+                    entries.writeLong(now.plus(expiresAfter.get()).toEpochMilli());
+                    writeKey(entries, entry.getKey());
+                    entries.writeInt(value.length);
+                    entries.write(value);
+                    count++;
+                }
+            }
+
+            out.writeUTF(cacheName);
+            out.writeInt(count);
+            entryBytes.writeTo(out);
+            written += count;
+        }
+
+        out.flush();
+        store.write(bytes.toByteArray());
+        return written;
+    }
+
+    // Returns the number of entries restored. Entries already in the cache are kept, they
+    // are at least as fresh as the snapshot
+    @SuppressWarnings("unchecked")
+    public int restore() throws IOException {
+        byte[] snapshot = store.read();
+        if (snapshot == null) {
+            return 0;
+        }
+
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(snapshot));
+        int version = in.readUnsignedByte();
+        if (version != VERSION) {
+            throw new IOException("Unsupported cache snapshot version: " + version);
+        }
+
+        Instant now = clock.instant();
+        int restored = 0;
+        int refreshed = 0;
+        int caches = in.readInt();
+        for (int i = 0; i < caches; i++) {
+            String cacheName = in.readUTF();
+            int count = in.readInt();
+            Cache<Object, Object> cache = cacheNames.contains(cacheName) ? caffeine(cacheName) : null;
+            Policy.VarExpiration<Object, Object> expiration = cache != null ? expiration(cache) : null;
+            Duration refreshAfter = cache instanceof LoadingCache<?, ?> ? refreshAfter(cache) : null;
+
+            for (int j = 0; j < count; j++) {
+                // Stopped by shutdown, the caller must not snapshot the partly restored caches
+                if (Thread.currentThread().isInterrupted()) {
+                    throw new InterruptedIOException("Cache snapshot restore interrupted");
+                }
+                Instant expiresAt = Instant.ofEpochMilli(in.readLong());
+                Object key = readKey(in);
+                byte[] value = in.readNBytes(in.readInt());
+                Duration remaining = Duration.between(now, expiresAt);
+                if (expiration == null || !remaining.isPositive()) {
+                    continue;
+                }
+                Object existing = expiration.putIfAbsent(key, codec.decode(cacheName, value), remaining);
+                if (existing == null) {
+                    restored++;
+                }
+                // Reloaded in the background at refresh priority, the restored value is served meanwhile
+                if (existing == null && refreshAfter != null && remaining.compareTo(refreshAfter) < 0) {
+                    ((LoadingCache<Object, Object>) cache).refresh(key);
+                    refreshed++;
+                }
+            }
+        }
+        if (refreshed > 0) {
+            log.info("Refreshing {} restored cache entries that would expire before their refresh", refreshed);
+        }
+        return restored;
+    }
+
+    @SuppressWarnings("unchecked")
+    private Cache<Object, Object> caffeine(String cacheName) {
+        org.springframework.cache.Cache cache = cacheManager.getCache(cacheName);
+        if (cache != null && cache.getNativeCache() instanceof Cache<?, ?> caffeine) {
+            return (Cache<Object, Object>) caffeine;
+        }
+        return null;
+    }
+
+    private static Policy.VarExpiration<Object, Object> expiration(Cache<Object, Object> cache) {
+        return cache.policy().expireVariably().orElse(null);
+    }
+
+    private static Duration refreshAfter(Cache<Object, Object> cache) {
+        return cache.policy().refreshAfterWrite().map(Policy.FixedRefresh::getRefreshesAfter).orElse(null);
+    }
+
+    private static boolean isSupportedKey(Object key) {
+        return key instanceof String || key instanceof CoordinatesKey || key instanceof ForecastKey
+                || key instanceof CityKey;
+    }
+
+    private static void writeKey(DataOutputStream out, Object key) throws IOException {
+        switch (key) {
+            case String value -> {
+                out.writeByte(STRING_KEY);
+                out.writeUTF(value);
+            }
+            case CoordinatesKey coordinates -> {
+                out.writeByte(COORDINATES_KEY);
+                writeCoordinates(out, coordinates);
+            }
+            case ForecastKey forecast -> {
+                out.writeByte(FORECAST_KEY);
+                writeCoordinates(out, forecast.location());
+                out.writeInt(forecast.days());
+            }
+            case CityKey city -> {
+                out.writeByte(CITY_KEY);
+                out.writeUTF(city.name());
+                out.writeBoolean(city.countryCode() != null);
+                if (city.countryCode() != null) {
+                    out.writeUTF(city.countryCode());
+                }
+            }
+            default -> throw new IllegalArgumentException("Unsupported cache key: " + key.getClass().getName());
+        }
+    }
+
+    private static Object readKey(DataInputStream in) throws IOException {
+        int kind = in.readUnsignedByte();
+        return switch (kind) {
+            case STRING_KEY -> in.readUTF();
+            case COORDINATES_KEY -> readCoordinates(in);
+            case FORECAST_KEY -> new ForecastKey(readCoordinates(in), in.readInt());
+            case CITY_KEY -> new CityKey(in.readUTF(), in.readBoolean() ? in.readUTF() : null);
+            default -> throw new IOException("Unknown cache key kind: " + kind);
+        };
+    }
+
+    private static void writeCoordinates(DataOutputStream out, CoordinatesKey coordinates) throws IOException {
+        out.writeDouble(coordinates.latitude());
+        out.writeDouble(coordinates.longitude());
+    }
+
+    private static CoordinatesKey readCoordinates(DataInputStream in) throws IOException {
+        return new CoordinatesKey(in.readDouble(), in.readDouble());
+    }
+}
@@ -0,0 +1,14 @@
+package com.example.weatherApp.service.cache;
+
+import java.io.IOException;
+
+/**
+ * Serialized form of cached values in the shared cache level. The value type follows
+ * from the cache name.
+ */
+public interface CacheValueCodec {
+
+    byte[] encode(String cacheName, Object value) throws IOException;
+
+    Object decode(String cacheName, byte[] payload) throws IOException;
+}
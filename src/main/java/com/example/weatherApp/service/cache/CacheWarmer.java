@@ -0,0 +1,153 @@
+package com.example.weatherApp.service.cache;
+
+import com.example.weatherApp.config.CacheProperties;
+import com.example.weatherApp.service.ratelimit.UpstreamPriority;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Policy;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.SmartLifecycle;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reloads the current weather and forecast of the hottest locations (see
+ * {@link HotLocationTracker}) before their cache entries expire, so popular locations
+ * never fall back to a cold lookup. Every run may make at most its share of
+ * {@code upstream-calls-per-minute} upstream calls, hottest locations first; after each
+ * run the counts are halved so the ranking follows current traffic.
+ */
+@Slf4j
+public class CacheWarmer implements SmartLifecycle {
+
+    private static final String CURRENT_WEATHER = "currentWeather";
+    private static final String FORECAST_WEATHER = "forecastWeather";
+
+    private final HotLocationTracker hotLocations;
+    private final CacheManager cacheManager;
+    private final CacheRefresher cacheRefresher;
+    private final MeterRegistry meterRegistry;
+    private final int topLocations;
+    private final Duration interval;
+    private final Duration refreshBeforeExpiry;
+    private final int callsPerRun;
+    private final ThreadFactory threadFactory;
+    private final Counter budgetExhausted;
+    private ScheduledExecutorService executor;
+
+    public CacheWarmer(HotLocationTracker hotLocations, CacheManager cacheManager, CacheRefresher cacheRefresher,
+                       MeterRegistry meterRegistry, CacheProperties.Prewarm prewarm, ThreadFactory threadFactory) {
+        this.hotLocations = hotLocations;
+        this.cacheManager = cacheManager;
+        this.cacheRefresher = cacheRefresher;
+        this.meterRegistry = meterRegistry;
+        this.topLocations = prewarm.getTopLocations();
+        this.interval = prewarm.getInterval();
+        this.refreshBeforeExpiry = prewarm.getRefreshBeforeExpiry();
+        this.callsPerRun = (int) Math.max(1,
+                prewarm.getUpstreamCallsPerMinute() * interval.toMillis() / Duration.ofMinutes(1).toMillis());
+        this.threadFactory = threadFactory;
+        this.budgetExhausted = Counter.builder("weather.cache.prewarm.budget.exhausted")
+                .description("Pre-warm runs that stopped at their upstream call budget")
+                .register(meterRegistry);
+    }
+
+    // Returns the number of entries reloaded
+    public int warm() {
+        int budget = callsPerRun;
+        int reloaded = 0;
+        try {
+            for (ForecastKey hot : hotLocations.top(topLocations)) {
+                for (CacheEntry entry : List.of(new CacheEntry(CURRENT_WEATHER, hot.location()),
+                        new CacheEntry(FORECAST_WEATHER, hot))) {
+                    if (!isExpiring(entry)) {
+                        continue;
+                    }
+                    if (budget == 0) {
+                        budgetExhausted.increment();
+                        return reloaded;
+                    }
+                    budget--;
+                    if (reload(entry)) {
+                        reloaded++;
+                    }
+                }
+            }
+            return reloaded;
+        } finally {
+            hotLocations.decay();
+        }
+    }
+
+    @Override
+    public void start() {
+        executor = Executors.newSingleThreadScheduledExecutor(threadFactory);
+        executor.scheduleWithFixedDelay(this::run, interval.toMillis(), interval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void stop() {
+        executor.shutdownNow();
+        executor = null;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return executor != null;
+    }
+
+    private void run() {
+        try {
+            int reloaded = warm();
+            log.debug("Pre-warmed {} cache entries", reloaded);
+        } catch (RuntimeException e) {
+            log.warn("Cache pre-warm run failed: {}", e.toString());
+        }
+    }
+
+    // Absent entries of a hot location count as expiring too, they expired since it was requested
+    private boolean isExpiring(CacheEntry entry) {
+        org.springframework.cache.Cache cache = cacheManager.getCache(entry.cacheName());
+        if (cache == null || !(cache.getNativeCache() instanceof Cache<?, ?> caffeine)) {
+            return false;
+        }
+        @SuppressWarnings("unchecked")
+        Optional<Policy.VarExpiration<Object, Object>> expiration =
+                ((Cache<Object, Object>) caffeine).policy().expireVariably();
+        Optional<Duration> remaining = expiration.flatMap(policy -> policy.getExpiresAfter(entry.key()));
+        return remaining.isEmpty() || remaining.get().compareTo(refreshBeforeExpiry) <= 0;
+    }
+
+    private boolean reload(CacheEntry entry) {
+        try {
+            Object value = UpstreamPriority.PREFETCH.call(() -> cacheRefresher.reload(entry.cacheName(), entry.key()));
+            cacheManager.getCache(entry.cacheName()).put(entry.key(), value);
+            count(entry, "success");
+            return true;
+        } catch (RuntimeException e) {
+            count(entry, "failure");
+            log.warn("Pre-warming {} entry {} failed: {}", entry.cacheName(), entry.key(), e.toString());
+            return false;
+        }
+    }
+
+    private void count(CacheEntry entry, String outcome) {
+        Counter.builder("weather.cache.prewarm.reloads")
+                .description("Cache entries reloaded ahead of expiry by the pre-warmer")
+                .tag("cache", entry.cacheName())
+                .tag("outcome", outcome)
+                .register(meterRegistry)
+                .increment();
+    }
+
+    private record CacheEntry(String cacheName, Object key) {
+    }
+}
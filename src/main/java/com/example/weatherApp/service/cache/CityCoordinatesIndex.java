@@ -0,0 +1,42 @@
+package com.example.weatherApp.service.cache;
+
+import com.example.weatherApp.model.WeatherData;
+import lombok.RequiredArgsConstructor;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+
+/**
+ * Normalized city name to the location its first search resolved to. Entries live far
+ * longer than the weather itself (a city does not move), so once a city is known its
+ * searches are served by the coordinate-keyed entries shared with coordinate callers.
+ */
+@Component
+@RequiredArgsConstructor
+public class CityCoordinatesIndex {
+
+    public static final String CACHE_NAME = "cityCoordinates";
+
+    private final CacheManager cacheManager;
+    private final WeatherCacheKeys cacheKeys;
+
+    public CityLocation get(String city) {
+        return cache().get(cacheKeys.city(city), CityLocation.class);
+    }
+
+    public void put(String city, WeatherData resolved) {
+        if (resolved.getCoordinates() == null) {
+            return;
+        }
+        cache().put(cacheKeys.city(city), new CityLocation(resolved.getCityName(), resolved.getCountryCode(),
+                resolved.getCoordinates().getLatitude(), resolved.getCoordinates().getLongitude()));
+    }
+
+    private Cache cache() {
+        Cache cache = cacheManager.getCache(CACHE_NAME);
+        if (cache == null) {
+            throw new IllegalStateException("Cache not configured: " + CACHE_NAME);
+        }
+        return cache;
+    }
+}
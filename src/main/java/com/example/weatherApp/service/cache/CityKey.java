@@ -0,0 +1,12 @@
+package com.example.weatherApp.service.cache;
+
+/**
+ * Normalized city name with an optional ISO country code, see {@link WeatherCacheKeys#city}.
+ */
+public record CityKey(String name, String countryCode) implements LocationKey {
+
+    // OpenWeatherMap "q" parameter
+    public String query() {
+        return countryCode == null ? name : name + "," + countryCode;
+    }
+}
@@ -0,0 +1,7 @@
+package com.example.weatherApp.service.cache;
+
+/**
+ * Where a city search resolved to, kept in the cityCoordinates index.
+ */
+public record CityLocation(String cityName, String countryCode, double latitude, double longitude) {
+}
@@ -0,0 +1,14 @@
+package com.example.weatherApp.service.cache;
+
+/**
+ * Maps coordinates to the location they are cached under. Coordinates that map to the
+ * same key share one cache entry and one upstream call, so the data of an entry is
+ * always fetched for the key's coordinates, never for those of the caller that missed.
+ */
+public interface CoordinateKeyStrategy {
+
+    CoordinatesKey key(double latitude, double longitude);
+
+    // Tag value for the cache metrics, e.g. "geohash-6"
+    String precision();
+}
@@ -0,0 +1,4 @@
+package com.example.weatherApp.service.cache;
+
+public record CoordinatesKey(double latitude, double longitude) implements LocationKey {
+}
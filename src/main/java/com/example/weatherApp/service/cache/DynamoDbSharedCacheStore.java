@@ -0,0 +1,71 @@
+package com.example.weatherApp.service.cache;
+
+import lombok.extern.slf4j.Slf4j;
+import software.amazon.awssdk.core.SdkBytes;
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbEnhancedClient;
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbTable;
+import software.amazon.awssdk.enhanced.dynamodb.Key;
+import software.amazon.awssdk.enhanced.dynamodb.TableSchema;
+import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+import software.amazon.awssdk.services.dynamodb.model.ResourceInUseException;
+
+import java.time.Clock;
+import java.time.Instant;
+
+/**
+ * Shared cache entries in a DynamoDB table keyed by {@code id}. DynamoDB TTL on
+ * {@code expiresAt} removes expired items, but only eventually, so reads check it too.
+ */
+@Slf4j
+public class DynamoDbSharedCacheStore implements SharedCacheStore {
+
+    static final String EXPIRES_AT = "expiresAt";
+
+    private final DynamoDbTable<SharedCacheItem> table;
+    private final Clock clock;
+
+    public DynamoDbSharedCacheStore(DynamoDbEnhancedClient enhancedClient, String tableName) {
+        this.table = enhancedClient.table(tableName, TableSchema.fromBean(SharedCacheItem.class));
+        this.clock = Clock.systemUTC();
+    }
+
+    @Override
+    public byte[] get(String id) {
+        SharedCacheItem item = table.getItem(key(id));
+        if (item == null || item.getExpiresAt() == null
+                || item.getExpiresAt() <= clock.instant().getEpochSecond()) {
+            return null;
+        }
+        return item.getPayload().asByteArray();
+    }
+
+    @Override
+    public void put(String id, byte[] payload, Instant expiresAt) {
+        table.putItem(new SharedCacheItem(id, SdkBytes.fromByteArray(payload), expiresAt.getEpochSecond()));
+    }
+
+    @Override
+    public void delete(String id) {
+        table.deleteItem(key(id));
+    }
+
+    // For DynamoDB Local and first-time setup, the table is on-demand with TTL on expiresAt
+    public void createTableIfMissing(DynamoDbClient dynamoDbClient) {
+        try {
+            table.createTable();
+        } catch (ResourceInUseException e) {
+            return;
+        }
+        dynamoDbClient.waiter().waitUntilTableExists(request -> request.tableName(table.tableName()));
+        dynamoDbClient.updateTimeToLive(request -> request
+                .tableName(table.tableName())
+                .timeToLiveSpecification(ttl -> ttl.enabled(true).attributeName(EXPIRES_AT)));
+        log.info("Created shared cache table {}", table.tableName());
+    }
+
+    private static Key key(String id) {
+        return Key.builder()
+                .partitionValue(id)
+                .build();
+    }
+}
@@ -0,0 +1,17 @@
+package com.example.weatherApp.service.cache;
+
+/**
+ * Caches coordinates as given, only identical coordinates share an entry.
+ */
+public class ExactKeyStrategy implements CoordinateKeyStrategy {
+
+    @Override
+    public CoordinatesKey key(double latitude, double longitude) {
+        return new CoordinatesKey(latitude, longitude);
+    }
+
+    @Override
+    public String precision() {
+        return "exact";
+    }
+}
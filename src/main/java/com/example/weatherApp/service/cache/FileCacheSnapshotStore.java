@@ -0,0 +1,50 @@
+package com.example.weatherApp.service.cache;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Snapshot in a local file, e.g. on a volume that outlives the pod. The file is written
+ * and read through a memory mapping; a new snapshot is written next to it and moved in
+ * place, so a crash mid-write leaves the previous one intact.
+ */
+public class FileCacheSnapshotStore implements CacheSnapshotStore {
+
+    private final Path path;
+
+    public FileCacheSnapshotStore(Path path) {
+        this.path = path;
+    }
+
+    @Override
+    public byte[] read() throws IOException {
+        if (!Files.exists(path)) {
+            return null;
+        }
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            byte[] snapshot = new byte[buffer.remaining()];
+            buffer.get(snapshot);
+            return snapshot;
+        }
+    }
+
+    @Override
+    public void write(byte[] snapshot) throws IOException {
+        Path directory = path.toAbsolutePath().getParent();
+        Files.createDirectories(directory);
+        Path temporary = directory.resolve(path.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, snapshot.length);
+            buffer.put(snapshot);
+            buffer.force();
+        }
+        Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+}
@@ -0,0 +1,4 @@
+package com.example.weatherApp.service.cache;
+
+public record ForecastKey(CoordinatesKey location, int days) {
+}
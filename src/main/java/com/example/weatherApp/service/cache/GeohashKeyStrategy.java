@@ -0,0 +1,42 @@
+package com.example.weatherApp.service.cache;
+
+/**
+ * Snaps coordinates to the center of their geohash cell of {@code length} characters.
+ * The cell is computed from the geohash bit layout directly, no hash string is built:
+ * each character adds 5 bits, interleaved starting with longitude.
+ */
+public class GeohashKeyStrategy implements CoordinateKeyStrategy {
+
+    private final int length;
+    private final int latitudeBits;
+    private final int longitudeBits;
+
+    public GeohashKeyStrategy(int length) {
+        if (length < 1 || length > 12) {
+            throw new IllegalArgumentException("Geohash length must be between 1 and 12: " + length);
+        }
+        this.length = length;
+        this.latitudeBits = 5 * length / 2;
+        this.longitudeBits = (5 * length + 1) / 2;
+    }
+
+    @Override
+    public CoordinatesKey key(double latitude, double longitude) {
+        return new CoordinatesKey(
+                cellCenter(latitude, -90, 180, latitudeBits),
+                cellCenter(longitude, -180, 360, longitudeBits));
+    }
+
+    @Override
+    public String precision() {
+        return "geohash-" + length;
+    }
+
+    private static double cellCenter(double value, double min, double range, int bits) {
+        long cells = 1L << bits;
+        double cellSize = range / cells;
+        // The upper bound (90 or 180) belongs to the last cell
+        long index = Math.max(0, Math.min(cells - 1, (long) Math.floor((value - min) / cellSize)));
+        return min + (index + 0.5) * cellSize;
+    }
+}
@@ -0,0 +1,40 @@
+package com.example.weatherApp.service.cache;
+
+import java.math.BigDecimal;
+
+/**
+ * Snaps coordinates to the center of a square grid cell of {@code cellDegrees}.
+ * At 0.01 a cell is about 1.1 km north-south and narrower east-west away from the equator.
+ */
+public class GridKeyStrategy implements CoordinateKeyStrategy {
+
+    private final double cellDegrees;
+    private final String precision;
+
+    public GridKeyStrategy(double cellDegrees) {
+        if (!(cellDegrees > 0)) {
+            throw new IllegalArgumentException("Grid cell size must be positive: " + cellDegrees);
+        }
+        this.cellDegrees = cellDegrees;
+        this.precision = "grid-" + BigDecimal.valueOf(cellDegrees).stripTrailingZeros().toPlainString();
+    }
+
+    @Override
+    public CoordinatesKey key(double latitude, double longitude) {
+        return new CoordinatesKey(cellCenter(latitude, 90), cellCenter(longitude, 180));
+    }
+
+    @Override
+    public String precision() {
+        return precision;
+    }
+
+    // A cell center maps to itself, so keys stay stable when a refresh re-keys them. The bound
+    // (90 or 180) belongs to the last cell, a center beyond it when the cells do not divide the
+    // range evenly is moved onto it
+    private double cellCenter(double value, double bound) {
+        double cell = Math.max(Math.floor(-bound / cellDegrees),
+                Math.min(Math.ceil(bound / cellDegrees) - 1, Math.floor(value / cellDegrees)));
+        return Math.max(-bound, Math.min(bound, (cell + 0.5) * cellDegrees));
+    }
+}
@@ -0,0 +1,33 @@
+package com.example.weatherApp.service.cache;
+
+import com.github.benmanes.caffeine.cache.Expiry;
+
+import java.time.Duration;
+
+/**
+ * Expire-after-write as a variable expiry, so an entry can also be put with less than the
+ * full TTL left, e.g. when a cache snapshot is restored.
+ */
+public class HardTtlExpiry implements Expiry<Object, Object> {
+
+    private final long hardTtlNanos;
+
+    public HardTtlExpiry(Duration hardTtl) {
+        this.hardTtlNanos = hardTtl.toNanos();
+    }
+
+    @Override
+    public long expireAfterCreate(Object key, Object value, long currentTime) {
+        return hardTtlNanos;
+    }
+
+    @Override
+    public long expireAfterUpdate(Object key, Object value, long currentTime, long currentDuration) {
+        return hardTtlNanos;
+    }
+
+    @Override
+    public long expireAfterRead(Object key, Object value, long currentTime, long currentDuration) {
+        return currentDuration;
+    }
+}
@@ -0,0 +1,40 @@
+package com.example.weatherApp.service.cache;
+
+import com.example.weatherApp.config.CacheProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Counts which coordinate lookups are requested most, in the form of their forecast cache
+ * key (the snapped location and the number of days). {@link CacheWarmer} reloads the
+ * hottest ones before they expire. Recording is a no-op unless pre-warming is enabled.
+ */
+@Component
+public class HotLocationTracker {
+
+    private final WeatherCacheKeys cacheKeys;
+    private final boolean enabled;
+    private final TopKSketch<ForecastKey> sketch;
+
+    public HotLocationTracker(WeatherCacheKeys cacheKeys, CacheProperties cacheProperties) {
+        CacheProperties.Prewarm prewarm = cacheProperties.getPrewarm();
+        this.cacheKeys = cacheKeys;
+        this.enabled = prewarm.isEnabled();
+        this.sketch = new TopKSketch<>(prewarm.getSketchCapacity());
+    }
+
+    public void record(double latitude, double longitude, int days) {
+        if (enabled) {
+            sketch.offer(cacheKeys.forecast(latitude, longitude, days));
+        }
+    }
+
+    public List<ForecastKey> top(int n) {
+        return sketch.top(n);
+    }
+
+    public void decay() {
+        sketch.decay();
+    }
+}
@@ -0,0 +1,50 @@
+package com.example.weatherApp.service.cache;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Process-local stand-in for the DynamoDB table, for tests and for running without AWS.
+ * Expired entries are dropped when they are read.
+ */
+public class InMemorySharedCacheStore implements SharedCacheStore {
+
+    private final ConcurrentMap<String, Entry> entries = new ConcurrentHashMap<>();
+    private final Clock clock;
+
+    public InMemorySharedCacheStore() {
+        this(Clock.systemUTC());
+    }
+
+    public InMemorySharedCacheStore(Clock clock) {
+        this.clock = clock;
+    }
+
+    @Override
+    public byte[] get(String id) {
+        Entry entry = entries.get(id);
+        if (entry == null) {
+            return null;
+        }
+        if (!entry.expiresAt().isAfter(clock.instant())) {
+            entries.remove(id, entry);
+            return null;
+        }
+        return entry.payload();
+    }
+
+    @Override
+    public void put(String id, byte[] payload, Instant expiresAt) {
+        entries.put(id, new Entry(payload, expiresAt));
+    }
+
+    @Override
+    public void delete(String id) {
+        entries.remove(id);
+    }
+
+    private record Entry(byte[] payload, Instant expiresAt) {
+    }
+}
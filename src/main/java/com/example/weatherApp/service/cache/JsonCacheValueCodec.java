@@ -0,0 +1,49 @@
+package com.example.weatherApp.service.cache;
+
+import com.example.weatherApp.model.DailyForecast;
+import com.example.weatherApp.model.LocationData;
+import com.example.weatherApp.model.WeatherData;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.type.TypeFactory;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Cached values as JSON, using the same model mapping as the REST API.
+ */
+public class JsonCacheValueCodec implements CacheValueCodec {
+
+    private final ObjectMapper objectMapper;
+    private final Map<String, JavaType> valueTypes;
+
+    public JsonCacheValueCodec(ObjectMapper objectMapper) {
+        TypeFactory types = objectMapper.getTypeFactory();
+        this.objectMapper = objectMapper;
+        this.valueTypes = Map.of(
+                "currentWeather", types.constructType(WeatherData.class),
+                "forecastWeather", types.constructCollectionType(List.class, DailyForecast.class),
+                "ipLocation", types.constructType(LocationData.class),
+                CityCoordinatesIndex.CACHE_NAME, types.constructType(CityLocation.class));
+    }
+
+    @Override
+    public byte[] encode(String cacheName, Object value) throws IOException {
+        return objectMapper.writerFor(valueType(cacheName)).writeValueAsBytes(value);
+    }
+
+    @Override
+    public Object decode(String cacheName, byte[] payload) throws IOException {
+        return objectMapper.readValue(payload, valueType(cacheName));
+    }
+
+    private JavaType valueType(String cacheName) {
+        JavaType type = valueTypes.get(cacheName);
+        if (type == null) {
+            throw new IllegalArgumentException("No value type for cache: " + cacheName);
+        }
+        return type;
+    }
+}
@@ -0,0 +1,7 @@
+package com.example.weatherApp.service.cache;
+
+/**
+ * Cache key identifying a location, either by city name or by coordinates.
+ */
+public sealed interface LocationKey permits CityKey, CoordinatesKey {
+}
@@ -0,0 +1,101 @@
+package com.example.weatherApp.service.cache;
+
+import com.example.weatherApp.config.CacheProperties;
+import com.example.weatherApp.model.Coordinates;
+import com.example.weatherApp.model.WeatherData;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.function.Supplier;
+
+/**
+ * Rendered weather pages, one per normalized location, days and locale. A page is kept with
+ * the version of the cached entries it was rendered from and rendered again, replacing it, as
+ * soon as a request brings a different version, i.e. once the cached weather entry was refreshed.
+ */
+@Component
+public class RenderedPageCache {
+
+    public static final String CACHE_NAME = "renderedPages";
+
+    private final WeatherCacheKeys cacheKeys;
+    private final WeatherVersions versions;
+    // Null when disabled, every page is rendered then
+    private final Cache<PageKey, RenderedPage> cache;
+    private final Counter renderedNew;
+    private final Counter renderedOutdated;
+
+    public RenderedPageCache(WeatherCacheKeys cacheKeys, WeatherVersions versions, CacheProperties cacheProperties,
+                             MeterRegistry meterRegistry) {
+        this.cacheKeys = cacheKeys;
+        this.versions = versions;
+        CacheProperties.RenderedPages properties = cacheProperties.getRenderedPages();
+        if (properties.isEnabled()) {
+            this.cache = Caffeine.newBuilder()
+                    .maximumWeight(properties.getMaximumWeight().toBytes())
+                    .weigher((PageKey key, RenderedPage page) -> page.html().length + page.version().length() * 2)
+                    .expireAfterWrite(properties.getTtl())
+                    .recordStats()
+                    .build();
+            CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME, List.of());
+        } else {
+            this.cache = null;
+        }
+        this.renderedNew = rendered(meterRegistry, "new");
+        this.renderedOutdated = rendered(meterRegistry, "outdated");
+    }
+
+    public byte[] get(WeatherData weatherData, int days, Locale locale, Supplier<byte[]> renderer) {
+        if (cache == null) {
+            renderedNew.increment();
+            return renderer.get();
+        }
+        PageKey key = new PageKey(location(weatherData), days, locale);
+        // The coordinates are the caller's own within the cell and the page does not show them
+        String version = versions.version(weatherData.toBuilder().coordinates(null).build());
+        RenderedPage page = cache.getIfPresent(key);
+        if (page != null && page.version().equals(version)) {
+            return page.html();
+        }
+        // Concurrent requests for the page wait for one render
+        return cache.asMap().compute(key, (pageKey, current) -> {
+            if (current != null && current.version().equals(version)) {
+                return current;
+            }
+            (current == null ? renderedNew : renderedOutdated).increment();
+            return new RenderedPage(version, renderer.get());
+        }).html();
+    }
+
+    public long size() {
+        return cache == null ? 0 : cache.estimatedSize();
+    }
+
+    // Snapped like the weather cache keys, so nearby coordinates share a page
+    private Object location(WeatherData weatherData) {
+        Coordinates coordinates = weatherData.getCoordinates();
+        if (coordinates != null && coordinates.getLatitude() != null && coordinates.getLongitude() != null) {
+            return cacheKeys.coordinates(coordinates.getLatitude(), coordinates.getLongitude());
+        }
+        return weatherData.getCityName() != null ? cacheKeys.city(weatherData.getCityName()) : null;
+    }
+
+    private static Counter rendered(MeterRegistry meterRegistry, String reason) {
+        return Counter.builder("weather.pages.rendered")
+                .description("Weather pages rendered, because none was cached or the cached one was outdated")
+                .tag("reason", reason)
+                .register(meterRegistry);
+    }
+
+    private record PageKey(Object location, int days, Locale locale) {
+    }
+
+    private record RenderedPage(String version, byte[] html) {
+    }
+}
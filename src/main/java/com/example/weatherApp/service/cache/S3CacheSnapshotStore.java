@@ -0,0 +1,47 @@
+package com.example.weatherApp.service.cache;
+
+import software.amazon.awssdk.core.sync.RequestBody;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.GetObjectRequest;
+import software.amazon.awssdk.services.s3.model.NoSuchKeyException;
+import software.amazon.awssdk.services.s3.model.PutObjectRequest;
+
+/**
+ * Snapshot as a single S3 object. All instances may share the object: whichever wrote
+ * last is restored, and any recent snapshot is a better start than an empty cache.
+ */
+public class S3CacheSnapshotStore implements CacheSnapshotStore {
+
+    private final S3Client s3Client;
+    private final String bucket;
+    private final String key;
+
+    public S3CacheSnapshotStore(S3Client s3Client, String bucket, String key) {
+        this.s3Client = s3Client;
+        this.bucket = bucket;
+        this.key = key;
+    }
+
+    @Override
+    public byte[] read() {
+        try {
+            return s3Client.getObjectAsBytes(GetObjectRequest.builder()
+                            .bucket(bucket)
+                            .key(key)
+                            .build())
+                    .asByteArray();
+        } catch (NoSuchKeyException e) {
+            return null;
+        }
+    }
+
+    @Override
+    public void write(byte[] snapshot) {
+        s3Client.putObject(PutObjectRequest.builder()
+                        .bucket(bucket)
+                        .key(key)
+                        .contentType("application/octet-stream")
+                        .build(),
+                RequestBody.fromBytes(snapshot));
+    }
+}
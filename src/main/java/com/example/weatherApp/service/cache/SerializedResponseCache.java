@@ -0,0 +1,113 @@
+package com.example.weatherApp.service.cache;
+
+import com.example.weatherApp.model.CurrentWeather;
+import com.example.weatherApp.model.WeatherData;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.BeanDescription;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationConfig;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.databind.ser.BeanPropertyWriter;
+import com.fasterxml.jackson.databind.ser.BeanSerializerModifier;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * UTF-8 JSON of the cached parts of the weather responses, so a cache hit is written without
+ * running Jackson over them again. A response is assembled per request from the shared cached
+ * current weather and forecast plus the caller's own location, so the parts are encoded once
+ * per cache entry and only the few request specific fields are written per response.
+ *
+ * <p>Parts are looked up by identity and weakly referenced: an encoding lives as long as the
+ * cache entry it was made from and a refreshed entry is a new object, encoded again.
+ */
+public class SerializedResponseCache {
+
+    public static final String CACHE_NAME = "serializedResponses";
+
+    private final ObjectMapper objectMapper;
+    private final Cache<Object, SerializedString> cache;
+    // Writes the response with the cached parts spliced in as raw JSON
+    private final ObjectWriter responseWriter;
+
+    public SerializedResponseCache(ObjectMapper objectMapper, long maximumWeightBytes, Duration ttl,
+                                   MeterRegistry meterRegistry) {
+        this.objectMapper = objectMapper;
+        // The encoding is held as a string and, after the first write, as its UTF-8 bytes, about
+        // a byte per character each. The weakly held parts are weighed by their own caches
+        this.cache = Caffeine.newBuilder()
+                .weakKeys()
+                .maximumWeight(maximumWeightBytes)
+                .weigher((Object part, SerializedString json) -> json.charLength() * 2)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME, List.of());
+        this.responseWriter = objectMapper.copy()
+                .registerModule(new SimpleModule().setSerializerModifier(new CachedPartsModifier()))
+                .writer();
+    }
+
+    // Encoded anew per call, the cached parts are copied in
+    public byte[] get(WeatherData weatherData) {
+        try {
+            return responseWriter.writeValueAsBytes(weatherData);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public long size() {
+        return cache.estimatedSize();
+    }
+
+    private SerializedString encode(Object part) {
+        try {
+            return new SerializedString(objectMapper.writeValueAsString(part));
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // The current weather and the forecast list are the instances held by the weather caches
+    private class CachedPartsModifier extends BeanSerializerModifier {
+
+        @Override
+        public List<BeanPropertyWriter> changeProperties(SerializationConfig config, BeanDescription beanDesc,
+                                                         List<BeanPropertyWriter> beanProperties) {
+            if (beanDesc.getBeanClass() == WeatherData.class) {
+                for (BeanPropertyWriter property : beanProperties) {
+                    Class<?> type = property.getType().getRawClass();
+                    if (type == CurrentWeather.class || type == List.class) {
+                        property.assignSerializer(new CachedPartSerializer());
+                    }
+                }
+            }
+            return beanProperties;
+        }
+    }
+
+    private class CachedPartSerializer extends StdSerializer<Object> {
+
+        CachedPartSerializer() {
+            super(Object.class);
+        }
+
+        @Override
+        public void serialize(Object part, JsonGenerator generator, SerializerProvider provider) throws IOException {
+            generator.writeRawValue(cache.get(part, SerializedResponseCache.this::encode));
+        }
+    }
+}
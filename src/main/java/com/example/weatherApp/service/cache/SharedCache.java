@@ -0,0 +1,218 @@
+package com.example.weatherApp.service.cache;
+
+import com.example.weatherApp.service.jfr.CacheOperationEvent;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Second cache level, shared by all instances through a {@link SharedCacheStore}. It is
+ * an optimization only: a failing store counts as a miss, and writes are queued to a
+ * small executor and dropped when it is saturated (the next miss writes the entry again).
+ */
+@Slf4j
+public class SharedCache {
+
+    private final SharedCacheStore store;
+    private final CacheValueCodec codec;
+    private final ExecutorService writeExecutor;
+    private final Executor readExecutor;
+    private final Map<String, Duration> timeToLive;
+    private final Clock clock;
+    private final Map<String, Stats> stats = new ConcurrentHashMap<>();
+
+    public SharedCache(SharedCacheStore store, CacheValueCodec codec, ExecutorService writeExecutor,
+                       Executor readExecutor, Map<String, Duration> timeToLive, Clock clock) {
+        this.store = store;
+        this.codec = codec;
+        this.writeExecutor = writeExecutor;
+        this.readExecutor = readExecutor;
+        this.timeToLive = Map.copyOf(timeToLive);
+        this.clock = clock;
+    }
+
+    public Object get(String cacheName, Object key) {
+        Stats cacheStats = stats(cacheName);
+        CacheOperationEvent event = new CacheOperationEvent();
+        event.begin();
+        long start = System.nanoTime();
+        byte[] payload = null;
+        String outcome = "error";
+        try {
+            payload = store.get(id(cacheName, key));
+            if (payload == null) {
+                cacheStats.misses.increment();
+                outcome = "miss";
+                return null;
+            }
+            Object value = codec.decode(cacheName, payload);
+            cacheStats.hits.increment();
+            outcome = "hit";
+            return value;
+        } catch (IOException | RuntimeException e) {
+            cacheStats.readErrors.increment();
+            log.warn("Shared cache read failed for {} {}: {}", cacheName, key, e.toString());
+            return null;
+        } finally {
+            cacheStats.record(cacheStats.getLatency, start);
+            byte[] read = payload;
+            event.record(cacheName, CacheOperationEvent.SHARED_GET, key, outcome, () -> read != null ? read.length : -1);
+        }
+    }
+
+    // For the reactive cache path, the store calls block
+    public CompletableFuture<Object> getAsync(String cacheName, Object key) {
+        return CompletableFuture.supplyAsync(() -> get(cacheName, key), readExecutor);
+    }
+
+    public void put(String cacheName, Object key, Object value) {
+        if (value == null) {
+            return;
+        }
+        submit(cacheName, () -> {
+            Stats cacheStats = stats(cacheName);
+            CacheOperationEvent event = new CacheOperationEvent();
+            event.begin();
+            long start = System.nanoTime();
+            byte[] payload = null;
+            String outcome = "error";
+            try {
+                payload = codec.encode(cacheName, value);
+                store.put(id(cacheName, key), payload, clock.instant().plus(timeToLive(cacheName)));
+                cacheStats.puts.increment();
+                cacheStats.record(cacheStats.putLatency, start);
+                outcome = "stored";
+            } finally {
+                byte[] written = payload;
+                event.record(cacheName, CacheOperationEvent.SHARED_PUT, key, outcome,
+                        () -> written != null ? written.length : -1);
+            }
+        });
+    }
+
+    public void evict(String cacheName, Object key) {
+        submit(cacheName, () -> store.delete(id(cacheName, key)));
+    }
+
+    public void shutdown() {
+        writeExecutor.shutdown();
+    }
+
+    // Registered with the tags Boot uses for the L1 cache meters, see TwoLevelCacheMeterBinderProvider
+    void bindTo(MeterRegistry registry, String cacheName, Iterable<Tag> tags) {
+        Stats cacheStats = stats(cacheName);
+        Tags level = Tags.of(tags).and("cache", cacheName).and("level", "l2");
+
+        FunctionCounter.builder("cache.gets", cacheStats.hits, LongAdder::sum)
+                .tags(level).tag("result", "hit")
+                .description("The number of times cache lookup methods have returned a cached value.")
+                .register(registry);
+        FunctionCounter.builder("cache.gets", cacheStats.misses, LongAdder::sum)
+                .tags(level).tag("result", "miss")
+                .description("The number of times cache lookup methods have returned an uncached (newly loaded) value, or null")
+                .register(registry);
+        FunctionCounter.builder("cache.puts", cacheStats.puts, LongAdder::sum)
+                .tags(level)
+                .description("The number of entries added to the cache")
+                .register(registry);
+        FunctionCounter.builder("weather.cache.shared.errors", cacheStats.readErrors, LongAdder::sum)
+                .tags(level).tag("operation", "read")
+                .register(registry);
+        FunctionCounter.builder("weather.cache.shared.errors", cacheStats.writeErrors, LongAdder::sum)
+                .tags(level).tag("operation", "write")
+                .register(registry);
+        FunctionCounter.builder("weather.cache.shared.errors", cacheStats.droppedWrites, LongAdder::sum)
+                .tags(level).tag("operation", "dropped")
+                .register(registry);
+        // Store round trips including decoding or encoding; writes run off the request thread
+        cacheStats.getLatency = latency(registry, level, "get");
+        cacheStats.putLatency = latency(registry, level, "put");
+    }
+
+    private static Timer latency(MeterRegistry registry, Tags tags, String operation) {
+        return Timer.builder("weather.cache.shared.latency")
+                .description("Time of a shared cache store operation")
+                .tags(tags).tag("operation", operation)
+                .register(registry);
+    }
+
+    private void submit(String cacheName, SharedWrite write) {
+        Stats cacheStats = stats(cacheName);
+        try {
+            writeExecutor.execute(() -> {
+                try {
+                    write.run();
+                } catch (IOException | RuntimeException e) {
+                    cacheStats.writeErrors.increment();
+                    log.warn("Shared cache write failed for {}: {}", cacheName, e.toString());
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            cacheStats.droppedWrites.increment();
+        }
+    }
+
+    private Duration timeToLive(String cacheName) {
+        Duration ttl = timeToLive.get(cacheName);
+        if (ttl == null) {
+            throw new IllegalArgumentException("No shared cache TTL for cache: " + cacheName);
+        }
+        return ttl;
+    }
+
+    private Stats stats(String cacheName) {
+        return stats.computeIfAbsent(cacheName, name -> new Stats());
+    }
+
+    // Readable and stable across instances: "forecastWeather#59.91,10.75:5"
+    static String id(String cacheName, Object key) {
+        return cacheName + "#" + keyId(key);
+    }
+
+    private static String keyId(Object key) {
+        return switch (key) {
+            case CityKey cityKey -> "city:" + cityKey.query();
+            case CoordinatesKey coordinatesKey -> coordinatesKey.latitude() + "," + coordinatesKey.longitude();
+            case ForecastKey forecastKey -> keyId(forecastKey.location()) + ":" + forecastKey.days();
+            default -> key.toString();
+        };
+    }
+
+    @FunctionalInterface
+    private interface SharedWrite {
+        void run() throws IOException;
+    }
+
+    private static class Stats {
+        final LongAdder hits = new LongAdder();
+        final LongAdder misses = new LongAdder();
+        final LongAdder puts = new LongAdder();
+        final LongAdder readErrors = new LongAdder();
+        final LongAdder writeErrors = new LongAdder();
+        final LongAdder droppedWrites = new LongAdder();
+        // Set once the meters are bound
+        volatile Timer getLatency;
+        volatile Timer putLatency;
+
+        void record(Timer timer, long startNanos) {
+            if (timer != null) {
+                timer.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+            }
+        }
+    }
+}
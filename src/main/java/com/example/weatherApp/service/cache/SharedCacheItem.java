@@ -0,0 +1,28 @@
+package com.example.weatherApp.service.cache;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import software.amazon.awssdk.core.SdkBytes;
+import software.amazon.awssdk.enhanced.dynamodb.mapper.annotations.DynamoDbBean;
+import software.amazon.awssdk.enhanced.dynamodb.mapper.annotations.DynamoDbPartitionKey;
+
+/**
+ * Item of the shared cache table. {@code expiresAt} is in epoch seconds, the format
+ * DynamoDB TTL expects.
+ */
+@DynamoDbBean
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SharedCacheItem {
+
+    private String id;
+    private SdkBytes payload;
+    private Long expiresAt;
+
+    @DynamoDbPartitionKey
+    public String getId() {
+        return id;
+    }
+}
@@ -0,0 +1,17 @@
+package com.example.weatherApp.service.cache;
+
+import java.time.Instant;
+
+/**
+ * Byte storage behind the shared cache level. Entries carry their own expiry; a store
+ * may keep an expired entry for a while but must never return it.
+ */
+public interface SharedCacheStore {
+
+    // Null when absent or expired
+    byte[] get(String id);
+
+    void put(String id, byte[] payload, Instant expiresAt);
+
+    void delete(String id);
+}
@@ -0,0 +1,147 @@
+package com.example.weatherApp.service.cache;
+
+import com.example.weatherApp.service.jfr.CacheOperationEvent;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.cache.caffeine.CaffeineCache;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Caffeine cache whose {@code @Cacheable(sync = true)} misses are loaded once per key, on the
+ * calling thread. The caller that misses puts an incomplete future into the cache and loads
+ * the value; callers arriving meanwhile find that future and wait for it, so there is no gap
+ * between the load and the cache put in which a second upstream call could start. Spring's
+ * {@link CaffeineCache} would run the load on the cache's executor, for the refreshing caches
+ * the small refresh pool.
+ */
+public class SingleFlightCaffeineCache extends CaffeineCache {
+
+    private static final CacheEntryWeigher WEIGHER = new CacheEntryWeigher();
+
+    private final Timer loadTimer;
+    private final LongAdder executed = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    public SingleFlightCaffeineCache(String name, AsyncCache<Object, Object> cache, boolean allowNullValues,
+                                     MeterRegistry meterRegistry) {
+        super(name, cache, allowNullValues);
+        this.loadTimer = Timer.builder("weather.cache.load")
+                .description("Time spent loading a cache miss from upstream")
+                .tag("cache", name)
+                .register(meterRegistry);
+        FunctionCounter.builder("weather.upstream.coalescing", executed, LongAdder::sum)
+                .description("Cache misses loaded from upstream")
+                .tag("cache", name)
+                .tag("result", "executed")
+                .register(meterRegistry);
+        FunctionCounter.builder("weather.upstream.coalescing", coalesced, LongAdder::sum)
+                .description("Cache misses that waited for a load already in flight")
+                .tag("cache", name)
+                .tag("result", "coalesced")
+                .register(meterRegistry);
+        Gauge.builder("weather.upstream.in.flight", inFlight, AtomicInteger::get)
+                .description("Cache misses currently being loaded")
+                .tag("cache", name)
+                .register(meterRegistry);
+    }
+
+    @Override
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        AsyncCache<Object, Object> cache = getAsyncCache();
+        // Counts the hit or miss and triggers a due refresh like any other lookup
+        CompletableFuture<Object> existing = cache.getIfPresent(key);
+        if (existing == null) {
+            CompletableFuture<Object> future = new CompletableFuture<>();
+            existing = cache.asMap().putIfAbsent(key, future);
+            if (existing == null) {
+                return fromLoaded(load(key, valueLoader, future));
+            }
+        }
+        return fromLoaded(existing.isDone() ? join(key, valueLoader, existing) : await(key, valueLoader, existing));
+    }
+
+    public long getExecutedCount() {
+        return executed.sum();
+    }
+
+    public long getCoalescedCount() {
+        return coalesced.sum();
+    }
+
+    private Object load(Object key, Callable<?> valueLoader, CompletableFuture<Object> future) {
+        executed.increment();
+        inFlight.incrementAndGet();
+        CacheOperationEvent event = new CacheOperationEvent();
+        event.begin();
+        long start = System.nanoTime();
+        Object value = null;
+        String outcome = "error";
+        try {
+            value = toStoreValue(valueLoader.call());
+            future.complete(value);
+            outcome = "loaded";
+            return value;
+        } catch (Throwable e) {
+            // Caffeine drops a failed future, the next miss loads again
+            future.completeExceptionally(e);
+            getAsyncCache().asMap().remove(key, future);
+            if (e instanceof Error error) {
+                throw error;
+            }
+            throw new ValueRetrievalException(key, valueLoader, e);
+        } finally {
+            inFlight.decrementAndGet();
+            loadTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            Object loaded = value;
+            event.record(getName(), CacheOperationEvent.LOAD, key, outcome,
+                    () -> loaded != null ? WEIGHER.weigh(key, loaded) : -1);
+        }
+    }
+
+    private Object await(Object key, Callable<?> valueLoader, CompletableFuture<Object> future) {
+        coalesced.increment();
+        CacheOperationEvent event = new CacheOperationEvent();
+        event.begin();
+        Object value = null;
+        String outcome = "error";
+        try {
+            value = join(key, valueLoader, future);
+            outcome = "coalesced";
+            return value;
+        } finally {
+            Object loaded = value;
+            event.record(getName(), CacheOperationEvent.LOAD, key, outcome,
+                    () -> loaded != null ? WEIGHER.weigh(key, loaded) : -1);
+        }
+    }
+
+    // Waiters rethrow the loader's exception, Spring unwraps it for the caller
+    private static Object join(Object key, Callable<?> valueLoader, CompletableFuture<Object> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ValueRetrievalException(key, valueLoader, e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw new ValueRetrievalException(key, valueLoader, e.getCause());
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T fromLoaded(Object storeValue) {
+        return (T) fromStoreValue(storeValue);
+    }
+}
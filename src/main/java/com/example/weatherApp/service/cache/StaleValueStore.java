@@ -0,0 +1,38 @@
+package com.example.weatherApp.service.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.time.Duration;
+
+/**
+ * Last value fetched from upstream per cache key, kept well beyond the cache TTLs. Only
+ * read when no upstream call can be made, a stale answer then beats an error. The values
+ * are mostly the same instances the caches hold, so this costs little extra heap.
+ */
+public class StaleValueStore {
+
+    private final Cache<StaleKey, Object> values;
+    private final CacheEntryWeigher weigher = new CacheEntryWeigher();
+
+    public StaleValueStore(long maximumWeight, Duration retention) {
+        this.values = Caffeine.newBuilder()
+                .maximumWeight(maximumWeight)
+                .<StaleKey, Object>weigher((key, value) -> weigher.weigh(key.key(), value))
+                .expireAfterWrite(retention)
+                .build();
+    }
+
+    public void put(String cacheName, Object key, Object value) {
+        if (value != null) {
+            values.put(new StaleKey(cacheName, key), value);
+        }
+    }
+
+    public Object get(String cacheName, Object key) {
+        return values.getIfPresent(new StaleKey(cacheName, key));
+    }
+
+    private record StaleKey(String cacheName, Object key) {
+    }
+}
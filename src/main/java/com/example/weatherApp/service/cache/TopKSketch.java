@@ -0,0 +1,77 @@
+package com.example.weatherApp.service.cache;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Approximate heavy hitters in bounded memory (the Space-Saving algorithm). At most
+ * {@code capacity} keys are counted; a new key replaces the one with the lowest count and
+ * inherits that count, so a key's count overestimates its frequency by at most the count
+ * it inherited. Any key seen more than total / capacity times is guaranteed to be tracked.
+ *
+ * <p>Replacing a key scans the counters, so keep the capacity in the hundreds or low thousands.
+ */
+public class TopKSketch<K> {
+
+    private final int capacity;
+    private final Map<K, long[]> counts;
+
+    public TopKSketch(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Capacity must be positive: " + capacity);
+        }
+        this.capacity = capacity;
+        this.counts = new HashMap<>(capacity * 2);
+    }
+
+    public synchronized void offer(K key) {
+        long[] count = counts.get(key);
+        if (count != null) {
+            count[0]++;
+            return;
+        }
+        if (counts.size() < capacity) {
+            counts.put(key, new long[]{1});
+            return;
+        }
+
+        Map.Entry<K, long[]> min = null;
+        for (Map.Entry<K, long[]> entry : counts.entrySet()) {
+            if (min == null || entry.getValue()[0] < min.getValue()[0]) {
+                min = entry;
+            }
+        }
+        long inherited = min.getValue()[0];
+        counts.remove(min.getKey());
+        counts.put(key, new long[]{inherited + 1});
+    }
+
+    // The n keys with the highest counts, highest first
+    public synchronized List<K> top(int n) {
+        List<Map.Entry<K, long[]>> entries = new ArrayList<>(counts.entrySet());
+        entries.sort(Comparator.comparingLong((Map.Entry<K, long[]> entry) -> entry.getValue()[0]).reversed());
+        List<K> top = new ArrayList<>(Math.min(n, entries.size()));
+        for (int i = 0; i < n && i < entries.size(); i++) {
+            top.add(entries.get(i).getKey());
+        }
+        return top;
+    }
+
+    public synchronized long count(K key) {
+        long[] count = counts.get(key);
+        return count != null ? count[0] : 0;
+    }
+
+    // Halves every count and drops keys that reach zero, so past traffic fades out
+    public synchronized void decay() {
+        counts.values().forEach(count -> count[0] /= 2);
+        counts.values().removeIf(count -> count[0] == 0);
+    }
+
+    public synchronized int size() {
+        return counts.size();
+    }
+}
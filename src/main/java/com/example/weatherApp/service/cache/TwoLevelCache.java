@@ -0,0 +1,135 @@
+package com.example.weatherApp.service.cache;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.support.SimpleValueWrapper;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+/**
+ * A node-local cache (L1) in front of the {@link SharedCache} (L2). L1 misses read through
+ * to L2 and keep what they find; values put into L1 are written to L2 asynchronously.
+ * {@link #getNativeCache()} is the L1 Caffeine cache, so quiet peeks only see this node.
+ */
+public class TwoLevelCache implements Cache {
+
+    private final Cache local;
+    private final SharedCache shared;
+
+    public TwoLevelCache(Cache local, SharedCache shared) {
+        this.local = local;
+        this.shared = shared;
+    }
+
+    SharedCache getShared() {
+        return shared;
+    }
+
+    @Override
+    public String getName() {
+        return local.getName();
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return local.getNativeCache();
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        ValueWrapper cached = local.get(key);
+        if (cached != null) {
+            return cached;
+        }
+        Object value = shared.get(getName(), key);
+        if (value == null) {
+            return null;
+        }
+        local.put(key, value);
+        return new SimpleValueWrapper(value);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Class<T> type) {
+        ValueWrapper cached = get(key);
+        Object value = cached != null ? cached.get() : null;
+        if (value != null && type != null && !type.isInstance(value)) {
+            throw new IllegalStateException("Cached value is not of required type [" + type.getName() + "]: " + value);
+        }
+        return (T) value;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        return local.get(key, () -> {
+            Object value = shared.get(getName(), key);
+            if (value != null) {
+                return (T) value;
+            }
+            T loaded = valueLoader.call();
+            shared.put(getName(), key, loaded);
+            return loaded;
+        });
+    }
+
+    // Only used by non-sync reactive @Cacheable methods, the clients here all use sync = true
+    @Override
+    public CompletableFuture<?> retrieve(Object key) {
+        return local.retrieve(key);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> CompletableFuture<T> retrieve(Object key, Supplier<CompletableFuture<T>> valueLoader) {
+        return local.retrieve(key, () -> shared.getAsync(getName(), key).thenCompose(value -> {
+            if (value != null) {
+                return CompletableFuture.completedFuture((T) value);
+            }
+            return valueLoader.get().thenApply(loaded -> {
+                shared.put(getName(), key, loaded);
+                return loaded;
+            });
+        }));
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        local.put(key, value);
+        shared.put(getName(), key, value);
+    }
+
+    @Override
+    public ValueWrapper putIfAbsent(Object key, Object value) {
+        ValueWrapper existing = local.putIfAbsent(key, value);
+        if (existing == null) {
+            shared.put(getName(), key, value);
+        }
+        return existing;
+    }
+
+    @Override
+    public void evict(Object key) {
+        local.evict(key);
+        shared.evict(getName(), key);
+    }
+
+    @Override
+    public boolean evictIfPresent(Object key) {
+        shared.evict(getName(), key);
+        return local.evictIfPresent(key);
+    }
+
+    // Clears this node only, shared entries run out on their TTL
+    @Override
+    public void clear() {
+        local.clear();
+    }
+
+    @Override
+    public boolean invalidate() {
+        return local.invalidate();
+    }
+}
@@ -0,0 +1,41 @@
+package com.example.weatherApp.service.cache;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+
+import java.util.Collection;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Puts the {@link SharedCache} behind every cache of the node-local cache manager.
+ */
+public class TwoLevelCacheManager implements CacheManager {
+
+    private final CacheManager localCacheManager;
+    private final SharedCache sharedCache;
+    private final ConcurrentMap<String, TwoLevelCache> caches = new ConcurrentHashMap<>();
+
+    public TwoLevelCacheManager(CacheManager localCacheManager, SharedCache sharedCache) {
+        this.localCacheManager = localCacheManager;
+        this.sharedCache = sharedCache;
+    }
+
+    @Override
+    public Cache getCache(String name) {
+        TwoLevelCache cache = caches.get(name);
+        if (cache != null) {
+            return cache;
+        }
+        Cache local = localCacheManager.getCache(name);
+        if (local == null) {
+            return null;
+        }
+        return caches.computeIfAbsent(name, key -> new TwoLevelCache(local, sharedCache));
+    }
+
+    @Override
+    public Collection<String> getCacheNames() {
+        return localCacheManager.getCacheNames();
+    }
+}
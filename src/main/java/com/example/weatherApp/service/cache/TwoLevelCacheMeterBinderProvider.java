@@ -0,0 +1,24 @@
+package com.example.weatherApp.service.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.boot.actuate.metrics.cache.CacheMeterBinderProvider;
+
+/**
+ * Cache metrics per level: the Caffeine metrics of L1 and the {@link SharedCache}
+ * counters of L2 under the same meter names, told apart by a {@code level} tag.
+ */
+public class TwoLevelCacheMeterBinderProvider implements CacheMeterBinderProvider<TwoLevelCache> {
+
+    @Override
+    public MeterBinder getMeterBinder(TwoLevelCache cache, Iterable<Tag> tags) {
+        return registry -> {
+            new CaffeineCacheMetrics<>((Cache<?, ?>) cache.getNativeCache(), cache.getName(),
+                    Tags.of(tags).and("level", "l1")).bindTo(registry);
+            cache.getShared().bindTo(registry, cache.getName(), tags);
+        };
+    }
+}
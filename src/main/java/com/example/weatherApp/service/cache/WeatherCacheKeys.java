@@ -0,0 +1,52 @@
+package com.example.weatherApp.service.cache;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.text.Normalizer;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Builds the keys used by the weather caches. Referenced from {@code @Cacheable} key
+ * expressions as {@code @cacheKeys}, so every key carries enough information for a
+ * background refresh to repeat the upstream call. Coordinates are snapped by the
+ * configured {@link CoordinateKeyStrategy}.
+ */
+@Component("cacheKeys")
+@RequiredArgsConstructor
+public class WeatherCacheKeys {
+
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    // "Oslo, NO" or "oslo,no": a trailing two-letter ISO country code
+    private static final Pattern COUNTRY_SUFFIX = Pattern.compile("^(.*?)\\s*,\\s*(\\p{Alpha}{2})$");
+    // Other two-letter suffixes, e.g. the state in "Portland, OR", stay part of the name
+    private static final Set<String> ISO_COUNTRIES = Set.of(Locale.getISOCountries());
+
+    private final CoordinateKeyStrategy coordinateKeyStrategy;
+
+    // "Oslo", "oslo " and "OSLO" are one key: NFKC, trimmed, whitespace collapsed and case
+    // folded (upper then lower case, which also folds e.g. ß to ss)
+    public CityKey city(String city) {
+        String value = WHITESPACE.matcher(Normalizer.normalize(city, Normalizer.Form.NFKC).strip()).replaceAll(" ");
+        String countryCode = null;
+
+        Matcher suffix = COUNTRY_SUFFIX.matcher(value);
+        if (suffix.matches() && !suffix.group(1).isEmpty()
+                && ISO_COUNTRIES.contains(suffix.group(2).toUpperCase(Locale.ROOT))) {
+            value = suffix.group(1);
+            countryCode = suffix.group(2).toUpperCase(Locale.ROOT);
+        }
+        return new CityKey(value.toUpperCase(Locale.ROOT).toLowerCase(Locale.ROOT), countryCode);
+    }
+
+    public CoordinatesKey coordinates(Double latitude, Double longitude) {
+        return coordinateKeyStrategy.key(latitude, longitude);
+    }
+
+    public ForecastKey forecast(Double latitude, Double longitude, int days) {
+        return new ForecastKey(coordinates(latitude, longitude), days);
+    }
+}
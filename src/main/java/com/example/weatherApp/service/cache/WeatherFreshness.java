@@ -0,0 +1,69 @@
+package com.example.weatherApp.service.cache;
+
+import com.example.weatherApp.config.CacheProperties;
+import com.example.weatherApp.model.Coordinates;
+import com.example.weatherApp.model.WeatherData;
+import com.example.weatherApp.model.WeatherSearchRequest;
+import com.github.benmanes.caffeine.cache.Cache;
+import lombok.RequiredArgsConstructor;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * How long a weather response stays what the caches would answer: the time until the
+ * first of its current weather and forecast entries is refreshed (soft TTL) or expires
+ * (hard TTL). Used as the {@code max-age} of the HTTP responses.
+ */
+@Component
+@RequiredArgsConstructor
+public class WeatherFreshness {
+
+    private static final String CURRENT_WEATHER = "currentWeather";
+    private static final String FORECAST_WEATHER = "forecastWeather";
+
+    private final CacheManager cacheManager;
+    private final WeatherCacheKeys cacheKeys;
+    private final CacheProperties cacheProperties;
+
+    // Null when an entry behind the response is not cached (any more), e.g. a stale fallback
+    public Duration remaining(WeatherSearchRequest request, WeatherData weatherData) {
+        Coordinates coordinates = weatherData.getCoordinates();
+        if (coordinates == null || coordinates.getLatitude() == null || coordinates.getLongitude() == null) {
+            return null;
+        }
+        int days = Optional.ofNullable(request.getDays()).orElse(5);
+        Duration forecast = remaining(FORECAST_WEATHER,
+                cacheKeys.forecast(coordinates.getLatitude(), coordinates.getLongitude(), days));
+        // Cities not known to the coordinates index are cached by name
+        Duration current = remaining(CURRENT_WEATHER,
+                cacheKeys.coordinates(coordinates.getLatitude(), coordinates.getLongitude()));
+        if (current == null && request.getCity() != null && !request.getCity().isEmpty()) {
+            current = remaining(CURRENT_WEATHER, cacheKeys.city(request.getCity()));
+        }
+        if (forecast == null || current == null) {
+            return null;
+        }
+        return current.compareTo(forecast) <= 0 ? current : forecast;
+    }
+
+    private Duration remaining(String cacheName, Object key) {
+        org.springframework.cache.Cache cache = cacheManager.getCache(cacheName);
+        if (cache == null || !(cache.getNativeCache() instanceof Cache<?, ?> caffeine)) {
+            return null;
+        }
+        @SuppressWarnings("unchecked")
+        Optional<Duration> expiresAfter = ((Cache<Object, Object>) caffeine).policy().expireVariably()
+                .flatMap(policy -> policy.getExpiresAfter(key));
+        if (expiresAfter.isEmpty()) {
+            return null;
+        }
+        // Entries are written with the hard TTL and reloaded once the soft TTL has passed
+        CacheProperties.CacheSpec spec = cacheProperties.getSpec(cacheName);
+        Duration untilRefresh = spec.getSoftTtl() == null ? expiresAfter.get()
+                : expiresAfter.get().minus(spec.getHardTtl().minus(spec.getSoftTtl()));
+        return untilRefresh.isNegative() ? Duration.ZERO : untilRefresh;
+    }
+}
@@ -0,0 +1,58 @@
+package com.example.weatherApp.service.cache;
+
+import com.example.weatherApp.model.WeatherData;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.stereotype.Component;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+
+/**
+ * Versions of the weather responses, used as their HTTP validators and to tell whether a
+ * rendered page is outdated. A version is a SHA-256 digest of the response, truncated to 128
+ * bits, so distinct responses do not share one by chance.
+ *
+ * <p>The forecast list, the bulk of a response, is digested once per cache entry: the list is
+ * the forecast cache's value, looked up by identity and replaced on refresh. Per request only
+ * the current weather and the caller's location are digested.
+ */
+@Component
+public class WeatherVersions {
+
+    private static final String FORECAST_WEATHER = "forecastWeather";
+    private static final String CURRENT_WEATHER = "currentWeather";
+    private static final byte NO_FORECASTS = 0;
+    private static final byte FORECASTS = 1;
+
+    // Deterministic, equal values encode to equal bytes
+    private final BinaryCacheValueCodec codec = new BinaryCacheValueCodec();
+    // Weakly held, a digest is dropped with the cache entry it was computed from
+    private final Cache<List<?>, byte[]> forecastDigests = Caffeine.newBuilder()
+            .weakKeys()
+            .build();
+
+    public String version(WeatherData weatherData) {
+        MessageDigest digest = sha256();
+        List<?> forecasts = weatherData.getDailyForecasts();
+        digest.update(codec.encode(CURRENT_WEATHER, weatherData.toBuilder().dailyForecasts(null).build()));
+        if (forecasts == null) {
+            digest.update(NO_FORECASTS);
+        } else {
+            digest.update(FORECASTS);
+            digest.update(forecastDigests.get(forecasts, list -> sha256().digest(codec.encode(FORECAST_WEATHER, list))));
+        }
+        return HexFormat.of().formatHex(digest.digest(), 0, 16);
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            // Every Java platform provides SHA-256
+            throw new IllegalStateException(e);
+        }
+    }
+}
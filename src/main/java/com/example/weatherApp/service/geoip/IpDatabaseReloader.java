@@ -0,0 +1,87 @@
+package com.example.weatherApp.service.geoip;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.SmartLifecycle;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Loads the IP range database into the {@link LocalIpLocationResolver} on startup and
+ * again whenever the file's modification time changes. The new index is built on the
+ * reload thread and swapped in whole; a file that fails to load, or has no ranges, keeps the
+ * previous index.
+ */
+@Slf4j
+public class IpDatabaseReloader implements SmartLifecycle {
+
+    private final LocalIpLocationResolver resolver;
+    private final Path path;
+    private final Duration checkInterval;
+    private final ThreadFactory threadFactory;
+    private FileTime loadedModified;
+    private ScheduledExecutorService executor;
+
+    public IpDatabaseReloader(LocalIpLocationResolver resolver, Path path, Duration checkInterval,
+                              ThreadFactory threadFactory) {
+        this.resolver = resolver;
+        this.path = path;
+        this.checkInterval = checkInterval;
+        this.threadFactory = threadFactory;
+    }
+
+    // True when a changed file was loaded
+    public synchronized boolean reloadIfChanged() {
+        try {
+            FileTime modified = Files.getLastModifiedTime(path);
+            if (modified.equals(loadedModified)) {
+                return false;
+            }
+            long started = System.nanoTime();
+            IpRangeIndex index;
+            try (Reader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+                index = IpRangeIndex.parse(reader);
+            }
+            if (index.ranges() == 0) {
+                throw new IOException("no IP ranges in the file");
+            }
+            resolver.update(index);
+            loadedModified = modified;
+            log.info("Loaded IP database {}: {} ranges, {} locations in {} ms", path, index.ranges(),
+                    index.locations(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+            return true;
+        } catch (IOException | RuntimeException e) {
+            log.warn("Could not load IP database {}, keeping the previous one: {}", path, e.toString());
+            return false;
+        }
+    }
+
+    // The first load runs before requests are served, later ones in the background
+    @Override
+    public void start() {
+        reloadIfChanged();
+        executor = Executors.newSingleThreadScheduledExecutor(threadFactory);
+        executor.scheduleWithFixedDelay(this::reloadIfChanged, checkInterval.toMillis(), checkInterval.toMillis(),
+                TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void stop() {
+        executor.shutdownNow();
+        executor = null;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return executor != null;
+    }
+}
@@ -0,0 +1,234 @@
+package com.example.weatherApp.service.geoip;
+
+import com.example.weatherApp.model.LocationData;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable IPv4 range to location index. Ranges are kept as sorted primitive arrays of
+ * their first and last address and a location id, looked up with a binary search; the
+ * distinct locations are kept once each. Addresses are stored with the sign bit flipped so
+ * signed int order is unsigned address order.
+ *
+ * <p>The database is a CSV file with the columns {@code start_ip,end_ip,country_code,
+ * country,city,latitude,longitude}, addresses dotted or as integers (the IP2Location LITE
+ * layout). Fields may be quoted, a header line is skipped, ranges must not overlap.
+ */
+public final class IpRangeIndex {
+
+    public static final IpRangeIndex EMPTY = new IpRangeIndex(new int[0], new int[0], new int[0],
+            new String[0], new String[0], new String[0], new double[0], new double[0]);
+
+    private final int[] starts;
+    private final int[] ends;
+    private final int[] locationIds;
+    private final String[] countryCodes;
+    private final String[] countries;
+    private final String[] cities;
+    private final double[] latitudes;
+    private final double[] longitudes;
+
+    private IpRangeIndex(int[] starts, int[] ends, int[] locationIds, String[] countryCodes, String[] countries,
+                         String[] cities, double[] latitudes, double[] longitudes) {
+        this.starts = starts;
+        this.ends = ends;
+        this.locationIds = locationIds;
+        this.countryCodes = countryCodes;
+        this.countries = countries;
+        this.cities = cities;
+        this.latitudes = latitudes;
+        this.longitudes = longitudes;
+    }
+
+    // Null when the address is not IPv4 or in no range
+    public LocationData lookup(String ipAddress) {
+        long address = parseIpv4(ipAddress);
+        if (address < 0) {
+            return null;
+        }
+        int key = (int) address ^ Integer.MIN_VALUE;
+        int found = Arrays.binarySearch(starts, key);
+        // Otherwise the range starting below the address, if any
+        int index = found >= 0 ? found : -found - 2;
+        if (index < 0 || key > ends[index]) {
+            return null;
+        }
+        int location = locationIds[index];
+        return LocationData.builder()
+                .city(cities[location])
+                .country(countries[location])
+                .countryCode(countryCodes[location])
+                .latitude(latitudes[location])
+                .longitude(longitudes[location])
+                .ipAddress(ipAddress)
+                .build();
+    }
+
+    public int ranges() {
+        return starts.length;
+    }
+
+    public int locations() {
+        return cities.length;
+    }
+
+    public static IpRangeIndex parse(Reader csv) throws IOException {
+        BufferedReader reader = new BufferedReader(csv);
+        int[] starts = new int[1024];
+        int[] ends = new int[1024];
+        int[] locationIds = new int[1024];
+        int size = 0;
+        Map<Location, Integer> ids = new HashMap<>();
+        List<Location> locations = new ArrayList<>();
+
+        String line;
+        int lineNumber = 0;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank() || (lineNumber == 1 && !Character.isDigit(unquote(line).charAt(0)))) {
+                continue;
+            }
+            String[] fields = split(line);
+            if (fields.length < 7) {
+                throw new IOException("Expected 7 columns on line " + lineNumber + ": " + line);
+            }
+            long start = parseAddress(fields[0]);
+            long end = parseAddress(fields[1]);
+            if (start < 0 || end < start) {
+                throw new IOException("Invalid range on line " + lineNumber + ": " + line);
+            }
+            Location location = new Location(fields[2], fields[3], fields[4],
+                    Double.parseDouble(fields[5]), Double.parseDouble(fields[6]));
+            Integer id = ids.get(location);
+            if (id == null) {
+                id = locations.size();
+                ids.put(location, id);
+                locations.add(location);
+            }
+            if (size == starts.length) {
+                starts = Arrays.copyOf(starts, size * 2);
+                ends = Arrays.copyOf(ends, size * 2);
+                locationIds = Arrays.copyOf(locationIds, size * 2);
+            }
+            starts[size] = (int) start ^ Integer.MIN_VALUE;
+            ends[size] = (int) end ^ Integer.MIN_VALUE;
+            locationIds[size] = id;
+            size++;
+        }
+        return build(starts, ends, locationIds, size, locations);
+    }
+
+    private static IpRangeIndex build(int[] starts, int[] ends, int[] locationIds, int size,
+                                      List<Location> locations) {
+        // Sorted by start as primitives: the start in the high half, the row in the low half
+        long[] order = new long[size];
+        for (int row = 0; row < size; row++) {
+            order[row] = (long) starts[row] << 32 | row;
+        }
+        Arrays.sort(order);
+        int[] sortedStarts = new int[size];
+        int[] sortedEnds = new int[size];
+        int[] sortedLocationIds = new int[size];
+        for (int i = 0; i < size; i++) {
+            int row = (int) order[i];
+            sortedStarts[i] = starts[row];
+            sortedEnds[i] = ends[row];
+            sortedLocationIds[i] = locationIds[row];
+        }
+
+        int distinct = locations.size();
+        String[] countryCodes = new String[distinct];
+        String[] countries = new String[distinct];
+        String[] cities = new String[distinct];
+        double[] latitudes = new double[distinct];
+        double[] longitudes = new double[distinct];
+        for (int i = 0; i < distinct; i++) {
+            Location location = locations.get(i);
+            countryCodes[i] = location.countryCode();
+            countries[i] = location.country();
+            cities[i] = location.city();
+            latitudes[i] = location.latitude();
+            longitudes[i] = location.longitude();
+        }
+        return new IpRangeIndex(sortedStarts, sortedEnds, sortedLocationIds, countryCodes, countries, cities,
+                latitudes, longitudes);
+    }
+
+    // Dotted IPv4 address or its integer value, -1 when it is neither
+    private static long parseAddress(String field) {
+        if (field.indexOf('.') >= 0) {
+            return parseIpv4(field);
+        }
+        try {
+            long value = Long.parseLong(field);
+            return value >= 0 && value <= 0xFFFFFFFFL ? value : -1;
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    // Parsed by hand: InetAddress would resolve anything that is not a literal address
+    static long parseIpv4(String address) {
+        if (address == null) {
+            return -1;
+        }
+        long value = 0;
+        int octet = -1;
+        int dots = 0;
+        for (int i = 0; i < address.length(); i++) {
+            char c = address.charAt(i);
+            if (c >= '0' && c <= '9') {
+                octet = (octet < 0 ? 0 : octet * 10) + (c - '0');
+                if (octet > 255) {
+                    return -1;
+                }
+            } else if (c == '.' && octet >= 0 && dots < 3) {
+                value = value << 8 | octet;
+                octet = -1;
+                dots++;
+            } else {
+                return -1;
+            }
+        }
+        return dots == 3 && octet >= 0 ? value << 8 | octet : -1;
+    }
+
+    private static String[] split(String line) {
+        List<String> fields = new ArrayList<>(8);
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (c == '"') {
+                if (quoted && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else {
+                    quoted = !quoted;
+                }
+            } else if (c == ',' && !quoted) {
+                fields.add(field.toString().trim());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString().trim());
+        return fields.toArray(String[]::new);
+    }
+
+    private static String unquote(String line) {
+        String trimmed = line.strip();
+        return trimmed.startsWith("\"") ? trimmed.substring(1) : trimmed;
+    }
+
+    private record Location(String countryCode, String country, String city, double latitude, double longitude) {
+    }
+}
@@ -0,0 +1,47 @@
+package com.example.weatherApp.service.geoip;
+
+import com.example.weatherApp.model.LocationData;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+/**
+ * Resolves client IPs against the local IP range database, so most lookups never reach
+ * ipgeolocation.io. The services ask it first and call the remote API only on a miss.
+ * Holds an empty index, and so misses every lookup, until {@link IpDatabaseReloader} has
+ * loaded a database.
+ */
+@Component
+public class LocalIpLocationResolver {
+
+    private final Counter hits;
+    private final Counter misses;
+    private volatile IpRangeIndex index = IpRangeIndex.EMPTY;
+
+    public LocalIpLocationResolver(MeterRegistry meterRegistry) {
+        this.hits = lookups(meterRegistry, "hit");
+        this.misses = lookups(meterRegistry, "miss");
+        Gauge.builder("weather.geoip.ranges", this, resolver -> resolver.index.ranges())
+                .description("IP ranges in the local geolocation database")
+                .register(meterRegistry);
+    }
+
+    // Null when the database has no range for the address
+    public LocationData resolve(String ipAddress) {
+        LocationData location = index.lookup(ipAddress);
+        (location != null ? hits : misses).increment();
+        return location;
+    }
+
+    public void update(IpRangeIndex index) {
+        this.index = index;
+    }
+
+    private static Counter lookups(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("weather.geoip.lookups")
+                .description("Client IP lookups in the local geolocation database")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.weatherApp.service.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+import java.util.function.LongSupplier;
+
+/**
+ * A cache operation that can be slow: loading a miss, a background refresh, or a read or
+ * write of the shared cache level. Local cache hits are not recorded.
+ */
+@Name("com.example.weatherApp.CacheOperation")
+@Label("Cache Operation")
+@Category({"Weather App", "Cache"})
+@Description("Cache miss load, background refresh or shared cache read or write")
+@StackTrace(false)
+public class CacheOperationEvent extends Event {
+
+    public static final String LOAD = "load";
+    public static final String REFRESH = "refresh";
+    public static final String SHARED_GET = "shared-get";
+    public static final String SHARED_PUT = "shared-put";
+
+    @Label("Cache")
+    private String cache;
+
+    @Label("Operation")
+    private String operation;
+
+    @Label("Key")
+    private String key;
+
+    @Label("Bytes")
+    @Description("Serialized size for the shared level, estimated heap size of the entry otherwise; -1 when unknown")
+    @DataAmount
+    private long bytes = -1;
+
+    @Label("Outcome")
+    @Description("loaded, coalesced, hit, miss, stored or error")
+    private String outcome;
+
+    // The key and size are only computed when the event is recorded
+    public void record(String cache, String operation, Object key, String outcome, LongSupplier bytes) {
+        end();
+        if (shouldCommit()) {
+            this.cache = cache;
+            this.operation = operation;
+            this.key = String.valueOf(key);
+            this.outcome = outcome;
+            this.bytes = bytes.getAsLong();
+            commit();
+        }
+    }
+}
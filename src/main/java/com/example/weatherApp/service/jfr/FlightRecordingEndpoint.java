@@ -0,0 +1,145 @@
+package com.example.weatherApp.service.jfr;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.Event;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.boot.actuate.endpoint.web.WebEndpointResponse;
+import org.springframework.boot.actuate.endpoint.web.annotation.WebEndpoint;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.lang.Nullable;
+import org.springframework.util.unit.DataSize;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * {@code /actuator/flightrecording}: starts a JFR recording on demand (POST), downloads it
+ * while it runs or after it was stopped (GET) and stops it (DELETE). The app's events are
+ * always enabled in the recording, on top of the JDK settings it is started with; the JDK
+ * events carrying environment variables, system properties and JVM arguments are not
+ * recorded. While no recording runs the events cost an allocation and an enabled check per
+ * operation. Not exposed over HTTP by default.
+ */
+@WebEndpoint(id = "flightrecording")
+@Slf4j
+public class FlightRecordingEndpoint {
+
+    static final List<Class<? extends Event>> EVENTS = List.of(UpstreamCallEvent.class, ResponseParseEvent.class,
+            CacheOperationEvent.class);
+
+    private static final String DEFAULT_SETTINGS = "default";
+    private static final Duration DEFAULT_MAX_AGE = Duration.ofMinutes(30);
+    private static final DataSize DEFAULT_MAX_SIZE = DataSize.ofMegabytes(64);
+    // Would put the API keys from the environment and the command line into the download
+    static final List<String> SECRET_EVENTS = List.of("jdk.InitialEnvironmentVariable", "jdk.InitialSystemProperty",
+            "jdk.JVMInformation");
+
+    private Recording recording;
+
+    // settings is a JDK configuration name, "default" (low overhead) or "profile"
+    @WriteOperation
+    public synchronized WebEndpointResponse<RecordingStatus> start(@Nullable String settings,
+                                                                   @Nullable Duration maxAge,
+                                                                   @Nullable DataSize maxSize) {
+        if (recording != null && recording.getState() == RecordingState.RUNNING) {
+            return new WebEndpointResponse<>(RecordingStatus.of(recording), WebEndpointResponse.STATUS_OK);
+        }
+        Configuration configuration;
+        try {
+            configuration = Configuration.getConfiguration(settings != null ? settings : DEFAULT_SETTINGS);
+        } catch (IOException | ParseException e) {
+            return new WebEndpointResponse<>(WebEndpointResponse.STATUS_BAD_REQUEST);
+        }
+        close();
+        Recording started = new Recording(configuration);
+        started.setName("weatherApp");
+        started.setToDisk(true);
+        started.setMaxAge(maxAge != null ? maxAge : DEFAULT_MAX_AGE);
+        started.setMaxSize((maxSize != null ? maxSize : DEFAULT_MAX_SIZE).toBytes());
+        EVENTS.forEach(event -> started.enable(event).withoutThreshold());
+        SECRET_EVENTS.forEach(started::disable);
+        started.start();
+        recording = started;
+        log.info("Started flight recording {} with {} settings", started.getId(), configuration.getName());
+        return new WebEndpointResponse<>(RecordingStatus.of(started), WebEndpointResponse.STATUS_OK);
+    }
+
+    // The recording is dumped to a temporary file that is deleted once the response was written
+    @ReadOperation(produces = "application/octet-stream")
+    public synchronized WebEndpointResponse<Resource> dump() throws IOException {
+        if (recording == null) {
+            return new WebEndpointResponse<>(WebEndpointResponse.STATUS_NOT_FOUND);
+        }
+        Path file = Files.createTempFile("weatherApp-", ".jfr");
+        try {
+            recording.dump(file);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(file);
+            throw e;
+        }
+        return new WebEndpointResponse<>(new TemporaryFileResource(file), WebEndpointResponse.STATUS_OK);
+    }
+
+    // The stopped recording can still be downloaded until the next one is started
+    @DeleteOperation
+    public synchronized WebEndpointResponse<RecordingStatus> stop() {
+        if (recording == null) {
+            return new WebEndpointResponse<>(WebEndpointResponse.STATUS_NOT_FOUND);
+        }
+        if (recording.getState() == RecordingState.RUNNING) {
+            recording.stop();
+            log.info("Stopped flight recording {}", recording.getId());
+        }
+        return new WebEndpointResponse<>(RecordingStatus.of(recording), WebEndpointResponse.STATUS_OK);
+    }
+
+    public synchronized void close() {
+        if (recording != null) {
+            recording.close();
+            recording = null;
+        }
+    }
+
+    public record RecordingStatus(long id, RecordingState state, Instant startTime, Instant stopTime,
+                                  Duration maxAge, long maxSize, long size) {
+
+        static RecordingStatus of(Recording recording) {
+            return new RecordingStatus(recording.getId(), recording.getState(), recording.getStartTime(),
+                    recording.getStopTime(), recording.getMaxAge(), recording.getMaxSize(), recording.getSize());
+        }
+    }
+
+    private static final class TemporaryFileResource extends FileSystemResource {
+
+        TemporaryFileResource(Path file) {
+            super(file);
+        }
+
+        @Override
+        public InputStream getInputStream() throws IOException {
+            return new FilterInputStream(super.getInputStream()) {
+                @Override
+                public void close() throws IOException {
+                    try {
+                        super.close();
+                    } finally {
+                        Files.deleteIfExists(getFile().toPath());
+                    }
+                }
+            };
+        }
+    }
+}
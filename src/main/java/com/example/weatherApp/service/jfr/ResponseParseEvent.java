@@ -0,0 +1,41 @@
+package com.example.weatherApp.service.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import lombok.Setter;
+
+/**
+ * Parsing of an upstream response body. Runs within its {@link UpstreamCallEvent} on the
+ * same thread; streamed bodies are read while they are parsed.
+ */
+@Name("com.example.weatherApp.ResponseParse")
+@Label("Upstream Response Parse")
+@Category({"Weather App", "Upstream"})
+@Description("Parsing of an upstream response body")
+@StackTrace(false)
+@Setter
+public class ResponseParseEvent extends Event {
+
+    @Label("Dependency")
+    private String dependency;
+
+    @Label("Response")
+    private String response;
+
+    @Label("Outcome")
+    private String outcome;
+
+    public void record(String dependency, String response, boolean failed) {
+        end();
+        if (shouldCommit()) {
+            this.dependency = dependency;
+            this.response = response;
+            this.outcome = failed ? "error" : "success";
+            commit();
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.example.weatherApp.service.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import lombok.Setter;
+
+/**
+ * One HTTP call to an upstream API, from sending the request to the parsed response.
+ * The key is the cache key the call was made for.
+ */
+@Name("com.example.weatherApp.UpstreamCall")
+@Label("Upstream Call")
+@Category({"Weather App", "Upstream"})
+@Description("HTTP call to an upstream API, including reading and parsing the response")
+@StackTrace(false)
+@Setter
+public class UpstreamCallEvent extends Event {
+
+    @Label("Dependency")
+    private String dependency;
+
+    @Label("Operation")
+    private String operation;
+
+    @Label("Key")
+    private String key;
+
+    @Label("Status")
+    @Description("HTTP status, 0 when no response was received")
+    private int status;
+
+    @Label("Bytes")
+    @Description("Response body size, -1 when it was not read")
+    @DataAmount
+    private long bytes = -1;
+
+    @Label("Outcome")
+    @Description("success, error for an HTTP error status, or the exception otherwise")
+    private String outcome;
+
+    // The key is only formatted when the event is recorded
+    public void record(String dependency, String operation, Object key) {
+        end();
+        if (shouldCommit()) {
+            this.dependency = dependency;
+            this.operation = operation;
+            this.key = String.valueOf(key);
+            commit();
+        }
+    }
+}
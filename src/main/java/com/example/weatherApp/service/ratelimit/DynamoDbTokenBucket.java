@@ -0,0 +1,96 @@
+package com.example.weatherApp.service.ratelimit;
+
+import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import software.amazon.awssdk.services.dynamodb.model.ConditionalCheckFailedException;
+import software.amazon.awssdk.services.dynamodb.model.GetItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.PutItemRequest;
+
+import java.time.Clock;
+import java.util.Map;
+
+/**
+ * Token bucket shared by all instances, stored as one DynamoDB item (id, tokens,
+ * updatedAt, version). Takes are read-refill-write cycles guarded by a condition on the
+ * version, retried a few times under contention. Every take is a round trip, so callers
+ * lease several tokens at once (see {@link UpstreamRateLimiter}).
+ *
+ * <p>The item may live in the shared cache table, it only needs the same "id" key.
+ */
+public class DynamoDbTokenBucket implements TokenBucket {
+
+    private static final int MAX_ATTEMPTS = 5;
+
+    private final DynamoDbClient dynamoDbClient;
+    private final String tableName;
+    private final String id;
+    private final double capacity;
+    private final double tokensPerMilli;
+    private final Clock clock;
+    private volatile double lastSeen;
+
+    public DynamoDbTokenBucket(DynamoDbClient dynamoDbClient, String tableName, String id, long capacity,
+                               double tokensPerSecond, Clock clock) {
+        this.dynamoDbClient = dynamoDbClient;
+        this.tableName = tableName;
+        this.id = id;
+        this.capacity = capacity;
+        this.tokensPerMilli = tokensPerSecond / 1000d;
+        this.clock = clock;
+        this.lastSeen = capacity;
+    }
+
+    @Override
+    public long take(long max) {
+        for (int attempt = 0; attempt < MAX_ATTEMPTS; attempt++) {
+            Map<String, AttributeValue> item = dynamoDbClient.getItem(GetItemRequest.builder()
+                    .tableName(tableName)
+                    .key(Map.of("id", AttributeValue.fromS(id)))
+                    .consistentRead(true)
+                    .build()).item();
+
+            long now = clock.millis();
+            boolean exists = item != null && item.containsKey("version");
+            long version = exists ? Long.parseLong(item.get("version").n()) : 0;
+            // Clocks of other instances may be ahead, time never runs backwards for the bucket
+            long updatedAt = exists ? Math.max(now, Long.parseLong(item.get("updatedAt").n())) : now;
+            double tokens = exists
+                    ? Math.min(capacity, Double.parseDouble(item.get("tokens").n())
+                            + (updatedAt - Long.parseLong(item.get("updatedAt").n())) * tokensPerMilli)
+                    : capacity;
+
+            long granted = Math.min(max, (long) tokens);
+            lastSeen = tokens - granted;
+            if (granted == 0) {
+                return 0;
+            }
+
+            PutItemRequest.Builder put = PutItemRequest.builder()
+                    .tableName(tableName)
+                    .item(Map.of(
+                            "id", AttributeValue.fromS(id),
+                            "tokens", AttributeValue.fromN(Double.toString(tokens - granted)),
+                            "updatedAt", AttributeValue.fromN(Long.toString(updatedAt)),
+                            "version", AttributeValue.fromN(Long.toString(version + 1))));
+            if (exists) {
+                put.conditionExpression("version = :version")
+                        .expressionAttributeValues(Map.of(":version", AttributeValue.fromN(Long.toString(version))));
+            } else {
+                put.conditionExpression("attribute_not_exists(id)");
+            }
+
+            try {
+                dynamoDbClient.putItem(put.build());
+                return granted;
+            } catch (ConditionalCheckFailedException e) {
+                // Another instance took tokens in between, read again
+            }
+        }
+        return 0;
+    }
+
+    @Override
+    public double available() {
+        return lastSeen;
+    }
+}
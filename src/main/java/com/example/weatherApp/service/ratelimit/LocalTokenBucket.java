@@ -0,0 +1,48 @@
+package com.example.weatherApp.service.ratelimit;
+
+import java.util.function.LongSupplier;
+
+/**
+ * Token bucket of this instance only. With several instances each one gets the full rate,
+ * so configure it as the quota divided by the number of instances.
+ */
+public class LocalTokenBucket implements TokenBucket {
+
+    private final double capacity;
+    private final double tokensPerNano;
+    private final LongSupplier nanoTime;
+    private double tokens;
+    private long refilledAt;
+
+    public LocalTokenBucket(long capacity, double tokensPerSecond) {
+        this(capacity, tokensPerSecond, System::nanoTime);
+    }
+
+    LocalTokenBucket(long capacity, double tokensPerSecond, LongSupplier nanoTime) {
+        this.capacity = capacity;
+        this.tokensPerNano = tokensPerSecond / 1_000_000_000d;
+        this.nanoTime = nanoTime;
+        this.tokens = capacity;
+        this.refilledAt = nanoTime.getAsLong();
+    }
+
+    @Override
+    public synchronized long take(long max) {
+        refill();
+        long granted = Math.min(max, (long) tokens);
+        tokens -= granted;
+        return granted;
+    }
+
+    @Override
+    public synchronized double available() {
+        refill();
+        return tokens;
+    }
+
+    private void refill() {
+        long now = nanoTime.getAsLong();
+        tokens = Math.min(capacity, tokens + (now - refilledAt) * tokensPerNano);
+        refilledAt = now;
+    }
+}
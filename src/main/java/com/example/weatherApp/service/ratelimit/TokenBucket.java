@@ -0,0 +1,13 @@
+package com.example.weatherApp.service.ratelimit;
+
+/**
+ * Source of upstream call tokens, refilled at a fixed rate up to a burst capacity.
+ */
+public interface TokenBucket {
+
+    // Takes up to max tokens and returns how many were granted, 0 when the bucket is empty
+    long take(long max);
+
+    // Tokens currently available, or as last seen for a remote bucket
+    double available();
+}
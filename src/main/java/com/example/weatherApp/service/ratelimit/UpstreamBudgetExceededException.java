@@ -0,0 +1,17 @@
+package com.example.weatherApp.service.ratelimit;
+
+import com.example.weatherApp.service.resilience.UpstreamUnavailableException;
+
+import java.time.Duration;
+
+/**
+ * No upstream call could be made: the rate limit gave no token in time, or the upstream
+ * answered 429. The fallback is the last value fetched for the same key, if one is still
+ * kept, so the caller can serve it instead of failing.
+ */
+public class UpstreamBudgetExceededException extends UpstreamUnavailableException {
+
+    public UpstreamBudgetExceededException(String message, Object staleValue, Duration retryAfter, Throwable cause) {
+        super(message, staleValue, retryAfter, cause);
+    }
+}
@@ -0,0 +1,33 @@
+package com.example.weatherApp.service.ratelimit;
+
+import java.util.function.Supplier;
+
+/**
+ * Who is waiting for an upstream call. Requests of users go first, background refreshes
+ * of cached entries next and pre-warming last. The priority of the current thread is set
+ * with {@link #call}, anything else counts as a user request.
+ */
+public enum UpstreamPriority {
+    USER, REFRESH, PREFETCH;
+
+    private static final ThreadLocal<UpstreamPriority> CURRENT = new ThreadLocal<>();
+
+    public static UpstreamPriority current() {
+        UpstreamPriority priority = CURRENT.get();
+        return priority != null ? priority : USER;
+    }
+
+    public <T> T call(Supplier<T> task) {
+        UpstreamPriority previous = CURRENT.get();
+        CURRENT.set(this);
+        try {
+            return task.get();
+        } finally {
+            if (previous != null) {
+                CURRENT.set(previous);
+            } else {
+                CURRENT.remove();
+            }
+        }
+    }
+}
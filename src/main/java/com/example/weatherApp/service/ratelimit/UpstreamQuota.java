@@ -0,0 +1,83 @@
+package com.example.weatherApp.service.ratelimit;
+
+import com.example.weatherApp.service.cache.StaleValueStore;
+import com.example.weatherApp.service.resilience.UpstreamGuard;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.function.Supplier;
+
+/**
+ * Guards the OpenWeatherMap calls with its {@link UpstreamGuard} and the
+ * {@link UpstreamRateLimiter} (absent when rate limiting is disabled) and remembers every
+ * fetched value in the {@link StaleValueStore}. When no call can be made, or upstream
+ * answers 429, the call fails with an {@link UpstreamBudgetExceededException} carrying the
+ * last value fetched for the key; the guard's rejections and failures carry it as well.
+ */
+public class UpstreamQuota {
+
+    private final UpstreamGuard guard;
+    private final UpstreamRateLimiter rateLimiter;
+    private final StaleValueStore staleValues;
+    private final Duration retryAfter;
+    private final MeterRegistry meterRegistry;
+
+    public UpstreamQuota(UpstreamGuard guard, UpstreamRateLimiter rateLimiter, StaleValueStore staleValues,
+                         Duration retryAfter, MeterRegistry meterRegistry) {
+        this.guard = guard;
+        this.rateLimiter = rateLimiter;
+        this.staleValues = staleValues;
+        this.retryAfter = retryAfter;
+        this.meterRegistry = meterRegistry;
+    }
+
+    // The token is taken before entering the bulkhead, so only the HTTP call holds a slot and
+    // background work queued for a token cannot crowd user requests out of the bulkhead. A
+    // rejected token counts against neither the bulkhead nor the breaker
+    public <T> T call(String cacheName, Object key, Supplier<T> request) {
+        if (rateLimiter != null && !rateLimiter.acquire(UpstreamPriority.current())) {
+            throw exceeded(cacheName, key, "Upstream rate limit reached", null);
+        }
+        try {
+            return guard.call(() -> {
+                T value = request.get();
+                staleValues.put(cacheName, key, value);
+                return value;
+            }, () -> staleValues.get(cacheName, key));
+        } catch (HttpClientErrorException.TooManyRequests e) {
+            throw exceeded(cacheName, key, "Upstream quota exhausted", e);
+        }
+    }
+
+    // Reactive calls are user requests; waiting for a token moves off the event loop
+    public <T> Mono<T> callReactive(String cacheName, Object key, Supplier<Mono<T>> request) {
+        Mono<T> guarded = guard.callReactive(request, () -> staleValues.get(cacheName, key));
+        Mono<T> admitted = rateLimiter == null
+                ? guarded
+                : Mono.fromCallable(() -> rateLimiter.acquire(UpstreamPriority.USER))
+                        .subscribeOn(Schedulers.boundedElastic())
+                        .flatMap(granted -> granted
+                                ? guarded
+                                : Mono.error(exceeded(cacheName, key, "Upstream rate limit reached", null)));
+        return admitted
+                .doOnNext(value -> staleValues.put(cacheName, key, value))
+                .onErrorMap(WebClientResponseException.TooManyRequests.class,
+                        e -> exceeded(cacheName, key, "Upstream quota exhausted", e));
+    }
+
+    private UpstreamBudgetExceededException exceeded(String cacheName, Object key, String message, Throwable cause) {
+        Object staleValue = staleValues.get(cacheName, key);
+        Counter.builder("weather.upstream.budget.exceeded")
+                .description("Upstream calls not made for lack of quota, by whether a stale value was available")
+                .tag("cache", cacheName)
+                .tag("fallback", staleValue != null ? "stale" : "none")
+                .register(meterRegistry)
+                .increment();
+        return new UpstreamBudgetExceededException(message + " for " + cacheName, staleValue, retryAfter, cause);
+    }
+}
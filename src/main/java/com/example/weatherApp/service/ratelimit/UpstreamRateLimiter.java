@@ -0,0 +1,157 @@
+package com.example.weatherApp.service.ratelimit;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Admission to upstream calls against a {@link TokenBucket}. Callers without a token wait
+ * in a priority queue, user requests ahead of refreshes ahead of pre-warming, each up to
+ * the maximum wait of its priority. Only the head of the queue takes tokens, so a waiting
+ * user request is never overtaken by background work.
+ *
+ * <p>Tokens are leased from the bucket {@code leaseSize} at a time and used up locally, which
+ * keeps a remote bucket to one round trip per lease. The lease is made without holding the
+ * lock, so callers arriving meanwhile queue up and give up at their maximum wait instead of
+ * blocking on the round trip. A failing bucket admits the call: the limiter protects the
+ * quota, it must not turn a store outage into an outage of the app.
+ */
+@Slf4j
+public class UpstreamRateLimiter {
+
+    private final TokenBucket bucket;
+    private final int leaseSize;
+    private final Map<UpstreamPriority, Duration> maxWait;
+    // How often the head of the queue polls an empty bucket, about one token's refill time
+    private final long pollNanos;
+    private final MeterRegistry meterRegistry;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition changed = lock.newCondition();
+    private final PriorityQueue<Waiter> waiters = new PriorityQueue<>(
+            Comparator.comparing(Waiter::priority).thenComparingLong(Waiter::sequence));
+    private final Map<UpstreamPriority, AtomicInteger> queued = new EnumMap<>(UpstreamPriority.class);
+    private long sequence;
+    private long leased;
+    private boolean leasing;
+    // An empty bucket is asked again after about one token's refill time
+    private long nextLeaseAt = System.nanoTime();
+
+    public UpstreamRateLimiter(TokenBucket bucket, int leaseSize, double tokensPerSecond,
+                               Map<UpstreamPriority, Duration> maxWait, MeterRegistry meterRegistry) {
+        this.bucket = bucket;
+        this.leaseSize = leaseSize;
+        this.maxWait = new EnumMap<>(maxWait);
+        this.pollNanos = Math.max(TimeUnit.MILLISECONDS.toNanos(5), (long) (1_000_000_000d / tokensPerSecond));
+        this.meterRegistry = meterRegistry;
+
+        for (UpstreamPriority priority : UpstreamPriority.values()) {
+            AtomicInteger depth = new AtomicInteger();
+            queued.put(priority, depth);
+            Gauge.builder("weather.upstream.ratelimit.queue", depth, AtomicInteger::get)
+                    .description("Upstream calls waiting for a rate limit token")
+                    .tag("priority", tag(priority))
+                    .register(meterRegistry);
+        }
+        Gauge.builder("weather.upstream.ratelimit.tokens", this, UpstreamRateLimiter::availableTokens)
+                .description("Upstream call tokens available to this instance")
+                .register(meterRegistry);
+    }
+
+    // Waits for a token up to the maximum wait of the priority, false when none was granted
+    public boolean acquire(UpstreamPriority priority) {
+        long started = System.nanoTime();
+        long deadline = started + maxWait.getOrDefault(priority, Duration.ZERO).toNanos();
+        boolean granted = false;
+
+        lock.lock();
+        Waiter waiter = new Waiter(priority, sequence++);
+        waiters.add(waiter);
+        queued.get(priority).incrementAndGet();
+        try {
+            while (true) {
+                if (waiters.peek() == waiter) {
+                    if (leased > 0) {
+                        leased--;
+                        granted = true;
+                        return true;
+                    }
+                    if (!leasing && nextLeaseAt - System.nanoTime() <= 0) {
+                        if (!lease()) {
+                            granted = true;
+                            return true;
+                        }
+                        // Another waiter may have become the head during the lease
+                        continue;
+                    }
+                }
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    return false;
+                }
+                changed.awaitNanos(Math.min(remaining, pollNanos));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } finally {
+            waiters.remove(waiter);
+            queued.get(priority).decrementAndGet();
+            // The next waiter may be the head now
+            changed.signalAll();
+            lock.unlock();
+            Timer.builder("weather.upstream.ratelimit.wait")
+                    .description("Time spent waiting for an upstream rate limit token")
+                    .tag("priority", tag(priority))
+                    .tag("result", granted ? "granted" : "rejected")
+                    .register(meterRegistry)
+                    .record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    // Called with the lock held, released during the bucket round trip; false when the bucket failed
+    private boolean lease() {
+        leasing = true;
+        lock.unlock();
+        long granted = 0;
+        boolean failed = false;
+        try {
+            granted = bucket.take(leaseSize);
+        } catch (RuntimeException e) {
+            log.warn("Upstream rate limit bucket failed, admitting the call: {}", e.toString());
+            failed = true;
+        } finally {
+            lock.lock();
+            leasing = false;
+            leased += granted;
+            if (granted == 0 && !failed) {
+                nextLeaseAt = System.nanoTime() + pollNanos;
+            }
+            changed.signalAll();
+        }
+        return !failed;
+    }
+
+    private double availableTokens() {
+        return bucket.available() + leased;
+    }
+
+    private static String tag(UpstreamPriority priority) {
+        return priority.name().toLowerCase(Locale.ROOT);
+    }
+
+    private record Waiter(UpstreamPriority priority, long sequence) {
+    }
+}
@@ -0,0 +1,158 @@
+package com.example.weatherApp.service.resilience;
+
+import java.time.Duration;
+import java.util.function.LongSupplier;
+
+/**
+ * Count-based circuit breaker. While closed it keeps the outcomes of the last
+ * {@code slidingWindowSize} calls and opens when at least {@code minimumCalls} of them are
+ * recorded and the failure rate reaches the threshold. An open breaker rejects every call
+ * for {@code openDuration}, then lets {@code halfOpenCalls} probes through: if all of them
+ * succeed it closes again, the first failing probe opens it for another period.
+ */
+public class CircuitBreaker {
+
+    public enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    public interface TransitionListener {
+        void onTransition(State from, State to);
+    }
+
+    private final int slidingWindowSize;
+    private final int minimumCalls;
+    private final int failureRateThreshold;
+    private final long openNanos;
+    private final int halfOpenCalls;
+    private final LongSupplier nanoTime;
+    private final TransitionListener listener;
+
+    // Ring of the last outcomes while closed, true for a failure
+    private final boolean[] window;
+    private int next;
+    private int recorded;
+    private int failures;
+
+    private State state = State.CLOSED;
+    private long openedAt;
+    private int probesStarted;
+    private int probesSucceeded;
+
+    public CircuitBreaker(int slidingWindowSize, int minimumCalls, int failureRateThreshold, Duration openDuration,
+                          int halfOpenCalls, TransitionListener listener) {
+        this(slidingWindowSize, minimumCalls, failureRateThreshold, openDuration, halfOpenCalls, listener,
+                System::nanoTime);
+    }
+
+    CircuitBreaker(int slidingWindowSize, int minimumCalls, int failureRateThreshold, Duration openDuration,
+                   int halfOpenCalls, TransitionListener listener, LongSupplier nanoTime) {
+        this.slidingWindowSize = slidingWindowSize;
+        this.minimumCalls = Math.min(minimumCalls, slidingWindowSize);
+        this.failureRateThreshold = failureRateThreshold;
+        this.openNanos = openDuration.toNanos();
+        this.halfOpenCalls = halfOpenCalls;
+        this.listener = listener;
+        this.nanoTime = nanoTime;
+        this.window = new boolean[slidingWindowSize];
+    }
+
+    // False when the call must not be made; a granted call must report its outcome
+    public synchronized boolean tryAcquirePermission() {
+        if (state == State.OPEN) {
+            if (nanoTime.getAsLong() - openedAt < openNanos) {
+                return false;
+            }
+            transitionTo(State.HALF_OPEN);
+        }
+        if (state == State.HALF_OPEN) {
+            if (probesStarted == halfOpenCalls) {
+                return false;
+            }
+            probesStarted++;
+        }
+        return true;
+    }
+
+    public synchronized void onSuccess() {
+        if (state == State.HALF_OPEN) {
+            if (++probesSucceeded == halfOpenCalls) {
+                transitionTo(State.CLOSED);
+            }
+        } else if (state == State.CLOSED) {
+            record(false);
+        }
+    }
+
+    public synchronized void onFailure() {
+        if (state == State.HALF_OPEN) {
+            transitionTo(State.OPEN);
+        } else if (state == State.CLOSED) {
+            record(true);
+            if (recorded >= minimumCalls && failures * 100 >= failureRateThreshold * recorded) {
+                transitionTo(State.OPEN);
+            }
+        }
+    }
+
+    // The call said nothing about the upstream's health, a probe permit is handed back
+    public synchronized void onIgnored() {
+        if (state == State.HALF_OPEN && probesStarted > probesSucceeded) {
+            probesStarted--;
+        }
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+
+    // Percentage of failed calls in the window, -1 until minimumCalls are recorded
+    public synchronized float getFailureRate() {
+        return recorded < minimumCalls ? -1 : failures * 100f / recorded;
+    }
+
+    public synchronized int getBufferedCalls() {
+        return recorded;
+    }
+
+    // Time until an open breaker lets probes through, zero otherwise
+    public synchronized Duration getRemainingOpenTime() {
+        if (state != State.OPEN) {
+            return Duration.ZERO;
+        }
+        return Duration.ofNanos(Math.max(0, openNanos - (nanoTime.getAsLong() - openedAt)));
+    }
+
+    private void record(boolean failure) {
+        if (recorded == slidingWindowSize) {
+            if (window[next]) {
+                failures--;
+            }
+        } else {
+            recorded++;
+        }
+        window[next] = failure;
+        if (failure) {
+            failures++;
+        }
+        next = (next + 1) % slidingWindowSize;
+    }
+
+    private void transitionTo(State target) {
+        State previous = state;
+        state = target;
+        switch (target) {
+            case OPEN -> openedAt = nanoTime.getAsLong();
+            case HALF_OPEN -> {
+                probesStarted = 0;
+                probesSucceeded = 0;
+            }
+            case CLOSED -> {
+                next = 0;
+                recorded = 0;
+                failures = 0;
+            }
+        }
+        listener.onTransition(previous, target);
+    }
+}
@@ -0,0 +1,49 @@
+package com.example.weatherApp.service.resilience;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * {@code /actuator/circuitbreakers}: circuit breaker and bulkhead state of every upstream
+ * dependency.
+ */
+@Endpoint(id = "circuitbreakers")
+public class CircuitBreakersEndpoint {
+
+    private final UpstreamGuards upstreamGuards;
+
+    public CircuitBreakersEndpoint(UpstreamGuards upstreamGuards) {
+        this.upstreamGuards = upstreamGuards;
+    }
+
+    @ReadOperation
+    public Map<String, GuardState> circuitBreakers() {
+        Map<String, GuardState> states = new TreeMap<>();
+        upstreamGuards.all().forEach(guard -> states.put(guard.getDependency(), GuardState.of(guard)));
+        return states;
+    }
+
+    @ReadOperation
+    public GuardState circuitBreaker(@Selector String dependency) {
+        return upstreamGuards.all().stream()
+                .filter(guard -> guard.getDependency().equals(dependency))
+                .findFirst()
+                .map(GuardState::of)
+                .orElse(null);
+    }
+
+    public record GuardState(CircuitBreaker.State state, float failureRate, int bufferedCalls,
+                             long remainingOpenMillis, int bulkheadAvailableCalls, int bulkheadMaxConcurrentCalls) {
+
+        static GuardState of(UpstreamGuard guard) {
+            CircuitBreaker breaker = guard.getCircuitBreaker();
+            return new GuardState(breaker.getState(), breaker.getFailureRate(), breaker.getBufferedCalls(),
+                    breaker.getRemainingOpenTime().toMillis(), guard.getBulkhead().getAvailableCalls(),
+                    guard.getBulkhead().getMaxConcurrentCalls());
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.example.weatherApp.service.resilience;
+
+import reactor.core.publisher.Mono;
+
+import java.util.function.Supplier;
+
+/**
+ * For the services: the fallback of an {@link UpstreamUnavailableException} instead of the
+ * failure, when there is one. Applied above the cached client methods, so a fallback is
+ * served but never cached.
+ */
+public final class Fallbacks {
+
+    private Fallbacks() {
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <T> T orFallback(Supplier<T> lookup) {
+        try {
+            return lookup.get();
+        } catch (UpstreamUnavailableException e) {
+            if (e.getFallback() == null) {
+                throw e;
+            }
+            return (T) e.getFallback();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <T> Mono<T> orFallback(Mono<T> lookup) {
+        return lookup.onErrorResume(UpstreamUnavailableException.class, e -> e.getFallback() != null
+                ? Mono.just((T) e.getFallback())
+                : Mono.error(e));
+    }
+}
@@ -0,0 +1,176 @@
+package com.example.weatherApp.service.resilience;
+
+import com.example.weatherApp.config.ResilienceProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.web.client.RestClientResponseException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.function.Supplier;
+
+/**
+ * {@link Bulkhead} and {@link CircuitBreaker} of one upstream dependency. Calls the breaker
+ * rejects, or that find the bulkhead full, fail fast with an
+ * {@link UpstreamUnavailableException}; so do failed calls when the caller has a fallback.
+ * The exception carries the caller's fallback value, if there is one.
+ *
+ * <p>Only upstream trouble counts against the breaker: errors, timeouts and 5xx answers.
+ * A 4xx answer (an unknown city) shows a healthy upstream, a 429 or our own rate limit
+ * says nothing about it.
+ */
+@Slf4j
+public class UpstreamGuard {
+
+    private static final Duration MIN_RETRY_AFTER = Duration.ofSeconds(1);
+
+    @Getter
+    private final String dependency;
+    @Getter
+    private final CircuitBreaker circuitBreaker;
+    @Getter
+    private final Bulkhead bulkhead;
+    private final MeterRegistry meterRegistry;
+
+    public UpstreamGuard(String dependency, ResilienceProperties.Dependency settings, MeterRegistry meterRegistry) {
+        this.dependency = dependency;
+        this.meterRegistry = meterRegistry;
+        this.bulkhead = new Bulkhead(settings.getMaxConcurrentCalls(), settings.getMaxWait());
+        this.circuitBreaker = new CircuitBreaker(settings.getSlidingWindowSize(), settings.getMinimumCalls(),
+                settings.getFailureRateThreshold(), settings.getOpenDuration(), settings.getHalfOpenCalls(),
+                this::onTransition);
+
+        for (CircuitBreaker.State state : CircuitBreaker.State.values()) {
+            Gauge.builder("weather.upstream.circuit.state", circuitBreaker, breaker -> breaker.getState() == state ? 1 : 0)
+                    .description("Circuit breaker state of an upstream dependency, 1 for the current state")
+                    .tag("dependency", dependency)
+                    .tag("state", tag(state))
+                    .register(meterRegistry);
+        }
+        Gauge.builder("weather.upstream.bulkhead.available", bulkhead, Bulkhead::getAvailableCalls)
+                .description("Calls an upstream dependency may still take before the bulkhead is full")
+                .tag("dependency", dependency)
+                .register(meterRegistry);
+    }
+
+    public <T> T call(Supplier<T> request, Supplier<?> fallback) {
+        if (!circuitBreaker.tryAcquirePermission()) {
+            throw rejected("circuit_open", fallback);
+        }
+        if (!bulkhead.tryEnter()) {
+            circuitBreaker.onIgnored();
+            throw rejected("bulkhead_full", fallback);
+        }
+        try {
+            T value = request.get();
+            circuitBreaker.onSuccess();
+            return value;
+        } catch (RuntimeException e) {
+            if (recordError(e)) {
+                UpstreamUnavailableException degraded = degraded(e, fallback);
+                if (degraded != null) {
+                    throw degraded;
+                }
+            }
+            throw e;
+        } finally {
+            bulkhead.exit();
+        }
+    }
+
+    // Event loop callers do not wait for a bulkhead slot
+    public <T> Mono<T> callReactive(Supplier<Mono<T>> request, Supplier<?> fallback) {
+        return Mono.defer(() -> {
+            if (!circuitBreaker.tryAcquirePermission()) {
+                return Mono.error(rejected("circuit_open", fallback));
+            }
+            if (!bulkhead.tryEnterNow()) {
+                circuitBreaker.onIgnored();
+                return Mono.error(rejected("bulkhead_full", fallback));
+            }
+            return Mono.defer(request)
+                    .doOnSuccess(value -> circuitBreaker.onSuccess())
+                    .onErrorMap(e -> {
+                        if (recordError(e)) {
+                            UpstreamUnavailableException degraded = degraded(e, fallback);
+                            if (degraded != null) {
+                                return degraded;
+                            }
+                        }
+                        return e;
+                    })
+                    .doOnCancel(circuitBreaker::onIgnored)
+                    .doFinally(signal -> bulkhead.exit());
+        });
+    }
+
+    // True when the error counts as a failure of the upstream
+    private boolean recordError(Throwable e) {
+        HttpStatusCode status = status(e);
+        if (e instanceof UpstreamUnavailableException
+                || (status != null && status.isSameCodeAs(HttpStatus.TOO_MANY_REQUESTS))) {
+            circuitBreaker.onIgnored();
+            return false;
+        }
+        if (status != null && status.is4xxClientError()) {
+            circuitBreaker.onSuccess();
+            return false;
+        }
+        circuitBreaker.onFailure();
+        return true;
+    }
+
+    private UpstreamUnavailableException rejected(String reason, Supplier<?> fallback) {
+        Counter.builder("weather.upstream.rejected")
+                .description("Upstream calls not made by the circuit breaker or bulkhead")
+                .tag("dependency", dependency)
+                .tag("reason", reason)
+                .register(meterRegistry)
+                .increment();
+        Duration retryAfter = circuitBreaker.getRemainingOpenTime();
+        return new UpstreamUnavailableException(dependency + " unavailable (" + reason + ")", fallback.get(),
+                retryAfter.compareTo(MIN_RETRY_AFTER) > 0 ? retryAfter : MIN_RETRY_AFTER, null);
+    }
+
+    private UpstreamUnavailableException degraded(Throwable cause, Supplier<?> fallback) {
+        Object value = fallback.get();
+        return value == null ? null
+                : new UpstreamUnavailableException(dependency + " call failed", value, MIN_RETRY_AFTER, cause);
+    }
+
+    private void onTransition(CircuitBreaker.State from, CircuitBreaker.State to) {
+        if (to == CircuitBreaker.State.OPEN) {
+            log.warn("Circuit breaker of {} opened ({} -> {})", dependency, from, to);
+        } else {
+            log.info("Circuit breaker of {} changed {} -> {}", dependency, from, to);
+        }
+        Counter.builder("weather.upstream.circuit.transitions")
+                .description("Circuit breaker state transitions of an upstream dependency")
+                .tag("dependency", dependency)
+                .tag("from", tag(from))
+                .tag("to", tag(to))
+                .register(meterRegistry)
+                .increment();
+    }
+
+    private static HttpStatusCode status(Throwable e) {
+        if (e instanceof RestClientResponseException response) {
+            return response.getStatusCode();
+        }
+        if (e instanceof WebClientResponseException response) {
+            return response.getStatusCode();
+        }
+        return null;
+    }
+
+    private static String tag(CircuitBreaker.State state) {
+        return state.name().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.weatherApp.service.resilience;
+
+import com.example.weatherApp.config.ResilienceProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The {@link UpstreamGuard} of every upstream dependency, each with its own bulkhead and
+ * circuit breaker so a slow dependency cannot starve requests that do not use it.
+ */
+public class UpstreamGuards {
+
+    public static final String OPEN_WEATHER_MAP = "openWeatherMap";
+    public static final String IP_GEOLOCATION = "ipGeolocation";
+
+    private final ResilienceProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, UpstreamGuard> guards = new ConcurrentHashMap<>();
+
+    public UpstreamGuards(ResilienceProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        get(OPEN_WEATHER_MAP);
+        get(IP_GEOLOCATION);
+    }
+
+    public UpstreamGuard get(String dependency) {
+        return guards.computeIfAbsent(dependency,
+                name -> new UpstreamGuard(name, properties.getDependency(name), meterRegistry));
+    }
+
+    public Collection<UpstreamGuard> all() {
+        return guards.values();
+    }
+}
@@ -0,0 +1,24 @@
+package com.example.weatherApp.service.resilience;
+
+import lombok.Getter;
+import org.springframework.web.client.RestClientException;
+
+import java.time.Duration;
+
+/**
+ * The upstream call was not made, or failed, and the caller should degrade instead of
+ * waiting. Carries the value to answer with instead, if there is one: the last value
+ * fetched for the key, or a coarse default (see {@link Fallbacks}).
+ */
+@Getter
+public class UpstreamUnavailableException extends RestClientException {
+
+    private final transient Object fallback;
+    private final Duration retryAfter;
+
+    public UpstreamUnavailableException(String message, Object fallback, Duration retryAfter, Throwable cause) {
+        super(message, cause);
+        this.fallback = fallback;
+        this.retryAfter = retryAfter;
+    }
+}
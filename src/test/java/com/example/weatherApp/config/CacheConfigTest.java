@@ -0,0 +1,157 @@
+package com.example.weatherApp.config;
+
+import com.example.weatherApp.service.cache.CacheRefresher;
+import com.example.weatherApp.service.cache.CityKey;
+import com.example.weatherApp.service.cache.SharedCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.context.properties.source.MapConfigurationPropertySource;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class CacheConfigTest {
+
+    private final CacheConfig cacheConfig = new CacheConfig();
+    private final MockEnvironment environment = new MockEnvironment();
+
+    @AfterEach
+    void tearDown() {
+        cacheConfig.destroy();
+    }
+
+    @Test
+    void cacheProperties_ShouldBindPerCacheSpecs() {
+        // Arrange
+        Binder binder = new Binder(new MapConfigurationPropertySource(Map.of(
+                "weather.cache.specs.currentWeather.soft-ttl", "45m",
+                "weather.cache.specs.currentWeather.refresh-threads", "2")));
+
+        // Act
+        CacheProperties properties = binder.bind("weather.cache", CacheProperties.class).get();
+
+        // Assert
+        assertEquals(Duration.ofMinutes(45), properties.getSpec("currentWeather").getSoftTtl());
+        assertEquals(2, properties.getSpec("currentWeather").getRefreshThreads());
+        assertEquals(Duration.ofHours(1), properties.getSpec("currentWeather").getHardTtl());
+        assertNull(properties.getSpec("ipLocation").getSoftTtl());
+    }
+
+    @Test
+    void cacheManager_WithSoftTtl_ShouldServeStaleEntryAndRefreshInBackground() throws Exception {
+        // Arrange
+        CacheProperties properties = new CacheProperties();
+        CacheProperties.CacheSpec spec = new CacheProperties.CacheSpec();
+        spec.setSoftTtl(Duration.ofMillis(50));
+        properties.getSpecs().put("currentWeather", spec);
+
+        CityKey key = new CityKey("oslo", null);
+        CacheRefresher refresher = mock(CacheRefresher.class);
+        CountDownLatch upstreamResponded = new CountDownLatch(1);
+        when(refresher.reload(eq("currentWeather"), eq(key))).thenAnswer(invocation -> {
+            upstreamResponded.await(2, TimeUnit.SECONDS);
+            return "fresh";
+        });
+
+        CacheManager cacheManager = cacheManager(properties, refresher);
+        Cache cache = cacheManager.getCache("currentWeather");
+        cache.put(key, "stale");
+        Thread.sleep(100);
+
+        // Act & Assert
+        assertEquals("stale", cache.get(key).get());
+        verify(refresher, timeout(2000)).reload("currentWeather", key);
+        upstreamResponded.countDown();
+        Thread.sleep(100);
+        assertEquals("fresh", cache.get(key).get());
+    }
+
+    @Test
+    void cacheManager_WithVirtualThreadsEnabled_ShouldRefreshOnVirtualThread() throws Exception {
+        // Arrange
+        environment.setProperty("spring.threads.virtual.enabled", "true");
+        CacheProperties properties = new CacheProperties();
+        CacheProperties.CacheSpec spec = new CacheProperties.CacheSpec();
+        spec.setSoftTtl(Duration.ofMillis(50));
+        properties.getSpecs().put("currentWeather", spec);
+
+        CityKey key = new CityKey("oslo", null);
+        CacheRefresher refresher = mock(CacheRefresher.class);
+        CompletableFuture<Thread> refreshThread = new CompletableFuture<>();
+        when(refresher.reload(eq("currentWeather"), eq(key))).thenAnswer(invocation -> {
+            refreshThread.complete(Thread.currentThread());
+            return "fresh";
+        });
+
+        Cache cache = cacheManager(properties, refresher).getCache("currentWeather");
+        cache.put(key, "stale");
+        Thread.sleep(100);
+
+        // Act
+        cache.get(key);
+
+        // Assert
+        Thread thread = refreshThread.get(2, TimeUnit.SECONDS);
+        assertTrue(thread.isVirtual());
+        assertTrue(thread.getName().startsWith("refresh-currentWeather-"));
+    }
+
+    @Test
+    void cacheManager_ShouldBoundEachCacheByEstimatedBytesAndRecordStats() {
+        // Arrange
+        CacheProperties properties = new CacheProperties();
+        CacheProperties.CacheSpec spec = new CacheProperties.CacheSpec();
+        spec.setMaximumWeight(DataSize.ofMegabytes(8));
+        properties.getSpecs().put("currentWeather", spec);
+
+        // Act
+        CacheManager cacheManager = cacheManager(properties, mock(CacheRefresher.class));
+        CaffeineCache cache = (CaffeineCache) cacheManager.getCache("currentWeather");
+        cache.put(new CityKey("oslo", null), "cached");
+        cache.get(new CityKey("oslo", null));
+        cache.get(new CityKey("bergen", null));
+
+        // Assert
+        cache.getNativeCache().cleanUp();
+        var eviction = cache.getNativeCache().policy().eviction().orElseThrow();
+        assertEquals(DataSize.ofMegabytes(8).toBytes(), eviction.getMaximum());
+        assertTrue(eviction.weightedSize().orElseThrow() > 0);
+        assertEquals(1, cache.getNativeCache().stats().hitCount());
+        assertEquals(1, cache.getNativeCache().stats().missCount());
+    }
+
+    @Test
+    void cacheManager_WithoutSoftTtl_ShouldReturnMissForAbsentKey() {
+        // Arrange
+        CacheManager cacheManager = cacheManager(new CacheProperties(), mock(CacheRefresher.class));
+
+        // Act & Assert
+        assertNull(cacheManager.getCache("ipLocation").get("8.8.8.8"));
+    }
+
+    private CacheManager cacheManager(CacheProperties properties, CacheRefresher refresher) {
+        return cacheConfig.cacheManager(properties, refresher, environment,
+                new StaticListableBeanFactory().getBeanProvider(SharedCache.class),
+                new SimpleMeterRegistry());
+    }
+}
@@ -2,27 +2,40 @@ package com.example.weatherApp.controller;
 
 import com.example.weatherApp.model.Coordinates;
 import com.example.weatherApp.model.CurrentWeather;
+import com.example.weatherApp.model.WeatherBatchItem;
 import com.example.weatherApp.model.WeatherData;
 import com.example.weatherApp.model.WeatherSearchRequest;
+import com.example.weatherApp.service.WeatherBatchService;
 import com.example.weatherApp.service.WeatherService;
+import com.example.weatherApp.service.cache.WeatherFreshness;
+import com.example.weatherApp.service.cache.WeatherVersions;
+import com.example.weatherApp.service.ratelimit.UpstreamBudgetExceededException;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.List;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(WeatherController.class)
+@Import(WeatherVersions.class)
 public class WeatherControllerTest {
 
     @Autowired
@@ -31,6 +44,12 @@ public class WeatherControllerTest {
     @MockBean
     private WeatherService weatherService;
 
+    @MockBean
+    private WeatherBatchService weatherBatchService;
+
+    @MockBean
+    private WeatherFreshness freshness;
+
     @Test
     public void getWeatherByCity_ShouldReturnWeatherData() throws Exception {
         // Arrange
@@ -70,6 +89,77 @@ public class WeatherControllerTest {
                 .andExpect(jsonPath("$.currentWeather").exists());
     }
 
+    @Test
+    public void getWeatherByCity_WithMatchingIfNoneMatch_ShouldReturn304WithoutBody() throws Exception {
+        // Arrange
+        WeatherData mockData = createMockWeatherData("Oslo", "NO");
+        when(weatherService.getWeatherData(any(WeatherSearchRequest.class), eq(null)))
+                .thenReturn(mockData);
+        when(freshness.remaining(any(WeatherSearchRequest.class), eq(mockData)))
+                .thenReturn(Duration.ofMinutes(10));
+        String etag = mockMvc.perform(get("/api/weather/city/{city}", "Oslo"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Cache-Control", "max-age=600, public"))
+                .andReturn().getResponse().getHeader("ETag");
+
+        // Act & Assert
+        mockMvc.perform(get("/api/weather/city/{city}", "Oslo")
+                .header("If-None-Match", etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", etag))
+                .andExpect(header().string("Cache-Control", "max-age=600, public"))
+                .andExpect(content().string(""));
+    }
+
+    @Test
+    public void getWeatherForCurrentLocation_ShouldNotBeSharedByCaches() throws Exception {
+        // Arrange: the cache entries behind the response are unknown
+        when(weatherService.getWeatherData(any(WeatherSearchRequest.class), any()))
+                .thenReturn(createMockWeatherData("Oslo", "NO"));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/weather/current-location"))
+                .andExpect(status().isOk())
+                .andExpect(header().exists("ETag"))
+                .andExpect(header().string("Cache-Control", "no-cache, private"));
+    }
+
+    @Test
+    public void getWeatherByCity_WhenUpstreamBudgetExceeded_ShouldReturn503WithRetryAfter() throws Exception {
+        // Arrange
+        when(weatherService.getWeatherData(any(WeatherSearchRequest.class), eq(null)))
+                .thenThrow(new UpstreamBudgetExceededException("Upstream rate limit reached for currentWeather",
+                        null, Duration.ofSeconds(2), null));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/weather/city/{city}", "Oslo")
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string("Retry-After", "2"))
+                .andExpect(jsonPath("$.error").value("External API Error"));
+    }
+
+    @Test
+    public void getWeatherBatch_ShouldReturnOneResultPerEntry() throws Exception {
+        // Arrange
+        List<WeatherBatchItem> results = List.of(
+                WeatherBatchItem.builder().index(0).status(200).weather(createMockWeatherData("Oslo", "NO")).build(),
+                WeatherBatchItem.builder().index(1).status(404).error("External API Error").details("404 - Not Found").build());
+
+        when(weatherBatchService.getWeatherData(anyList(), any()))
+                .thenReturn(results);
+
+        // Act & Assert
+        mockMvc.perform(post("/api/weather/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .accept(MediaType.APPLICATION_JSON)
+                .content("[{\"city\":\"Oslo\"},{\"city\":\"Atlantis\"}]"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].weather.cityName").value("Oslo"))
+                .andExpect(jsonPath("$[1].status").value(404))
+                .andExpect(jsonPath("$[1].weather").doesNotExist());
+    }
+
     // Helper method to create mock weather data
     private WeatherData createMockWeatherData(String cityName, String countryCode) {
         CurrentWeather currentWeather = CurrentWeather.builder()
@@ -0,0 +1,191 @@
+package com.example.weatherApp.service;
+
+import com.example.weatherApp.config.BatchProperties;
+import com.example.weatherApp.model.Coordinates;
+import com.example.weatherApp.model.WeatherBatchItem;
+import com.example.weatherApp.model.WeatherData;
+import com.example.weatherApp.model.WeatherSearchRequest;
+import com.example.weatherApp.service.cache.ExactKeyStrategy;
+import com.example.weatherApp.service.cache.WeatherCacheKeys;
+import jakarta.validation.Validation;
+import jakarta.validation.ValidatorFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.atMost;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class WeatherBatchServiceTest {
+
+    @Mock
+    private WeatherService weatherService;
+
+    private final ValidatorFactory validatorFactory = Validation.buildDefaultValidatorFactory();
+    private final ConcurrentMapCacheManager cacheManager = new ConcurrentMapCacheManager();
+    private final WeatherCacheKeys cacheKeys = new WeatherCacheKeys(new ExactKeyStrategy());
+    private final BatchProperties batchProperties = new BatchProperties();
+
+    private WeatherBatchService batchService;
+
+    @BeforeEach
+    void setUp() {
+        batchProperties.setMaxItems(3);
+        batchService = new WeatherBatchService(weatherService, cacheManager, cacheKeys,
+                validatorFactory.getValidator(), batchProperties);
+    }
+
+    @AfterEach
+    void tearDown() {
+        validatorFactory.close();
+    }
+
+    @Test
+    void getWeatherData_ShouldLookUpDuplicatesOnceAndKeepRequestOrder() {
+        // Arrange
+        when(weatherService.getWeatherDataForClient(argThat(r -> r != null && "Oslo".equals(r.getCity())), eq("84.208.20.110")))
+                .thenReturn(createWeatherData("Oslo"));
+        when(weatherService.getWeatherDataForClient(argThat(r -> r != null && "Bergen".equals(r.getCity())), eq("84.208.20.110")))
+                .thenReturn(createWeatherData("Bergen"));
+
+        List<WeatherSearchRequest> requests = List.of(city("Oslo"), city("Bergen"), city("Oslo"));
+
+        // Act
+        List<WeatherBatchItem> results = batchService.getWeatherData(requests, "84.208.20.110");
+
+        // Assert
+        assertEquals(List.of("Oslo", "Bergen", "Oslo"),
+                results.stream().map(item -> item.getWeather().getCityName()).toList());
+        assertEquals(List.of(0, 1, 2), results.stream().map(WeatherBatchItem::getIndex).toList());
+        verify(weatherService, times(1)).getWeatherDataForClient(argThat(r -> r != null && "Oslo".equals(r.getCity())), any());
+    }
+
+    @Test
+    void streamWeatherData_ShouldReportFailuresPerEntry() {
+        // Arrange
+        when(weatherService.getWeatherDataForClient(argThat(r -> r != null && "Oslo".equals(r.getCity())), any()))
+                .thenReturn(createWeatherData("Oslo"));
+        when(weatherService.getWeatherDataForClient(argThat(r -> r != null && "Atlantis".equals(r.getCity())), any()))
+                .thenThrow(new HttpClientErrorException(HttpStatus.NOT_FOUND, "Not Found"));
+
+        WeatherSearchRequest invalid = WeatherSearchRequest.builder().latitude("123").longitude("10").build();
+        List<WeatherSearchRequest> requests = List.of(city("Atlantis"), city("Oslo"), invalid);
+        List<WeatherBatchItem> results = Collections.synchronizedList(new ArrayList<>());
+
+        // Act
+        batchService.streamWeatherData(requests, null, results::add);
+
+        // Assert
+        results.sort((a, b) -> Integer.compare(a.getIndex(), b.getIndex()));
+        assertEquals(404, results.get(0).getStatus());
+        assertEquals("External API Error", results.get(0).getError());
+        assertEquals(200, results.get(1).getStatus());
+        assertNull(results.get(1).getError());
+        assertEquals(400, results.get(2).getStatus());
+        assertEquals("Validation Error", results.get(2).getError());
+    }
+
+    @Test
+    void streamWeatherData_WhenUpstreamIsOverQuota_ShouldReportServiceUnavailable() {
+        // Arrange: the upstream 429 is our quota, mapped like GlobalExceptionHandler does
+        when(weatherService.getWeatherDataForClient(any(), any()))
+                .thenThrow(HttpClientErrorException.create(HttpStatus.TOO_MANY_REQUESTS, "Too Many Requests",
+                        null, null, null));
+        List<WeatherBatchItem> results = Collections.synchronizedList(new ArrayList<>());
+
+        // Act
+        batchService.streamWeatherData(List.of(city("Oslo")), null, results::add);
+
+        // Assert
+        assertEquals(1, results.size());
+        assertEquals(503, results.get(0).getStatus());
+        assertEquals("External service is over capacity, retry later", results.get(0).getDetails());
+    }
+
+    @Test
+    void getWeatherData_WithNullEntry_ShouldReportItAsInvalid() {
+        // Arrange: a JSON batch of [null, {"city": "Oslo"}]
+        when(weatherService.getWeatherDataForClient(any(), any())).thenReturn(createWeatherData("Oslo"));
+        List<WeatherSearchRequest> requests = Arrays.asList(null, city("Oslo"));
+
+        // Act
+        List<WeatherBatchItem> results = batchService.getWeatherData(requests, null);
+
+        // Assert
+        assertEquals(400, results.get(0).getStatus());
+        assertEquals("Validation Error", results.get(0).getError());
+        assertEquals(200, results.get(1).getStatus());
+    }
+
+    @Test
+    void streamWeatherData_WhenConsumerFails_ShouldNotFetchQueuedEntries() {
+        // Arrange: one fetch at a time, the invalid entry is emitted first and the consumer fails on it.
+        // The fetches may not have started by then
+        batchProperties.setParallelism(1);
+        lenient().when(weatherService.getWeatherDataForClient(any(), any())).thenAnswer(invocation -> {
+            Thread.sleep(500);
+            return createWeatherData("Oslo");
+        });
+        WeatherSearchRequest invalid = WeatherSearchRequest.builder().latitude("123").longitude("10").build();
+        List<WeatherSearchRequest> requests = List.of(city("Oslo"), city("Bergen"), invalid);
+
+        // Act
+        assertThrows(UncheckedIOException.class, () -> batchService.streamWeatherData(requests, null, item -> {
+            throw new UncheckedIOException(new IOException("Broken pipe"));
+        }));
+
+        // Assert: the fetch in flight was interrupted, the queued one never started
+        verify(weatherService, atMost(1)).getWeatherDataForClient(any(), any());
+    }
+
+    @Test
+    void getWeatherData_WithTooManyEntries_ShouldRejectBatch() {
+        // Arrange
+        List<WeatherSearchRequest> requests = List.of(city("Oslo"), city("Bergen"), city("Trondheim"), city("Tromsø"));
+
+        // Act & Assert
+        ResponseStatusException ex = assertThrows(ResponseStatusException.class,
+                () -> batchService.getWeatherData(requests, null));
+        assertEquals(HttpStatus.BAD_REQUEST, ex.getStatusCode());
+        verifyNoInteractions(weatherService);
+    }
+
+    private static WeatherSearchRequest city(String city) {
+        return WeatherSearchRequest.builder()
+                .city(city)
+                .build();
+    }
+
+    private static WeatherData createWeatherData(String cityName) {
+        return WeatherData.builder()
+                .cityName(cityName)
+                .coordinates(new Coordinates(59.9139, 10.7522))
+                .dailyForecasts(new ArrayList<>())
+                .build();
+    }
+}
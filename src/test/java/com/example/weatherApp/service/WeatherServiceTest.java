@@ -0,0 +1,303 @@
+package com.example.weatherApp.service;
+
+import com.example.weatherApp.model.Coordinates;
+import com.example.weatherApp.model.CurrentWeather;
+import com.example.weatherApp.model.DailyForecast;
+import com.example.weatherApp.model.LocationData;
+import com.example.weatherApp.model.WeatherData;
+import com.example.weatherApp.model.WeatherSearchRequest;
+import com.example.weatherApp.service.api.IpGeolocationClient;
+import com.example.weatherApp.service.api.OpenWeatherMapClient;
+import com.example.weatherApp.service.cache.CityCoordinatesIndex;
+import com.example.weatherApp.service.cache.ExactKeyStrategy;
+import com.example.weatherApp.service.cache.HotLocationTracker;
+import com.example.weatherApp.service.cache.WeatherCacheKeys;
+import com.example.weatherApp.service.geoip.LocalIpLocationResolver;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.web.client.ResourceAccessException;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class WeatherServiceTest {
+
+    @Mock
+    private OpenWeatherMapClient weatherClient;
+
+    @Mock
+    private IpGeolocationClient locationClient;
+
+    @Mock
+    private LocalIpLocationResolver localIpLocations;
+
+    @Mock
+    private HotLocationTracker hotLocations;
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(2);
+
+    private final CityCoordinatesIndex cityIndex = new CityCoordinatesIndex(
+            new ConcurrentMapCacheManager(), new WeatherCacheKeys(new ExactKeyStrategy()));
+
+    private WeatherService weatherService;
+
+    @BeforeEach
+    void setUp() {
+        weatherService = new WeatherService(weatherClient, locationClient, localIpLocations, cityIndex, hotLocations,
+                new UpstreamFanOut(executor, Duration.ofSeconds(2)), new SimpleMeterRegistry());
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void getWeatherData_ByCity_ShouldCombineCachedResourcesWithoutModifyingThem() {
+        // Arrange
+        WeatherData cachedCurrent = createCurrentWeather();
+        List<DailyForecast> cachedForecasts = List.of(createForecast());
+        when(weatherClient.getCurrentWeatherByCity("Oslo")).thenReturn(cachedCurrent);
+        when(weatherClient.getForecastByCoordinates(59.9139, 10.7522, 3)).thenReturn(cachedForecasts);
+
+        WeatherSearchRequest request = WeatherSearchRequest.builder()
+                .city("Oslo")
+                .days(3)
+                .build();
+
+        // Act
+        WeatherData result = weatherService.getWeatherData(request, null);
+
+        // Assert
+        assertNotSame(cachedCurrent, result);
+        assertEquals("Oslo", result.getCityName());
+        assertEquals(cachedForecasts, result.getDailyForecasts());
+        assertTrue(cachedCurrent.getDailyForecasts().isEmpty());
+        verify(weatherClient).getCurrentWeatherByCity("Oslo");
+        verify(weatherClient).getForecastByCoordinates(59.9139, 10.7522, 3);
+        verifyNoMoreInteractions(weatherClient);
+    }
+
+    @Test
+    void getWeatherData_ByKnownCity_ShouldUseCoordinateKeyedLookups() {
+        // Arrange
+        when(weatherClient.getCurrentWeatherByCity("Oslo")).thenReturn(createCurrentWeather());
+        when(weatherClient.getForecastByCoordinates(59.9139, 10.7522, 5)).thenReturn(List.of(createForecast()));
+        when(weatherClient.getCurrentWeatherByCoordinates(59.9139, 10.7522)).thenReturn(createCurrentWeather().toBuilder()
+                .cityName("Sentrum")
+                .build());
+        weatherService.getWeatherData(WeatherSearchRequest.builder().city("Oslo").build(), null);
+
+        // Act
+        WeatherData result = weatherService.getWeatherData(WeatherSearchRequest.builder().city(" OSLO ").build(), null);
+
+        // Assert
+        assertEquals("Oslo", result.getCityName());
+        assertEquals(new Coordinates(59.9139, 10.7522), result.getCoordinates());
+        assertEquals(1, result.getDailyForecasts().size());
+        verify(weatherClient).getCurrentWeatherByCity("Oslo");
+        verify(weatherClient).getCurrentWeatherByCoordinates(59.9139, 10.7522);
+        verify(weatherClient, times(2)).getForecastByCoordinates(59.9139, 10.7522, 5);
+        verifyNoMoreInteractions(weatherClient);
+    }
+
+    @Test
+    void getWeatherData_ByCoordinates_ShouldLookUpEachResourceOnce() {
+        // Arrange
+        when(weatherClient.getCurrentWeatherByCoordinates(59.9139, 10.7522)).thenReturn(createCurrentWeather());
+        when(weatherClient.getForecastByCoordinates(59.9139, 10.7522, 5)).thenReturn(List.of(createForecast()));
+
+        WeatherSearchRequest request = WeatherSearchRequest.builder()
+                .latitude("59.9139")
+                .longitude("10.7522")
+                .build();
+
+        // Act
+        WeatherData result = weatherService.getWeatherData(request, null);
+
+        // Assert
+        assertEquals(1, result.getDailyForecasts().size());
+        verify(weatherClient).getCurrentWeatherByCoordinates(59.9139, 10.7522);
+        verify(weatherClient).getForecastByCoordinates(59.9139, 10.7522, 5);
+        verifyNoMoreInteractions(weatherClient);
+    }
+
+    @Test
+    void getWeatherData_ByCoordinates_ShouldReportRequestedCoordinatesForSharedEntry() {
+        // Arrange: the cached entry was fetched for the center of the key cell
+        when(weatherClient.getCurrentWeatherByCoordinates(59.9141, 10.7519)).thenReturn(createCurrentWeather());
+        when(weatherClient.getForecastByCoordinates(59.9141, 10.7519, 5)).thenReturn(List.of(createForecast()));
+
+        WeatherSearchRequest request = WeatherSearchRequest.builder()
+                .latitude("59.9141")
+                .longitude("10.7519")
+                .build();
+
+        // Act
+        WeatherData result = weatherService.getWeatherData(request, null);
+
+        // Assert
+        assertEquals(new Coordinates(59.9141, 10.7519), result.getCoordinates());
+        assertEquals("Oslo", result.getCityName());
+    }
+
+    @Test
+    void getWeatherData_ByCoordinates_ShouldFetchCurrentWeatherAndForecastInParallel() {
+        // Arrange: each lookup only completes once the other one has started
+        CountDownLatch currentStarted = new CountDownLatch(1);
+        CountDownLatch forecastStarted = new CountDownLatch(1);
+        AtomicBoolean overlapped = new AtomicBoolean();
+        when(weatherClient.getCurrentWeatherByCoordinates(59.9139, 10.7522)).thenAnswer(invocation -> {
+            currentStarted.countDown();
+            overlapped.set(forecastStarted.await(1, TimeUnit.SECONDS));
+            return createCurrentWeather();
+        });
+        when(weatherClient.getForecastByCoordinates(59.9139, 10.7522, 5)).thenAnswer(invocation -> {
+            forecastStarted.countDown();
+            currentStarted.await(1, TimeUnit.SECONDS);
+            return List.of(createForecast());
+        });
+
+        WeatherSearchRequest request = WeatherSearchRequest.builder()
+                .latitude("59.9139")
+                .longitude("10.7522")
+                .build();
+
+        // Act
+        WeatherData result = weatherService.getWeatherData(request, null);
+
+        // Assert
+        assertTrue(overlapped.get());
+        assertEquals(1, result.getDailyForecasts().size());
+    }
+
+    @Test
+    void getWeatherData_WhenCurrentWeatherFails_ShouldDropTheQueuedForecast() throws Exception {
+        // Arrange: the only fan-out worker is busy, so the forecast waits in its queue
+        ExecutorService busy = Executors.newSingleThreadExecutor();
+        CountDownLatch release = new CountDownLatch(1);
+        busy.execute(() -> {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        weatherService = new WeatherService(weatherClient, locationClient, localIpLocations, cityIndex, hotLocations,
+                new UpstreamFanOut(busy, Duration.ofSeconds(2)), new SimpleMeterRegistry());
+        when(weatherClient.getCurrentWeatherByCoordinates(59.9139, 10.7522))
+                .thenThrow(new ResourceAccessException("Connection refused"));
+
+        WeatherSearchRequest request = WeatherSearchRequest.builder()
+                .latitude("59.9139")
+                .longitude("10.7522")
+                .build();
+
+        // Act
+        assertThrows(ResourceAccessException.class, () -> weatherService.getWeatherData(request, null));
+        release.countDown();
+        busy.shutdown();
+
+        // Assert
+        assertTrue(busy.awaitTermination(1, TimeUnit.SECONDS));
+        verify(weatherClient, never()).getForecastByCoordinates(59.9139, 10.7522, 5);
+    }
+
+    @Test
+    void getWeatherData_WhenLookupsExceedDeadline_ShouldFailWithResourceAccessException() {
+        // Arrange
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        weatherService = new WeatherService(weatherClient, locationClient, localIpLocations, cityIndex, hotLocations,
+                new UpstreamFanOut(executor, Duration.ofMillis(100)), meterRegistry);
+        when(weatherClient.getCurrentWeatherByCoordinates(59.9139, 10.7522)).thenReturn(createCurrentWeather());
+        when(weatherClient.getForecastByCoordinates(59.9139, 10.7522, 5)).thenAnswer(invocation -> {
+            Thread.sleep(1000);
+            return List.of(createForecast());
+        });
+
+        WeatherSearchRequest request = WeatherSearchRequest.builder()
+                .latitude("59.9139")
+                .longitude("10.7522")
+                .build();
+
+        // Act & Assert: the failed request is timed as well
+        assertThrows(ResourceAccessException.class, () -> weatherService.getWeatherData(request, null));
+        assertEquals(1, meterRegistry.get("weather.request")
+                .tag("branch", "coordinates").tag("outcome", "error").timer().count());
+    }
+
+    @Test
+    void getWeatherData_WithoutLocation_ShouldBeTimedAsDefaultBranch() {
+        // Arrange
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        weatherService = new WeatherService(weatherClient, locationClient, localIpLocations, cityIndex, hotLocations,
+                new UpstreamFanOut(executor, Duration.ofSeconds(2)), meterRegistry);
+        when(localIpLocations.resolve("203.0.113.7")).thenReturn(LocationData.builder()
+                .city("Oslo")
+                .countryCode("NO")
+                .latitude(59.9139)
+                .longitude(10.7522)
+                .build());
+        when(weatherClient.getCurrentWeatherByCoordinates(59.9139, 10.7522)).thenReturn(createCurrentWeather());
+        when(weatherClient.getForecastByCoordinates(59.9139, 10.7522, 5)).thenReturn(List.of(createForecast()));
+
+        // Act
+        weatherService.getWeatherDataForClient(new WeatherSearchRequest(), "203.0.113.7");
+
+        // Assert
+        assertEquals(1, meterRegistry.get("weather.request")
+                .tag("branch", "default").tag("outcome", "success").timer().count());
+        assertEquals(1, meterRegistry.get("weather.request.stage")
+                .tag("branch", "default").tag("stage", "location").timer().count());
+    }
+
+    private WeatherData createCurrentWeather() {
+        return WeatherData.builder()
+                .cityName("Oslo")
+                .countryCode("NO")
+                .coordinates(new Coordinates(59.9139, 10.7522))
+                .currentWeather(CurrentWeather.builder()
+                        .temperature(10.5)
+                        .description("few clouds")
+                        .icon("02d")
+                        .build())
+                .dailyForecasts(List.of())
+                .timestamp(LocalDateTime.now())
+                .build();
+    }
+
+    private DailyForecast createForecast() {
+        return DailyForecast.builder()
+                .date(LocalDate.now())
+                .minTemperature(2.0)
+                .maxTemperature(8.0)
+                .humidity(70.0)
+                .description("light rain")
+                .icon("10d")
+                .build();
+    }
+}
@@ -0,0 +1,156 @@
+package com.example.weatherApp.service.api;
+
+import com.example.weatherApp.model.DailyForecast;
+import com.example.weatherApp.model.WeatherData;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+/**
+ * Behaviour shared by the blocking and the reactive OpenWeatherMap client. Subclasses stub
+ * the upstream response and unwrap the client result.
+ */
+abstract class AbstractOpenWeatherMapClientTest {
+
+    protected abstract void mockUpstreamResponse(String body);
+
+    protected abstract WeatherData getCurrentWeatherByCity(String city);
+
+    protected abstract WeatherData getCurrentWeatherByCoordinates(Double latitude, Double longitude);
+
+    protected abstract List<DailyForecast> getForecastByCoordinates(Double latitude, Double longitude, int days);
+
+    @Test
+    void getCurrentWeatherByCity_ShouldReturnWeatherData() {
+        // Arrange
+        String mockResponse = """
+                {
+                    "name": "Oslo",
+                    "sys": {
+                        "country": "NO"
+                    },
+                    "coord": {
+                        "lat": 59.9139,
+                        "lon": 10.7522
+                    },
+                    "main": {
+                        "temp": 5.2,
+                        "feels_like": 2.1,
+                        "humidity": 80,
+                        "pressure": 1010
+                    },
+                    "wind": {
+                        "speed": 3.6
+                    },
+                    "weather": [
+                        {
+                            "description": "scattered clouds",
+                            "icon": "03d"
+                        }
+                    ]
+                }
+                """;
+
+        mockUpstreamResponse(mockResponse);
+
+        // Act
+        WeatherData result = getCurrentWeatherByCity("Oslo");
+
+        // Assert
+        assertNotNull(result);
+        assertEquals("Oslo", result.getCityName());
+        assertEquals("NO", result.getCountryCode());
+        assertEquals(59.9139, result.getCoordinates().getLatitude());
+        assertEquals(10.7522, result.getCoordinates().getLongitude());
+        assertEquals(5.2, result.getCurrentWeather().getTemperature());
+        assertEquals(2.1, result.getCurrentWeather().getFeelsLike());
+        assertEquals("scattered clouds", result.getCurrentWeather().getDescription());
+    }
+
+    @Test
+    void getCurrentWeatherByCoordinates_ShouldReturnWeatherData() {
+        // Arrange
+        String mockResponse = """
+                {
+                    "name": "Oslo",
+                    "sys": {
+                        "country": "NO"
+                    },
+                    "coord": {
+                        "lat": 59.9139,
+                        "lon": 10.7522
+                    },
+                    "main": {
+                        "temp": 5.2,
+                        "feels_like": 2.1,
+                        "humidity": 80,
+                        "pressure": 1010
+                    },
+                    "wind": {
+                        "speed": 3.6
+                    },
+                    "weather": [
+                        {
+                            "description": "scattered clouds",
+                            "icon": "03d"
+                        }
+                    ]
+                }
+                """;
+
+        mockUpstreamResponse(mockResponse);
+
+        // Act
+        WeatherData result = getCurrentWeatherByCoordinates(59.9139, 10.7522);
+
+        // Assert
+        assertNotNull(result);
+        assertEquals("Oslo", result.getCityName());
+        assertEquals(5.2, result.getCurrentWeather().getTemperature());
+    }
+
+    @Test
+    void getForecastByCoordinates_ShouldReturnRequestedNumberOfDays() {
+        // Arrange
+        String mockResponse = """
+                {
+                    "lat": 59.9139,
+                    "lon": 10.7522,
+                    "daily": [
+                        {
+                            "dt": 1700000000,
+                            "temp": { "min": -1.5, "max": 4.0 },
+                            "humidity": 70,
+                            "weather": [ { "description": "light snow", "icon": "13d" } ]
+                        },
+                        {
+                            "dt": 1700086400,
+                            "temp": { "min": 0.5, "max": 6.0 },
+                            "humidity": 65,
+                            "weather": [ { "description": "overcast clouds", "icon": "04d" } ]
+                        },
+                        {
+                            "dt": 1700172800,
+                            "temp": { "min": 1.0, "max": 7.0 },
+                            "humidity": 60,
+                            "weather": [ { "description": "clear sky", "icon": "01d" } ]
+                        }
+                    ]
+                }
+                """;
+
+        mockUpstreamResponse(mockResponse);
+
+        // Act
+        List<DailyForecast> result = getForecastByCoordinates(59.9139, 10.7522, 2);
+
+        // Assert
+        assertEquals(2, result.size());
+        assertEquals(-1.5, result.get(0).getMinTemperature());
+        assertEquals(6.0, result.get(1).getMaxTemperature());
+        assertEquals("overcast clouds", result.get(1).getDescription());
+    }
+}
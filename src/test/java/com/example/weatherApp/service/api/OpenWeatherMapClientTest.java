@@ -1,27 +1,41 @@
 package com.example.weatherApp.service.api;
 
+import com.example.weatherApp.config.ResilienceProperties;
+import com.example.weatherApp.model.DailyForecast;
 import com.example.weatherApp.model.WeatherData;
+import com.example.weatherApp.service.cache.ExactKeyStrategy;
+import com.example.weatherApp.service.cache.StaleValueStore;
+import com.example.weatherApp.service.cache.WeatherCacheKeys;
+import com.example.weatherApp.service.ratelimit.UpstreamQuota;
+import com.example.weatherApp.service.resilience.UpstreamGuard;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
-import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
-import org.springframework.http.ResponseEntity;
+import org.springframework.mock.http.client.MockClientHttpResponse;
 import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.client.ResponseExtractor;
 import org.springframework.web.client.RestTemplate;
 
-import static org.junit.jupiter.api.Assertions.assertEquals;
-import static org.junit.jupiter.api.Assertions.assertNotNull;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyMap;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
-public class OpenWeatherMapClientTest {
+public class OpenWeatherMapClientTest extends AbstractOpenWeatherMapClientTest {
 
     @Mock
     private RestTemplate restTemplate;
@@ -29,6 +43,18 @@ public class OpenWeatherMapClientTest {
     @Spy
     private ObjectMapper objectMapper = new ObjectMapper();
 
+    @Spy
+    private OpenWeatherMapResponseParser responseParser = new OpenWeatherMapResponseParser(objectMapper,
+            new SimpleMeterRegistry());
+
+    @Spy
+    private WeatherCacheKeys cacheKeys = new WeatherCacheKeys(new ExactKeyStrategy());
+
+    @Spy
+    private UpstreamQuota upstreamQuota = new UpstreamQuota(
+            new UpstreamGuard("openWeatherMap", new ResilienceProperties.Dependency(), new SimpleMeterRegistry()),
+            null, new StaleValueStore(1_000_000, Duration.ofHours(1)), Duration.ofSeconds(1), new SimpleMeterRegistry());
+
     @InjectMocks
     private OpenWeatherMapClient weatherClient;
 
@@ -38,94 +64,29 @@ public class OpenWeatherMapClientTest {
         ReflectionTestUtils.setField(weatherClient, "apiUrl", "https://api.openweathermap.org/data/2.5");
     }
 
-    @Test
-    void getCurrentWeatherByCity_ShouldReturnWeatherData() {
-        // Arrange
-        String mockResponse = """
-                {
-                    "name": "Oslo",
-                    "sys": {
-                        "country": "NO"
-                    },
-                    "coord": {
-                        "lat": 59.9139,
-                        "lon": 10.7522
-                    },
-                    "main": {
-                        "temp": 5.2,
-                        "feels_like": 2.1,
-                        "humidity": 80,
-                        "pressure": 1010
-                    },
-                    "wind": {
-                        "speed": 3.6
-                    },
-                    "weather": [
-                        {
-                            "description": "scattered clouds",
-                            "icon": "03d"
-                        }
-                    ]
-                }
-                """;
-
-        when(restTemplate.getForEntity(anyString(), eq(String.class)))
-                .thenReturn(new ResponseEntity<>(mockResponse, HttpStatus.OK));
-
-        // Act
-        WeatherData result = weatherClient.getCurrentWeatherByCity("Oslo");
-
-        // Assert
-        assertNotNull(result);
-        assertEquals("Oslo", result.getCityName());
-        assertEquals("NO", result.getCountryCode());
-        assertEquals(59.9139, result.getCoordinates().getLatitude());
-        assertEquals(10.7522, result.getCoordinates().getLongitude());
-        assertEquals(5.2, result.getCurrentWeather().getTemperature());
-        assertEquals(2.1, result.getCurrentWeather().getFeelsLike());
-        assertEquals("scattered clouds", result.getCurrentWeather().getDescription());
+    @Override
+    protected WeatherData getCurrentWeatherByCity(String city) {
+        return weatherClient.getCurrentWeatherByCity(city);
     }
 
-    @Test
-    void getCurrentWeatherByCoordinates_ShouldReturnWeatherData() {
-        // Arrange
-        String mockResponse = """
-                {
-                    "name": "Oslo",
-                    "sys": {
-                        "country": "NO"
-                    },
-                    "coord": {
-                        "lat": 59.9139,
-                        "lon": 10.7522
-                    },
-                    "main": {
-                        "temp": 5.2,
-                        "feels_like": 2.1,
-                        "humidity": 80,
-                        "pressure": 1010
-                    },
-                    "wind": {
-                        "speed": 3.6
-                    },
-                    "weather": [
-                        {
-                            "description": "scattered clouds",
-                            "icon": "03d"
-                        }
-                    ]
-                }
-                """;
-
-        when(restTemplate.getForEntity(anyString(), eq(String.class)))
-                .thenReturn(new ResponseEntity<>(mockResponse, HttpStatus.OK));
+    @Override
+    protected WeatherData getCurrentWeatherByCoordinates(Double latitude, Double longitude) {
+        return weatherClient.getCurrentWeatherByCoordinates(latitude, longitude);
+    }
 
-        // Act
-        WeatherData result = weatherClient.getCurrentWeatherByCoordinates(59.9139, 10.7522);
+    @Override
+    protected List<DailyForecast> getForecastByCoordinates(Double latitude, Double longitude, int days) {
+        return weatherClient.getForecastByCoordinates(latitude, longitude, days);
+    }
 
-        // Assert
-        assertNotNull(result);
-        assertEquals("Oslo", result.getCityName());
-        assertEquals(5.2, result.getCurrentWeather().getTemperature());
+    // The client streams the body into the parser through a ResponseExtractor
+    @Override
+    protected void mockUpstreamResponse(String body) {
+        when(restTemplate.execute(anyString(), eq(HttpMethod.GET), isNull(), any(ResponseExtractor.class), anyMap()))
+                .thenAnswer(invocation -> {
+                    ResponseExtractor<?> extractor = invocation.getArgument(3);
+                    return extractor.extractData(new MockClientHttpResponse(
+                            body.getBytes(StandardCharsets.UTF_8), HttpStatus.OK));
+                });
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,98 @@
+package com.example.weatherApp.service.api;
+
+import com.example.weatherApp.model.DailyForecast;
+import com.example.weatherApp.model.WeatherData;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class OpenWeatherMapResponseParserTest {
+
+    private final OpenWeatherMapResponseParser parser = new OpenWeatherMapResponseParser(new ObjectMapper(),
+            new SimpleMeterRegistry());
+
+    @Test
+    void parseCurrentWeather_RecordedPayload_ShouldMapFields() throws IOException {
+        // Act
+        WeatherData result = parser.parseCurrentWeather(payload("openweather-current.json"));
+
+        // Assert
+        assertEquals("Oslo", result.getCityName());
+        assertEquals("NO", result.getCountryCode());
+        assertEquals(59.9139, result.getCoordinates().getLatitude());
+        assertEquals(10.7522, result.getCoordinates().getLongitude());
+        assertEquals(5.21, result.getCurrentWeather().getTemperature());
+        assertEquals(80.0, result.getCurrentWeather().getHumidity());
+        assertEquals(1010.0, result.getCurrentWeather().getPressure());
+        assertEquals(3.6, result.getCurrentWeather().getWindSpeed());
+        assertEquals("broken clouds", result.getCurrentWeather().getDescription());
+        assertEquals("04d", result.getCurrentWeather().getIcon());
+        assertTrue(result.getDailyForecasts().isEmpty());
+    }
+
+    @Test
+    void parseDailyForecast_ShouldStopAfterRequestedDays() throws IOException {
+        // Act
+        List<DailyForecast> result = parser.parseDailyForecast(payload("openweather-onecall.json"), 3);
+
+        // Assert
+        assertEquals(3, result.size());
+        assertTrue(result.get(0).getDate().isBefore(result.get(1).getDate()));
+        assertTrue(result.get(0).getMaxTemperature() >= result.get(0).getMinTemperature());
+        assertTrue(!result.get(0).getDescription().isEmpty());
+    }
+
+    @Test
+    void parseDailyForecast_ShouldReturnAvailableDaysWhenFewerThanRequested() throws IOException {
+        // Arrange
+        String body = """
+                {
+                    "current": { "temp": 4.0, "weather": [ { "description": "mist", "icon": "50d" } ] },
+                    "daily": [
+                        {
+                            "dt": 1729252800,
+                            "temp": { "day": 5.0, "min": 1.5, "max": 7.25 },
+                            "humidity": 81,
+                            "weather": [ { "description": "light rain", "icon": "10d" }, { "description": "mist" } ],
+                            "rain": null
+                        }
+                    ]
+                }
+                """;
+
+        // Act
+        List<DailyForecast> result = parser.parseDailyForecast(stream(body), 5);
+
+        // Assert
+        assertEquals(1, result.size());
+        assertEquals(1.5, result.get(0).getMinTemperature());
+        assertEquals(7.25, result.get(0).getMaxTemperature());
+        assertEquals(81.0, result.get(0).getHumidity());
+        assertEquals("light rain", result.get(0).getDescription());
+        assertEquals("10d", result.get(0).getIcon());
+    }
+
+    @Test
+    void parseCurrentWeather_MalformedBody_ShouldFail() {
+        // Act & Assert
+        assertThrows(RuntimeException.class, () -> parser.parseCurrentWeather(stream("{\"name\": ")));
+    }
+
+    private InputStream payload(String name) {
+        return getClass().getResourceAsStream("/payloads/" + name);
+    }
+
+    private InputStream stream(String body) {
+        return new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.weatherApp.service.api;
+
+import com.example.weatherApp.config.ResilienceProperties;
+import com.example.weatherApp.model.DailyForecast;
+import com.example.weatherApp.model.WeatherData;
+import com.example.weatherApp.service.cache.ExactKeyStrategy;
+import com.example.weatherApp.service.cache.StaleValueStore;
+import com.example.weatherApp.service.cache.WeatherCacheKeys;
+import com.example.weatherApp.service.ratelimit.UpstreamQuota;
+import com.example.weatherApp.service.resilience.UpstreamGuard;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.List;
+
+public class ReactiveOpenWeatherMapClientTest extends AbstractOpenWeatherMapClientTest {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(5);
+
+    private HttpStatus upstreamStatus = HttpStatus.OK;
+    private String upstreamBody = "";
+
+    // Responses are served by an ExchangeFunction, no connection is opened
+    private final ReactiveOpenWeatherMapClient weatherClient = new ReactiveOpenWeatherMapClient(
+            WebClient.builder()
+                    .exchangeFunction(request -> Mono.just(ClientResponse.create(upstreamStatus)
+                            .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                            .body(upstreamBody)
+                            .build()))
+                    .build(),
+            new OpenWeatherMapResponseParser(new ObjectMapper(), new SimpleMeterRegistry()),
+            new WeatherCacheKeys(new ExactKeyStrategy()),
+            new UpstreamQuota(
+                    new UpstreamGuard("openWeatherMap", new ResilienceProperties.Dependency(), new SimpleMeterRegistry()),
+                    null, new StaleValueStore(1_000_000, Duration.ofHours(1)), Duration.ofSeconds(1),
+                    new SimpleMeterRegistry()));
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(weatherClient, "apiKey", "test-api-key");
+        ReflectionTestUtils.setField(weatherClient, "apiUrl", "https://api.openweathermap.org/data/2.5");
+    }
+
+    @Override
+    protected void mockUpstreamResponse(String body) {
+        upstreamBody = body;
+    }
+
+    @Override
+    protected WeatherData getCurrentWeatherByCity(String city) {
+        return weatherClient.getCurrentWeatherByCity(city).block(TIMEOUT);
+    }
+
+    @Override
+    protected WeatherData getCurrentWeatherByCoordinates(Double latitude, Double longitude) {
+        return weatherClient.getCurrentWeatherByCoordinates(latitude, longitude).block(TIMEOUT);
+    }
+
+    @Override
+    protected List<DailyForecast> getForecastByCoordinates(Double latitude, Double longitude, int days) {
+        return weatherClient.getForecastByCoordinates(latitude, longitude, days).block(TIMEOUT);
+    }
+
+    @Test
+    void getCurrentWeatherByCity_WhenUpstreamRejects_ShouldSignalError() {
+        // Arrange
+        upstreamStatus = HttpStatus.UNAUTHORIZED;
+
+        // Act & Assert
+        StepVerifier.create(weatherClient.getCurrentWeatherByCity("Oslo"))
+                .expectError(WebClientResponseException.Unauthorized.class)
+                .verify(TIMEOUT);
+    }
+}
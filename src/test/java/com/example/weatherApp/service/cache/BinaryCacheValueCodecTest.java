@@ -0,0 +1,136 @@
+package com.example.weatherApp.service.cache;
+
+import com.example.weatherApp.model.CurrentWeather;
+import com.example.weatherApp.model.DailyForecast;
+import com.example.weatherApp.model.LocationData;
+import com.example.weatherApp.model.WeatherData;
+import com.example.weatherApp.service.api.IpGeolocationResponseParser;
+import com.example.weatherApp.service.api.OpenWeatherMapResponseParser;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class BinaryCacheValueCodecTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+    private final OpenWeatherMapResponseParser responseParser = new OpenWeatherMapResponseParser(objectMapper,
+            new SimpleMeterRegistry());
+    private final BinaryCacheValueCodec codec = new BinaryCacheValueCodec();
+    private final JsonCacheValueCodec jsonCodec = new JsonCacheValueCodec(objectMapper);
+
+    @Test
+    void weatherData_ShouldRoundTripAndBeSmallerThanJson() throws IOException {
+        // Arrange
+        WeatherData weatherData = createWeatherData();
+
+        // Act
+        byte[] encoded = codec.encode("currentWeather", weatherData);
+        Object decoded = codec.decode("currentWeather", encoded);
+
+        // Assert
+        assertEquals(weatherData, decoded);
+        int jsonSize = jsonCodec.encode("currentWeather", weatherData).length;
+        assertTrue(encoded.length * 3 < jsonSize, encoded.length + " bytes vs " + jsonSize + " bytes of JSON");
+    }
+
+    @Test
+    void forecasts_ShouldRoundTripAndWriteRepeatedStringsOnce() throws IOException {
+        // Arrange: a description outside the preloaded dictionary on every day
+        List<DailyForecast> forecasts = new ArrayList<>();
+        for (DailyForecast forecast : parseForecasts()) {
+            forecasts.add(forecast.toBuilder().description("freezing rain and fog").build());
+        }
+
+        // Act
+        byte[] encoded = codec.encode("forecastWeather", forecasts);
+        Object decoded = codec.decode("forecastWeather", encoded);
+
+        // Assert
+        assertEquals(forecasts, decoded);
+        assertThrows(UnsupportedOperationException.class, () -> ((List<?>) decoded).clear());
+        String payload = new String(encoded, StandardCharsets.ISO_8859_1);
+        assertEquals(payload.indexOf("freezing rain and fog"), payload.lastIndexOf("freezing rain and fog"));
+    }
+
+    @Test
+    void valuesWithNulls_ShouldRoundTrip() throws IOException {
+        // Arrange
+        WeatherData sparse = WeatherData.builder()
+                .cityName("Oslo")
+                .currentWeather(CurrentWeather.builder().temperature(-3.5).build())
+                .dailyForecasts(List.of())
+                .timestamp(LocalDateTime.of(1969, 12, 31, 23, 59, 59, 123_000_000))
+                .build();
+        LocationData location = new IpGeolocationResponseParser(objectMapper, new SimpleMeterRegistry()).parseLocation(
+                new String(read("ipgeolocation.json"), StandardCharsets.UTF_8), "84.208.20.110");
+        CityLocation cityLocation = new CityLocation("Oslo", null, 59.9139, 10.7522);
+
+        // Act & Assert
+        assertEquals(sparse, codec.decode("currentWeather", codec.encode("currentWeather", sparse)));
+        assertEquals(WeatherData.builder().build(),
+                codec.decode("currentWeather", codec.encode("currentWeather", WeatherData.builder().build())));
+        assertEquals(location, codec.decode("ipLocation", codec.encode("ipLocation", location)));
+        assertEquals(cityLocation, codec.decode("cityCoordinates", codec.encode("cityCoordinates", cityLocation)));
+    }
+
+    @Test
+    void decode_WithOtherVersionOrTruncatedPayload_ShouldFail() throws IOException {
+        // Arrange
+        byte[] encoded = codec.encode("currentWeather", createWeatherData());
+        byte[] otherVersion = encoded.clone();
+        otherVersion[0] = (byte) (BinaryCacheValueCodec.VERSION + 1);
+        byte[] truncated = Arrays.copyOf(encoded, encoded.length - 3);
+
+        // Act & Assert
+        assertThrows(IOException.class, () -> codec.decode("currentWeather", otherVersion));
+        assertThrows(IOException.class, () -> codec.decode("currentWeather", truncated));
+        assertThrows(IOException.class, () -> codec.decode("currentWeather", "{\"cityName\":\"Oslo\"}".getBytes()));
+    }
+
+    @Test
+    void decode_WithForecastCountBeyondPayload_ShouldFail() throws IOException {
+        // Arrange: the header of an encoded list followed by a count of 2^31 as a varint
+        byte[] encoded = codec.encode("forecastWeather", List.of());
+        byte[] corrupt = {encoded[0], encoded[1], (byte) 0x81, (byte) 0x80, (byte) 0x80, (byte) 0x80, 0x08};
+
+        // Act & Assert
+        assertThrows(IOException.class, () -> codec.decode("forecastWeather", corrupt));
+    }
+
+    private WeatherData createWeatherData() throws IOException {
+        try (InputStream body = stream("openweather-current.json")) {
+            return responseParser.parseCurrentWeather(body).toBuilder()
+                    .dailyForecasts(parseForecasts())
+                    .build();
+        }
+    }
+
+    private List<DailyForecast> parseForecasts() throws IOException {
+        try (InputStream body = stream("openweather-onecall.json")) {
+            return responseParser.parseDailyForecast(body, 8);
+        }
+    }
+
+    private static InputStream stream(String name) {
+        return BinaryCacheValueCodecTest.class.getResourceAsStream("/payloads/" + name);
+    }
+
+    private static byte[] read(String name) throws IOException {
+        try (InputStream in = stream(name)) {
+            return in.readAllBytes();
+        }
+    }
+}
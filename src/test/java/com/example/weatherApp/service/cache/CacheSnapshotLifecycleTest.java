@@ -0,0 +1,62 @@
+package com.example.weatherApp.service.cache;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.DefaultApplicationArguments;
+
+import java.io.InterruptedIOException;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class CacheSnapshotLifecycleTest {
+
+    private final CacheSnapshotter snapshotter = mock(CacheSnapshotter.class);
+
+    @Test
+    void stop_DuringSlowRestore_ShouldNotOverwriteTheSnapshot() throws Exception {
+        // Arrange: the restore outlasts its timeout and runs on until it is interrupted
+        CountDownLatch never = new CountDownLatch(1);
+        when(snapshotter.restore()).thenAnswer(invocation -> {
+            try {
+                never.await();
+                return 0;
+            } catch (InterruptedException e) {
+                throw new InterruptedIOException("Cache snapshot restore interrupted");
+            }
+        });
+        CacheSnapshotLifecycle lifecycle = lifecycle();
+        lifecycle.start();
+        lifecycle.run(new DefaultApplicationArguments());
+
+        // Act
+        lifecycle.stop();
+
+        // Assert
+        verify(snapshotter, never()).snapshot();
+    }
+
+    @Test
+    void stop_AfterRestore_ShouldWriteTheSnapshot() throws Exception {
+        // Arrange
+        when(snapshotter.restore()).thenReturn(3);
+        CacheSnapshotLifecycle lifecycle = lifecycle();
+        lifecycle.start();
+        lifecycle.run(new DefaultApplicationArguments());
+
+        // Act
+        lifecycle.stop();
+
+        // Assert
+        verify(snapshotter).snapshot();
+    }
+
+    private CacheSnapshotLifecycle lifecycle() {
+        return new CacheSnapshotLifecycle(snapshotter, Duration.ofHours(1), Duration.ofMillis(100),
+                Executors.defaultThreadFactory());
+    }
+}
@@ -0,0 +1,164 @@
+package com.example.weatherApp.service.cache;
+
+import com.example.weatherApp.config.CacheConfig;
+import com.example.weatherApp.config.CacheProperties;
+import com.example.weatherApp.model.LocationData;
+import com.example.weatherApp.model.WeatherData;
+import com.github.benmanes.caffeine.cache.Cache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.cache.CacheManager;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.after;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class CacheSnapshotterTest {
+
+    private static final Instant NOW = Instant.parse("2024-03-01T12:00:00Z");
+    private static final List<String> CACHES = List.of("currentWeather", "ipLocation");
+
+    private final CacheConfig cacheConfig = new CacheConfig();
+
+    @TempDir
+    Path directory;
+
+    @AfterEach
+    void tearDown() {
+        cacheConfig.destroy();
+    }
+
+    @Test
+    void restore_ShouldReloadEntriesWithTheirRemainingTtl() throws IOException {
+        // Arrange
+        CacheSnapshotStore store = new FileCacheSnapshotStore(directory.resolve("snapshot.bin"));
+        CacheManager running = cacheManager();
+        WeatherData weatherData = WeatherData.builder()
+                .cityName("Oslo")
+                .countryCode("NO")
+                .timestamp(LocalDateTime.of(2024, 3, 1, 12, 0))
+                .build();
+        LocationData location = LocationData.builder().city("Oslo").ipAddress("84.208.20.110").build();
+        running.getCache("currentWeather").put(new CityKey("oslo", "NO"), weatherData);
+        running.getCache("currentWeather").put(new CoordinatesKey(59.91, 10.75), weatherData);
+        running.getCache("ipLocation").put("84.208.20.110", location);
+        assertEquals(3, new CacheSnapshotter(running, store, CACHES, clockAt(NOW)).snapshot());
+
+        CacheManager restarted = cacheManager();
+
+        // Act
+        int restored = new CacheSnapshotter(restarted, store, CACHES, clockAt(NOW.plus(Duration.ofMinutes(10))))
+                .restore();
+
+        // Assert
+        assertEquals(3, restored);
+        assertEquals(weatherData, restarted.getCache("currentWeather").get(new CityKey("oslo", "NO")).get());
+        assertEquals(weatherData, restarted.getCache("currentWeather").get(new CoordinatesKey(59.91, 10.75)).get());
+        assertEquals(location, restarted.getCache("ipLocation").get("84.208.20.110").get());
+        Duration remaining = nativeCache(restarted, "ipLocation").policy().expireVariably().orElseThrow()
+                .getExpiresAfter("84.208.20.110").orElseThrow();
+        assertTrue(remaining.compareTo(Duration.ofMinutes(50)) <= 0, "remaining " + remaining);
+    }
+
+    @Test
+    void restore_ShouldDropExpiredEntriesAndKeepNewerOnes() throws IOException {
+        // Arrange
+        CacheSnapshotStore store = new FileCacheSnapshotStore(directory.resolve("snapshot.bin"));
+        CacheManager running = cacheManager();
+        running.getCache("ipLocation").put("84.208.20.110", LocationData.builder().city("Oslo").build());
+        running.getCache("ipLocation").put("8.8.8.8", LocationData.builder().city("Mountain View").build());
+        new CacheSnapshotter(running, store, CACHES, clockAt(NOW)).snapshot();
+
+        CacheManager restarted = cacheManager();
+        LocationData newer = LocationData.builder().city("Bergen").build();
+        restarted.getCache("ipLocation").put("84.208.20.110", newer);
+
+        // Act: the default hard TTL is 1h
+        int afterExpiry = new CacheSnapshotter(restarted, store, CACHES, clockAt(NOW.plus(Duration.ofHours(2))))
+                .restore();
+        int beforeExpiry = new CacheSnapshotter(restarted, store, CACHES, clockAt(NOW)).restore();
+
+        // Assert: the newer entry was kept and is not counted as restored
+        assertEquals(0, afterExpiry);
+        assertEquals(1, beforeExpiry);
+        assertEquals(newer, restarted.getCache("ipLocation").get("84.208.20.110").get());
+        assertEquals("Mountain View",
+                ((LocationData) restarted.getCache("ipLocation").get("8.8.8.8").get()).getCity());
+    }
+
+    @Test
+    void restore_WhenEntryExpiresBeforeItsSoftTtl_ShouldRefreshIt() throws IOException {
+        // Arrange: a 45m soft TTL within the 1h hard TTL
+        CacheProperties properties = new CacheProperties();
+        CacheProperties.CacheSpec spec = new CacheProperties.CacheSpec();
+        spec.setSoftTtl(Duration.ofMinutes(45));
+        properties.getSpecs().put("currentWeather", spec);
+        CacheSnapshotStore store = new FileCacheSnapshotStore(directory.resolve("snapshot.bin"));
+        CityKey oslo = new CityKey("oslo", "NO");
+        CacheManager running = cacheManager(properties, mock(CacheRefresher.class));
+        running.getCache("currentWeather").put(oslo, WeatherData.builder().cityName("Oslo").build());
+        new CacheSnapshotter(running, store, CACHES, clockAt(NOW)).snapshot();
+
+        CacheRefresher lateRefresher = mock(CacheRefresher.class);
+        when(lateRefresher.reload("currentWeather", oslo)).thenReturn(WeatherData.builder().cityName("Oslo").build());
+        CacheRefresher earlyRefresher = mock(CacheRefresher.class);
+
+        // Act: with 30m left the entry would expire before its refresh, with 55m left it would not
+        new CacheSnapshotter(cacheManager(properties, lateRefresher), store, CACHES,
+                clockAt(NOW.plus(Duration.ofMinutes(30)))).restore();
+        new CacheSnapshotter(cacheManager(properties, earlyRefresher), store, CACHES,
+                clockAt(NOW.plus(Duration.ofMinutes(5)))).restore();
+
+        // Assert
+        verify(lateRefresher, timeout(2000)).reload("currentWeather", oslo);
+        verify(earlyRefresher, after(200).never()).reload("currentWeather", oslo);
+    }
+
+    @Test
+    void restore_WithoutSnapshot_ShouldRestoreNothing() throws IOException {
+        // Arrange
+        CacheSnapshotter snapshotter = new CacheSnapshotter(cacheManager(),
+                new FileCacheSnapshotStore(directory.resolve("missing.bin")), CACHES, clockAt(NOW));
+
+        // Act & Assert
+        assertEquals(0, snapshotter.restore());
+        assertNull(new FileCacheSnapshotStore(directory.resolve("missing.bin")).read());
+    }
+
+    private CacheManager cacheManager() {
+        return cacheManager(new CacheProperties(), mock(CacheRefresher.class));
+    }
+
+    private CacheManager cacheManager(CacheProperties properties, CacheRefresher refresher) {
+        return cacheConfig.cacheManager(properties, refresher, new MockEnvironment(),
+                new StaticListableBeanFactory().getBeanProvider(SharedCache.class),
+                new SimpleMeterRegistry());
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Cache<Object, Object> nativeCache(CacheManager cacheManager, String cacheName) {
+        return (Cache<Object, Object>) cacheManager.getCache(cacheName).getNativeCache();
+    }
+
+    private static Clock clockAt(Instant instant) {
+        return Clock.fixed(instant, ZoneOffset.UTC);
+    }
+}
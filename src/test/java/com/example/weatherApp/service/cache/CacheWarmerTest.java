@@ -0,0 +1,101 @@
+package com.example.weatherApp.service.cache;
+
+import com.example.weatherApp.config.CacheConfig;
+import com.example.weatherApp.config.CacheProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.cache.CacheManager;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class CacheWarmerTest {
+
+    private final CacheConfig cacheConfig = new CacheConfig();
+    private final WeatherCacheKeys cacheKeys = new WeatherCacheKeys(new ExactKeyStrategy());
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final CacheRefresher refresher = mock(CacheRefresher.class);
+
+    @AfterEach
+    void tearDown() {
+        cacheConfig.destroy();
+    }
+
+    @Test
+    void warm_ShouldReloadExpiringEntriesOfHottestLocationsWithinBudget() {
+        // Arrange: two upstream calls per run
+        CacheProperties properties = new CacheProperties();
+        properties.getPrewarm().setEnabled(true);
+        properties.getPrewarm().setUpstreamCallsPerMinute(2);
+        CacheManager cacheManager = cacheManager(properties);
+        HotLocationTracker hotLocations = new HotLocationTracker(cacheKeys, properties);
+        record(hotLocations, 59.91, 10.75, 5);
+        record(hotLocations, 60.39, 5.32, 3);
+        record(hotLocations, 69.65, 18.96, 1);
+
+        // Oslo's current weather is fresh, its forecast has expired
+        cacheManager.getCache("currentWeather").put(cacheKeys.coordinates(59.91, 10.75), "fresh");
+        when(refresher.reload(anyString(), any())).thenReturn("reloaded");
+
+        CacheWarmer warmer = new CacheWarmer(hotLocations, cacheManager, refresher, meterRegistry,
+                properties.getPrewarm(), new CustomizableThreadFactory("test-prewarm-"));
+
+        // Act
+        int reloaded = warmer.warm();
+
+        // Assert
+        assertEquals(2, reloaded);
+        verify(refresher).reload("forecastWeather", cacheKeys.forecast(59.91, 10.75, 5));
+        verify(refresher).reload("currentWeather", cacheKeys.coordinates(60.39, 5.32));
+        verify(refresher, never()).reload("currentWeather", cacheKeys.coordinates(59.91, 10.75));
+        verify(refresher, times(2)).reload(anyString(), any());
+        assertEquals("reloaded", cacheManager.getCache("forecastWeather")
+                .get(cacheKeys.forecast(59.91, 10.75, 5)).get());
+        assertEquals(1, meterRegistry.get("weather.cache.prewarm.budget.exhausted").counter().count());
+    }
+
+    @Test
+    void warm_WhenReloadFails_ShouldCountFailureAndContinue() {
+        // Arrange
+        CacheProperties properties = new CacheProperties();
+        properties.getPrewarm().setEnabled(true);
+        HotLocationTracker hotLocations = new HotLocationTracker(cacheKeys, properties);
+        record(hotLocations, 59.91, 10.75, 1);
+        when(refresher.reload("currentWeather", cacheKeys.coordinates(59.91, 10.75)))
+                .thenThrow(new IllegalStateException("upstream down"));
+        when(refresher.reload("forecastWeather", cacheKeys.forecast(59.91, 10.75, 5))).thenReturn("reloaded");
+
+        CacheWarmer warmer = new CacheWarmer(hotLocations, cacheManager(properties), refresher, meterRegistry,
+                properties.getPrewarm(), new CustomizableThreadFactory("test-prewarm-"));
+
+        // Act
+        int reloaded = warmer.warm();
+
+        // Assert
+        assertEquals(1, reloaded);
+        assertEquals(1, meterRegistry.get("weather.cache.prewarm.reloads")
+                .tag("cache", "currentWeather").tag("outcome", "failure").counter().count());
+    }
+
+    private CacheManager cacheManager(CacheProperties properties) {
+        return cacheConfig.cacheManager(properties, refresher, new MockEnvironment(),
+                new StaticListableBeanFactory().getBeanProvider(SharedCache.class),
+                new SimpleMeterRegistry());
+    }
+
+    private static void record(HotLocationTracker hotLocations, double latitude, double longitude, int times) {
+        for (int i = 0; i < times; i++) {
+            hotLocations.record(latitude, longitude, 5);
+        }
+    }
+}
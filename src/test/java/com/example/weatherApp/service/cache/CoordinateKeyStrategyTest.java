@@ -0,0 +1,96 @@
+package com.example.weatherApp.service.cache;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class CoordinateKeyStrategyTest {
+
+    @Test
+    void exact_ShouldKeepCoordinates() {
+        // Arrange
+        CoordinateKeyStrategy strategy = new ExactKeyStrategy();
+
+        // Act & Assert
+        assertEquals(new CoordinatesKey(59.9139, 10.7522), strategy.key(59.9139, 10.7522));
+        assertNotEquals(strategy.key(59.9139, 10.7522), strategy.key(59.9140, 10.7522));
+        assertEquals("exact", strategy.precision());
+    }
+
+    @Test
+    void grid_ShouldShareKeyWithinCellAndKeepCenterStable() {
+        // Arrange
+        CoordinateKeyStrategy strategy = new GridKeyStrategy(0.01);
+
+        // Act
+        CoordinatesKey key = strategy.key(59.9139, 10.7522);
+
+        // Assert
+        assertEquals(key, strategy.key(59.9140, 10.7529));
+        assertNotEquals(key, strategy.key(59.9201, 10.7522));
+        assertEquals(key, strategy.key(key.latitude(), key.longitude()));
+        assertEquals(59.915, key.latitude(), 1e-9);
+        assertEquals(10.755, key.longitude(), 1e-9);
+        assertEquals("grid-0.01", strategy.precision());
+    }
+
+    @Test
+    void grid_ShouldKeepPolesAndAntimeridianInRange() {
+        // Arrange: at 0.88 the last latitude cell's center would be 90.2
+        CoordinateKeyStrategy strategy = new GridKeyStrategy(0.01);
+        CoordinateKeyStrategy uneven = new GridKeyStrategy(0.88);
+
+        // Act
+        CoordinatesKey north = strategy.key(90, 180);
+        CoordinatesKey south = strategy.key(-90, -180);
+        CoordinatesKey unevenNorth = uneven.key(90, 180);
+        CoordinatesKey unevenSouth = uneven.key(-90, -180);
+
+        // Assert
+        assertEquals(89.995, north.latitude(), 1e-9);
+        assertEquals(179.995, north.longitude(), 1e-9);
+        assertEquals(-89.995, south.latitude(), 1e-9);
+        assertEquals(-179.995, south.longitude(), 1e-9);
+        assertEquals(north, strategy.key(north.latitude(), north.longitude()));
+        assertEquals(90, unevenNorth.latitude(), 1e-9);
+        assertEquals(179.96, unevenNorth.longitude(), 1e-9);
+        assertEquals(-90, unevenSouth.latitude(), 1e-9);
+        assertEquals(-179.96, unevenSouth.longitude(), 1e-9);
+        assertEquals(unevenNorth, uneven.key(unevenNorth.latitude(), unevenNorth.longitude()));
+    }
+
+    @Test
+    void geohash_ShouldSnapToCenterOfGeohashCell() {
+        // Arrange: 57.64911, 10.40744 is in geohash cell "u4pruy" (57.645263..57.650757, 10.404053..10.415039)
+        CoordinateKeyStrategy strategy = new GeohashKeyStrategy(6);
+
+        // Act
+        CoordinatesKey key = strategy.key(57.64911, 10.40744);
+
+        // Assert
+        assertEquals(57.648010, key.latitude(), 1e-6);
+        assertEquals(10.409546, key.longitude(), 1e-6);
+        assertEquals(key, strategy.key(57.6460, 10.4140));
+        assertEquals(key, strategy.key(key.latitude(), key.longitude()));
+        assertEquals("geohash-6", strategy.precision());
+    }
+
+    @Test
+    void geohash_ShouldKeepPolesAndAntimeridianInRange() {
+        // Arrange
+        CoordinateKeyStrategy strategy = new GeohashKeyStrategy(1);
+
+        // Act
+        CoordinatesKey north = strategy.key(90, 180);
+        CoordinatesKey south = strategy.key(-90, -180);
+
+        // Assert
+        assertEquals(67.5, north.latitude(), 1e-9);
+        assertEquals(157.5, north.longitude(), 1e-9);
+        assertEquals(-67.5, south.latitude(), 1e-9);
+        assertEquals(-157.5, south.longitude(), 1e-9);
+        assertThrows(IllegalArgumentException.class, () -> new GeohashKeyStrategy(13));
+    }
+}
@@ -0,0 +1,94 @@
+package com.example.weatherApp.service.cache;
+
+import com.example.weatherApp.config.CacheProperties;
+import com.example.weatherApp.model.Coordinates;
+import com.example.weatherApp.model.WeatherData;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class RenderedPageCacheTest {
+
+    private static final LocalDateTime FETCHED = LocalDateTime.of(2024, 1, 15, 12, 0);
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final AtomicInteger renders = new AtomicInteger();
+
+    @Test
+    void get_ForTwoCoordinatesInOneCell_ShouldRenderOnce() {
+        // Arrange: geohash keys put the two requested points in one cell, the responses carry
+        // the same cached entries but each caller's own coordinates
+        RenderedPageCache renderedPages = renderedPages(true);
+        WeatherData oslo = weatherData(59.9139, 10.7522, FETCHED);
+        WeatherData osloNearby = weatherData(59.9127, 10.7461, FETCHED);
+
+        // Act
+        String first = page(renderedPages, oslo);
+        String second = page(renderedPages, osloNearby);
+
+        // Assert
+        assertEquals("page 1", first);
+        assertEquals("page 1", second);
+        assertEquals(1, renders.get());
+        assertEquals(1, meterRegistry.get("weather.pages.rendered").tag("reason", "new").counter().count());
+        assertEquals(0, meterRegistry.get("weather.pages.rendered").tag("reason", "outdated").counter().count());
+    }
+
+    @Test
+    void get_WhenTheEntryWasRefreshed_ShouldRenderAgain() {
+        // Arrange
+        RenderedPageCache renderedPages = renderedPages(true);
+        page(renderedPages, weatherData(59.9139, 10.7522, FETCHED));
+
+        // Act
+        String refreshed = page(renderedPages, weatherData(59.9139, 10.7522, FETCHED.plusMinutes(10)));
+
+        // Assert: the refreshed version replaced the page, also for the rest of the cell
+        assertEquals("page 2", refreshed);
+        assertEquals("page 2", page(renderedPages, weatherData(59.9127, 10.7461, FETCHED.plusMinutes(10))));
+        assertEquals(1, renderedPages.size());
+        assertEquals(1, meterRegistry.get("weather.pages.rendered").tag("reason", "outdated").counter().count());
+    }
+
+    @Test
+    void get_WhenDisabled_ShouldRenderEveryTime() {
+        // Arrange
+        RenderedPageCache renderedPages = renderedPages(false);
+        WeatherData oslo = weatherData(59.9139, 10.7522, FETCHED);
+
+        // Act
+        page(renderedPages, oslo);
+        String second = page(renderedPages, oslo);
+
+        // Assert
+        assertEquals("page 2", second);
+        assertEquals(0, renderedPages.size());
+    }
+
+    private RenderedPageCache renderedPages(boolean enabled) {
+        CacheProperties cacheProperties = new CacheProperties();
+        cacheProperties.getRenderedPages().setEnabled(enabled);
+        return new RenderedPageCache(new WeatherCacheKeys(new GeohashKeyStrategy(6)), new WeatherVersions(),
+                cacheProperties, meterRegistry);
+    }
+
+    private String page(RenderedPageCache renderedPages, WeatherData weatherData) {
+        byte[] html = renderedPages.get(weatherData, 5, Locale.ENGLISH,
+                () -> ("page " + renders.incrementAndGet()).getBytes(StandardCharsets.UTF_8));
+        return new String(html, StandardCharsets.UTF_8);
+    }
+
+    private static WeatherData weatherData(double latitude, double longitude, LocalDateTime timestamp) {
+        return WeatherData.builder()
+                .cityName("Oslo")
+                .coordinates(new Coordinates(latitude, longitude))
+                .timestamp(timestamp)
+                .build();
+    }
+}
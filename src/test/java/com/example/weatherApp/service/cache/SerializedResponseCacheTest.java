@@ -0,0 +1,103 @@
+package com.example.weatherApp.service.cache;
+
+import com.example.weatherApp.controller.PreSerializedJsonHttpMessageConverter;
+import com.example.weatherApp.model.Coordinates;
+import com.example.weatherApp.model.CurrentWeather;
+import com.example.weatherApp.model.DailyForecast;
+import com.example.weatherApp.model.WeatherData;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.mock.http.MockHttpOutputMessage;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+public class SerializedResponseCacheTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final SerializedResponseCache serializedResponses = new SerializedResponseCache(objectMapper,
+            1024 * 1024, Duration.ofHours(1), meterRegistry);
+
+    @Test
+    void get_ShouldEncodeEachCachedPartOnce() throws Exception {
+        // Arrange: two callers in one cell get the same cached parts with their own coordinates
+        CurrentWeather currentWeather = CurrentWeather.builder().temperature(12.5).description("clear sky").build();
+        List<DailyForecast> forecasts = List.of(DailyForecast.builder()
+                .date(LocalDate.of(2024, 1, 16)).minTemperature(-3.0).maxTemperature(2.5).build());
+        WeatherData first = weatherData(59.9139, 10.7522, currentWeather, forecasts);
+        WeatherData second = weatherData(59.9127, 10.7461, currentWeather, forecasts);
+
+        // Act
+        byte[] firstJson = serializedResponses.get(first);
+        byte[] secondJson = serializedResponses.get(second);
+
+        // Assert: spliced, the responses are what Jackson writes
+        assertArrayEquals(objectMapper.writeValueAsBytes(first), firstJson);
+        assertArrayEquals(objectMapper.writeValueAsBytes(second), secondJson);
+        assertEquals(2, serializedResponses.size());
+        assertEquals(2, gets("miss"));
+        assertEquals(2, gets("hit"));
+    }
+
+    @Test
+    void get_WhenThePartWasRefreshed_ShouldEncodeItAgain() throws Exception {
+        // Arrange
+        serializedResponses.get(weatherData(59.9139, 10.7522,
+                CurrentWeather.builder().temperature(12.5).build(), List.of()));
+        WeatherData refreshed = weatherData(59.9139, 10.7522,
+                CurrentWeather.builder().temperature(14.0).build(), List.of());
+
+        // Act
+        byte[] json = serializedResponses.get(refreshed);
+
+        // Assert
+        assertArrayEquals(objectMapper.writeValueAsBytes(refreshed), json);
+        assertEquals(3, gets("miss"));
+    }
+
+    @Test
+    void write_ShouldWriteTheCachedBytesWithTheirLength() throws Exception {
+        // Arrange
+        PreSerializedJsonHttpMessageConverter converter = new PreSerializedJsonHttpMessageConverter(serializedResponses);
+        WeatherData weatherData = weatherData(59.91, 10.75, CurrentWeather.builder().temperature(3.0).build(),
+                List.of());
+        MockHttpOutputMessage outputMessage = new MockHttpOutputMessage();
+
+        // Act
+        converter.write(weatherData, MediaType.APPLICATION_JSON, outputMessage);
+
+        // Assert
+        byte[] json = serializedResponses.get(weatherData);
+        assertArrayEquals(json, outputMessage.getBodyAsBytes());
+        assertEquals(json.length, outputMessage.getHeaders().getContentLength());
+        assertEquals(MediaType.APPLICATION_JSON, outputMessage.getHeaders().getContentType());
+        assertFalse(converter.canRead(WeatherData.class, MediaType.APPLICATION_JSON));
+    }
+
+    private double gets(String result) {
+        return meterRegistry.get("cache.gets").tag("cache", "serializedResponses")
+                .tag("result", result).functionCounter().count();
+    }
+
+    private static WeatherData weatherData(double latitude, double longitude, CurrentWeather currentWeather,
+                                           List<DailyForecast> forecasts) {
+        return WeatherData.builder()
+                .cityName("Oslo")
+                .countryCode("NO")
+                .coordinates(new Coordinates(latitude, longitude))
+                .currentWeather(currentWeather)
+                .dailyForecasts(forecasts)
+                .timestamp(LocalDateTime.of(2024, 1, 15, 12, 0))
+                .build();
+    }
+}
@@ -0,0 +1,93 @@
+package com.example.weatherApp.service.cache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.web.client.RestClientException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class SingleFlightCaffeineCacheTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void get_ConcurrentMissesForSameKey_ShouldLoadOnceOnTheCallingThread() throws Exception {
+        // Arrange: the cache executor is never used for loads
+        ExecutorService cacheExecutor = Executors.newSingleThreadExecutor(runnable -> new Thread(runnable, "cache-pool"));
+        SingleFlightCaffeineCache cache = cache(Caffeine.newBuilder().executor(cacheExecutor));
+        int callers = 8;
+        AtomicInteger loads = new AtomicInteger();
+        List<String> loadThreads = new ArrayList<>();
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(callers, runnable -> new Thread(runnable, "caller"));
+
+        // Act
+        List<Future<String>> results = new ArrayList<>();
+        for (int i = 0; i < callers; i++) {
+            results.add(executor.submit(() -> cache.get("oslo", () -> {
+                loads.incrementAndGet();
+                loadThreads.add(Thread.currentThread().getName());
+                await(release);
+                return "Oslo";
+            })));
+        }
+        while (cache.getCoalescedCount() < callers - 1) {
+            Thread.onSpinWait();
+        }
+        release.countDown();
+
+        // Assert
+        for (Future<String> result : results) {
+            assertEquals("Oslo", result.get(5, TimeUnit.SECONDS));
+        }
+        assertEquals(1, loads.get());
+        assertEquals(List.of("caller"), loadThreads);
+        assertEquals("Oslo", cache.get("oslo", String.class));
+        assertEquals(1, meterRegistry.get("weather.cache.load").tag("cache", "currentWeather").timer().count());
+        executor.shutdown();
+        cacheExecutor.shutdown();
+    }
+
+    @Test
+    void get_AfterFailure_ShouldRethrowAndLoadAgain() {
+        // Arrange
+        SingleFlightCaffeineCache cache = cache(Caffeine.newBuilder());
+        RestClientException failure = new RestClientException("upstream down");
+
+        // Act
+        Cache.ValueRetrievalException exception = assertThrows(Cache.ValueRetrievalException.class,
+                () -> cache.get("oslo", () -> {
+                    throw failure;
+                }));
+
+        // Assert
+        assertInstanceOf(RestClientException.class, exception.getCause());
+        assertEquals("Oslo", cache.get("oslo", () -> "Oslo"));
+        assertEquals(2, cache.getExecutedCount());
+    }
+
+    private SingleFlightCaffeineCache cache(Caffeine<Object, Object> builder) {
+        return new SingleFlightCaffeineCache("currentWeather", builder.buildAsync(), true, meterRegistry);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
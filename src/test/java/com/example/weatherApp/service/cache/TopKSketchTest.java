@@ -0,0 +1,52 @@
+package com.example.weatherApp.service.cache;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class TopKSketchTest {
+
+    @Test
+    void top_ShouldKeepHeavyHittersWithinCapacity() {
+        // Arrange: three hot keys among a long tail of keys seen once
+        TopKSketch<String> sketch = new TopKSketch<>(10);
+
+        // Act
+        for (int i = 0; i < 1000; i++) {
+            sketch.offer("oslo");
+            if (i % 2 == 0) {
+                sketch.offer("bergen");
+            }
+            if (i % 4 == 0) {
+                sketch.offer("tromso");
+            }
+            sketch.offer("tail-" + i);
+        }
+
+        // Assert
+        assertEquals(List.of("oslo", "bergen", "tromso"), sketch.top(3));
+        assertEquals(10, sketch.size());
+        assertTrue(sketch.count("oslo") >= 1000);
+    }
+
+    @Test
+    void decay_ShouldHalveCountsAndDropKeysReachingZero() {
+        // Arrange
+        TopKSketch<String> sketch = new TopKSketch<>(10);
+        for (int i = 0; i < 8; i++) {
+            sketch.offer("oslo");
+        }
+        sketch.offer("bergen");
+
+        // Act
+        sketch.decay();
+
+        // Assert
+        assertEquals(4, sketch.count("oslo"));
+        assertEquals(0, sketch.count("bergen"));
+        assertEquals(List.of("oslo"), sketch.top(5));
+    }
+}
@@ -0,0 +1,145 @@
+package com.example.weatherApp.service.cache;
+
+import com.example.weatherApp.model.Coordinates;
+import com.example.weatherApp.model.WeatherData;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.caffeine.CaffeineCache;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class TwoLevelCacheTest {
+
+    private static final String CACHE_NAME = "currentWeather";
+
+    private final InMemorySharedCacheStore store = new InMemorySharedCacheStore();
+    private final ExecutorService writeExecutor = Executors.newSingleThreadExecutor();
+    private final CityKey key = new CityKey("oslo", null);
+
+    @AfterEach
+    void tearDown() {
+        writeExecutor.shutdownNow();
+    }
+
+    @Test
+    void get_OnLocalMiss_ShouldReadThroughToSharedLevelAndKeepValue() throws Exception {
+        // Arrange: two nodes share the store
+        SharedCache sharedCache = sharedCache(store);
+        TwoLevelCache node1 = twoLevelCache(sharedCache);
+        TwoLevelCache node2 = twoLevelCache(sharedCache);
+        MeterRegistry registry = new SimpleMeterRegistry();
+        new TwoLevelCacheMeterBinderProvider().getMeterBinder(node2, Tags.empty()).bindTo(registry);
+
+        // Act
+        node1.put(key, createWeatherData());
+        awaitWrites();
+        WeatherData shared = node2.get(key, WeatherData.class);
+        store.delete(SharedCache.id(CACHE_NAME, key));
+        WeatherData local = node2.get(key, WeatherData.class);
+
+        // Assert
+        assertEquals(createWeatherData(), shared);
+        assertEquals(shared, local);
+        assertEquals(1, registry.get("cache.gets").tags("level", "l2", "result", "hit").functionCounter().count());
+        assertEquals(1, registry.get("cache.gets").tags("level", "l1", "result", "hit").functionCounter().count());
+    }
+
+    @Test
+    void get_WithValueLoader_ShouldLoadOnceAndShareResult() throws Exception {
+        // Arrange
+        SharedCache sharedCache = sharedCache(store);
+        TwoLevelCache node1 = twoLevelCache(sharedCache);
+        TwoLevelCache node2 = twoLevelCache(sharedCache);
+        AtomicInteger loads = new AtomicInteger();
+
+        // Act
+        node1.get(key, () -> {
+            loads.incrementAndGet();
+            return createWeatherData();
+        });
+        awaitWrites();
+        WeatherData result = node2.get(key, () -> {
+            loads.incrementAndGet();
+            return createWeatherData();
+        });
+
+        // Assert
+        assertEquals(1, loads.get());
+        assertEquals(createWeatherData(), result);
+    }
+
+    @Test
+    void retrieve_OnLocalMiss_ShouldReadSharedLevelBeforeLoading() throws Exception {
+        // Arrange
+        SharedCache sharedCache = sharedCache(store);
+        twoLevelCache(sharedCache).put(key, createWeatherData());
+        awaitWrites();
+        TwoLevelCache node2 = twoLevelCache(sharedCache);
+
+        // Act
+        CompletableFuture<WeatherData> result = node2.retrieve(key,
+                () -> CompletableFuture.failedFuture(new AssertionError("should not load")));
+
+        // Assert
+        assertEquals(createWeatherData(), result.get(2, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void get_WhenSharedStoreFails_ShouldTreatAsMiss() {
+        // Arrange
+        SharedCacheStore failingStore = mock(SharedCacheStore.class);
+        when(failingStore.get(anyString())).thenThrow(new IllegalStateException("table not found"));
+        TwoLevelCache cache = twoLevelCache(sharedCache(failingStore));
+        MeterRegistry registry = new SimpleMeterRegistry();
+        new TwoLevelCacheMeterBinderProvider().getMeterBinder(cache, Tags.empty()).bindTo(registry);
+
+        // Act & Assert
+        assertNull(cache.get(key));
+        assertEquals(1, registry.get("weather.cache.shared.errors").tag("operation", "read").functionCounter().count());
+    }
+
+    private SharedCache sharedCache(SharedCacheStore sharedStore) {
+        ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+        return new SharedCache(sharedStore, new JsonCacheValueCodec(objectMapper), writeExecutor, Runnable::run,
+                Map.of(CACHE_NAME, Duration.ofMinutes(45)), Clock.systemUTC());
+    }
+
+    private static TwoLevelCache twoLevelCache(SharedCache sharedCache) {
+        CaffeineCache local = new CaffeineCache(CACHE_NAME, Caffeine.newBuilder().recordStats().buildAsync(), true);
+        return new TwoLevelCache(local, sharedCache);
+    }
+
+    // Shared writes are asynchronous, this waits until the single writer has caught up
+    private void awaitWrites() throws Exception {
+        writeExecutor.submit(() -> { }).get(2, TimeUnit.SECONDS);
+    }
+
+    private static WeatherData createWeatherData() {
+        return WeatherData.builder()
+                .cityName("Oslo")
+                .countryCode("NO")
+                .coordinates(new Coordinates(59.9139, 10.7522))
+                .timestamp(LocalDateTime.of(2024, 1, 15, 12, 0))
+                .build();
+    }
+}
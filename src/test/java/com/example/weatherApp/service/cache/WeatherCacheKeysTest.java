@@ -0,0 +1,46 @@
+package com.example.weatherApp.service.cache;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+public class WeatherCacheKeysTest {
+
+    private final WeatherCacheKeys cacheKeys = new WeatherCacheKeys(new ExactKeyStrategy());
+
+    @Test
+    void city_ShouldFoldCaseAndWhitespace() {
+        // Act
+        CityKey key = cacheKeys.city("Oslo");
+
+        // Assert
+        assertEquals(new CityKey("oslo", null), key);
+        assertEquals(key, cacheKeys.city("oslo "));
+        assertEquals(key, cacheKeys.city("OSLO"));
+        assertEquals(cacheKeys.city("new york"), cacheKeys.city("  New   York"));
+        assertEquals(cacheKeys.city("strasse"), cacheKeys.city("STRAßE"));
+        assertEquals(cacheKeys.city("São Paulo"), cacheKeys.city("SÃO PAULO"));
+    }
+
+    @Test
+    void city_ShouldSplitOffCountrySuffix() {
+        // Act
+        CityKey key = cacheKeys.city("Oslo, no");
+
+        // Assert
+        assertEquals(new CityKey("oslo", "NO"), key);
+        assertEquals(key, cacheKeys.city("OSLO,NO"));
+        assertEquals("oslo,NO", key.query());
+        assertNotEquals(key, cacheKeys.city("Oslo"));
+        assertEquals(new CityKey("washington, d.c.", null), cacheKeys.city("Washington, D.C."));
+    }
+
+    @Test
+    void city_WithSuffixThatIsNoCountry_ShouldKeepItInTheName() {
+        // Act & Assert: US state abbreviations, not ISO country codes
+        assertEquals(new CityKey("washington, dc", null), cacheKeys.city("Washington, DC"));
+        assertEquals(new CityKey("portland, or", null), cacheKeys.city("Portland, OR"));
+        assertEquals(new CityKey("portland", "US"), cacheKeys.city("Portland, us"));
+    }
+}
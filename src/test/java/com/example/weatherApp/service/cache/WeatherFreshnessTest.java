@@ -0,0 +1,58 @@
+package com.example.weatherApp.service.cache;
+
+import com.example.weatherApp.config.CacheConfig;
+import com.example.weatherApp.config.CacheProperties;
+import com.example.weatherApp.model.Coordinates;
+import com.example.weatherApp.model.WeatherData;
+import com.example.weatherApp.model.WeatherSearchRequest;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.cache.CacheManager;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+public class WeatherFreshnessTest {
+
+    private final CacheConfig cacheConfig = new CacheConfig();
+
+    @AfterEach
+    void tearDown() {
+        cacheConfig.destroy();
+    }
+
+    @Test
+    void remaining_ShouldBeTheTimeUntilTheFirstEntryIsRefreshed() {
+        // Arrange: the forecast is refreshed 15 minutes before it expires, the current weather is not
+        CacheProperties cacheProperties = new CacheProperties();
+        CacheProperties.CacheSpec forecastSpec = new CacheProperties.CacheSpec();
+        forecastSpec.setSoftTtl(Duration.ofMinutes(45));
+        cacheProperties.getSpecs().put("forecastWeather", forecastSpec);
+        CacheManager cacheManager = cacheConfig.cacheManager(cacheProperties, mock(CacheRefresher.class),
+                new MockEnvironment(), new StaticListableBeanFactory().getBeanProvider(SharedCache.class),
+                new SimpleMeterRegistry());
+        WeatherCacheKeys cacheKeys = new WeatherCacheKeys(new ExactKeyStrategy());
+        WeatherFreshness freshness = new WeatherFreshness(cacheManager, cacheKeys, cacheProperties);
+
+        WeatherData weatherData = WeatherData.builder().coordinates(new Coordinates(59.91, 10.75)).build();
+        WeatherSearchRequest request = WeatherSearchRequest.builder().latitude("59.91").longitude("10.75").days(5)
+                .build();
+        cacheManager.getCache("currentWeather").put(cacheKeys.coordinates(59.91, 10.75), weatherData);
+        assertNull(freshness.remaining(request, weatherData));
+
+        // Act
+        cacheManager.getCache("forecastWeather").put(cacheKeys.forecast(59.91, 10.75, 5), List.of());
+        Duration remaining = freshness.remaining(request, weatherData);
+
+        // Assert
+        assertTrue(remaining.compareTo(Duration.ofMinutes(45)) <= 0
+                && remaining.compareTo(Duration.ofMinutes(44)) > 0, "remaining " + remaining);
+    }
+}
@@ -0,0 +1,67 @@
+package com.example.weatherApp.service.cache;
+
+import com.example.weatherApp.model.Coordinates;
+import com.example.weatherApp.model.CurrentWeather;
+import com.example.weatherApp.model.DailyForecast;
+import com.example.weatherApp.model.WeatherData;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+public class WeatherVersionsTest {
+
+    private static final LocalDateTime FETCHED = LocalDateTime.of(2024, 1, 15, 12, 0);
+
+    private final WeatherVersions versions = new WeatherVersions();
+
+    @Test
+    void version_ShouldBeEqualForEqualResponses() {
+        // Arrange: equal values in separate instances, as another instance would decode them
+        WeatherData first = weatherData(59.9139, forecast(2.5), FETCHED);
+        WeatherData second = weatherData(59.9139, forecast(2.5), FETCHED);
+
+        // Act & Assert
+        assertEquals(versions.version(first), versions.version(second));
+        assertEquals(32, versions.version(first).length());
+    }
+
+    @Test
+    void version_ShouldChangeWithAnyPartOfTheResponse() {
+        // Arrange
+        WeatherData weatherData = weatherData(59.9139, forecast(2.5), FETCHED);
+        String version = versions.version(weatherData);
+
+        // Act & Assert: the same fetch time with another forecast or location is another version
+        assertNotEquals(version, versions.version(weatherData(59.9139, forecast(3.0), FETCHED)));
+        assertNotEquals(version, versions.version(weatherData(59.9127, forecast(2.5), FETCHED)));
+        assertNotEquals(version, versions.version(weatherData(59.9139, forecast(2.5), FETCHED.plusMinutes(10))));
+        assertNotEquals(version, versions.version(weatherData.toBuilder().dailyForecasts(null).build()));
+        assertNotEquals(versions.version(weatherData.toBuilder().dailyForecasts(null).build()),
+                versions.version(weatherData.toBuilder().dailyForecasts(List.of()).build()));
+    }
+
+    private static List<DailyForecast> forecast(double maxTemperature) {
+        return List.of(DailyForecast.builder()
+                .date(LocalDate.of(2024, 1, 16))
+                .minTemperature(-3.0)
+                .maxTemperature(maxTemperature)
+                .description("light snow")
+                .build());
+    }
+
+    private static WeatherData weatherData(double latitude, List<DailyForecast> forecasts, LocalDateTime timestamp) {
+        return WeatherData.builder()
+                .cityName("Oslo")
+                .countryCode("NO")
+                .coordinates(new Coordinates(latitude, 10.7522))
+                .currentWeather(CurrentWeather.builder().temperature(1.5).description("clear sky").build())
+                .dailyForecasts(forecasts)
+                .timestamp(timestamp)
+                .build();
+    }
+}
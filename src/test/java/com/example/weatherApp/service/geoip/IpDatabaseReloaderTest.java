@@ -0,0 +1,57 @@
+package com.example.weatherApp.service.geoip;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class IpDatabaseReloaderTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void reloadIfChanged_ShouldSwapInChangedFilesAndKeepTheIndexOnBrokenOnes() throws IOException {
+        // Arrange
+        Path database = directory.resolve("ip-locations.csv");
+        write(database, "84.208.0.0,84.208.255.255,NO,Norway,Oslo,59.9127,10.7461\n", 1);
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        LocalIpLocationResolver resolver = new LocalIpLocationResolver(meterRegistry);
+        IpDatabaseReloader reloader = new IpDatabaseReloader(resolver, database, Duration.ofMinutes(1),
+                Executors.defaultThreadFactory());
+        assertNull(resolver.resolve("84.208.20.110"));
+
+        // Act & Assert
+        assertTrue(reloader.reloadIfChanged());
+        assertFalse(reloader.reloadIfChanged());
+        assertEquals("Oslo", resolver.resolve("84.208.20.110").getCity());
+
+        write(database, "84.208.0.0,84.208.255.255,NO,Norway,Bergen,60.3913,5.3221\n", 2);
+        assertTrue(reloader.reloadIfChanged());
+        assertEquals("Bergen", resolver.resolve("84.208.20.110").getCity());
+
+        write(database, "not,a,database\n", 3);
+        assertFalse(reloader.reloadIfChanged());
+        assertEquals("Bergen", resolver.resolve("84.208.20.110").getCity());
+        assertEquals(3, meterRegistry.get("weather.geoip.lookups").tag("result", "hit").counter().count());
+        assertEquals(1, meterRegistry.get("weather.geoip.ranges").gauge().value());
+    }
+
+    // Distinct modification times, file systems may not tell writes within a second apart
+    private static void write(Path path, String content, int version) throws IOException {
+        Files.writeString(path, content);
+        Files.setLastModifiedTime(path, FileTime.from(Instant.parse("2024-03-01T12:00:00Z").plusSeconds(version)));
+    }
+}
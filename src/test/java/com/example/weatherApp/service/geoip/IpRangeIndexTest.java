@@ -0,0 +1,60 @@
+package com.example.weatherApp.service.geoip;
+
+import com.example.weatherApp.model.LocationData;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class IpRangeIndexTest {
+
+    // Unsorted, mixed address forms, one range above 128.0.0.0 where the sign bit is set
+    private static final String DATABASE = """
+            "ip_from","ip_to","country_code","country_name","city_name","latitude","longitude"
+            "84.208.0.0","84.208.255.255","NO","Norway","Oslo","59.9127","10.7461"
+            "134744064","134744319","US","United States of America","Mountain View","37.4056","-122.0775"
+            "1.0.0.0","1.0.0.255","AU","Australia","Brisbane","-27.4679","153.0281"
+            "200.1.2.0","200.1.2.255","BR","Brazil","Sao Paulo, SP","-23.5475","-46.6361"
+            "84.209.0.0","84.209.127.255","NO","Norway","Oslo","59.9127","10.7461"
+            """;
+
+    @Test
+    void lookup_ShouldFindTheRangeContainingTheAddress() throws IOException {
+        // Arrange
+        IpRangeIndex index = IpRangeIndex.parse(new StringReader(DATABASE));
+
+        // Act
+        LocationData oslo = index.lookup("84.208.20.110");
+        LocationData mountainView = index.lookup("8.8.8.8");
+        LocationData saoPaulo = index.lookup("200.1.2.255");
+
+        // Assert
+        assertEquals(5, index.ranges());
+        assertEquals(4, index.locations());
+        assertEquals(LocationData.builder().city("Oslo").country("Norway").countryCode("NO")
+                .latitude(59.9127).longitude(10.7461).ipAddress("84.208.20.110").build(), oslo);
+        assertEquals("Mountain View", mountainView.getCity());
+        assertEquals("Sao Paulo, SP", saoPaulo.getCity());
+        assertEquals("Oslo", index.lookup("84.209.0.0").getCity());
+    }
+
+    @Test
+    void lookup_OutsideAnyRangeOrNotIpv4_ShouldReturnNull() throws IOException {
+        // Arrange
+        IpRangeIndex index = IpRangeIndex.parse(new StringReader(DATABASE));
+
+        // Act & Assert
+        assertNull(index.lookup("0.255.255.255"));
+        assertNull(index.lookup("84.209.128.0"));
+        assertNull(index.lookup("255.255.255.255"));
+        assertNull(index.lookup("2001:4860:4860::8888"));
+        assertNull(index.lookup("84.208.20"));
+        assertNull(index.lookup("84.208.20.256"));
+        assertNull(IpRangeIndex.EMPTY.lookup("84.208.20.110"));
+        assertThrows(IOException.class, () -> IpRangeIndex.parse(new StringReader("1.0.0.9,1.0.0.0,AU")));
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.weatherApp.service.jfr;
+
+import com.example.weatherApp.service.cache.SingleFlightCaffeineCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jdk.jfr.RecordingState;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.actuate.endpoint.web.WebEndpointResponse;
+import org.springframework.cache.Cache;
+import org.springframework.core.io.Resource;
+
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class FlightRecordingEndpointTest {
+
+    private final FlightRecordingEndpoint endpoint = new FlightRecordingEndpoint();
+
+    @AfterEach
+    void tearDown() {
+        endpoint.close();
+    }
+
+    @Test
+    void dump_ShouldContainCacheLoadEventsButNoEnvironment() throws Exception {
+        // Arrange
+        SingleFlightCaffeineCache cache = new SingleFlightCaffeineCache("ipLocation", Caffeine.newBuilder().buildAsync(),
+                true, new SimpleMeterRegistry());
+        assertEquals(RecordingState.RUNNING, endpoint.start(null, null, null).getBody().state());
+        cache.get("203.0.113.7", () -> "Oslo");
+        assertThrows(Cache.ValueRetrievalException.class, () -> cache.get("203.0.113.8", () -> {
+            throw new IllegalStateException("upstream down");
+        }));
+        assertEquals(RecordingState.STOPPED, endpoint.stop().getBody().state());
+
+        // Act
+        WebEndpointResponse<Resource> response = endpoint.dump();
+
+        // Assert
+        assertEquals(WebEndpointResponse.STATUS_OK, response.getStatus());
+        Resource resource = response.getBody();
+        Path file = Files.createTempFile("dump-", ".jfr");
+        try (InputStream in = resource.getInputStream()) {
+            Files.copy(in, file, StandardCopyOption.REPLACE_EXISTING);
+        }
+        assertFalse(resource.exists(), "temporary dump is deleted once read");
+        List<RecordedEvent> events = RecordingFile.readAllEvents(file);
+        Files.delete(file);
+        assertTrue(events.stream().noneMatch(event ->
+                FlightRecordingEndpoint.SECRET_EVENTS.contains(event.getEventType().getName())));
+        List<RecordedEvent> loads = events.stream()
+                .filter(event -> event.getEventType().getName().equals("com.example.weatherApp.CacheOperation"))
+                .toList();
+        assertEquals(2, loads.size());
+        RecordedEvent loaded = loads.stream().filter(event -> event.getString("key").equals("203.0.113.7"))
+                .findFirst().orElseThrow();
+        assertEquals("ipLocation", loaded.getString("cache"));
+        assertEquals("load", loaded.getString("operation"));
+        assertEquals("loaded", loaded.getString("outcome"));
+        assertTrue(loaded.getLong("bytes") > 0);
+        RecordedEvent failed = loads.stream().filter(event -> event.getString("key").equals("203.0.113.8"))
+                .findFirst().orElseThrow();
+        assertEquals("error", failed.getString("outcome"));
+        assertEquals(-1, failed.getLong("bytes"));
+    }
+
+    @Test
+    void dump_WithoutRecording_ShouldBeNotFound() throws Exception {
+        // Act
+        WebEndpointResponse<Resource> response = endpoint.dump();
+
+        // Assert
+        assertEquals(WebEndpointResponse.STATUS_NOT_FOUND, response.getStatus());
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.weatherApp.service.ratelimit;
+
+import com.example.weatherApp.config.ResilienceProperties;
+import com.example.weatherApp.service.cache.StaleValueStore;
+import com.example.weatherApp.service.resilience.Fallbacks;
+import com.example.weatherApp.service.resilience.UpstreamGuard;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.client.HttpClientErrorException;
+
+import java.time.Duration;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class UpstreamQuotaTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final StaleValueStore staleValues = new StaleValueStore(1_000_000, Duration.ofHours(1));
+    private final UpstreamGuard guard = new UpstreamGuard("openWeatherMap", new ResilienceProperties.Dependency(),
+            meterRegistry);
+
+    @Test
+    void call_WhenRateLimited_ShouldFailWithLastFetchedValue() {
+        // Arrange: a burst of one token that does not refill during the test
+        UpstreamRateLimiter rateLimiter = new UpstreamRateLimiter(new LocalTokenBucket(1, 0.0001), 1, 0.0001,
+                Map.of(UpstreamPriority.USER, Duration.ZERO), meterRegistry);
+        UpstreamQuota quota = new UpstreamQuota(guard, rateLimiter, staleValues, Duration.ofSeconds(1), meterRegistry);
+        quota.call("currentWeather", "oslo", () -> "fetched");
+
+        // Act
+        UpstreamBudgetExceededException exception = assertThrows(UpstreamBudgetExceededException.class,
+                () -> quota.call("currentWeather", "oslo", () -> "not called"));
+
+        // Assert
+        assertEquals("fetched", exception.getFallback());
+        assertEquals("fetched", Fallbacks.orFallback(() -> quota.call("currentWeather", "oslo", () -> "not called")));
+        assertEquals(2, meterRegistry.get("weather.upstream.budget.exceeded")
+                .tag("cache", "currentWeather").tag("fallback", "stale").counter().count());
+    }
+
+    @Test
+    void call_WhileWaitingForToken_ShouldNotHoldBulkheadSlot() throws Exception {
+        // Arrange: a bulkhead of one slot and an empty bucket a refresh waits on
+        ResilienceProperties.Dependency settings = new ResilienceProperties.Dependency();
+        settings.setMaxConcurrentCalls(1);
+        settings.setMaxWait(Duration.ZERO);
+        UpstreamGuard smallGuard = new UpstreamGuard("openWeatherMap", settings, meterRegistry);
+        UpstreamRateLimiter rateLimiter = new UpstreamRateLimiter(new LocalTokenBucket(0, 0.0001), 1, 0.0001,
+                Map.of(UpstreamPriority.REFRESH, Duration.ofSeconds(2)), meterRegistry);
+        UpstreamQuota quota = new UpstreamQuota(smallGuard, rateLimiter, staleValues, Duration.ofSeconds(1),
+                meterRegistry);
+        Thread refresh = Thread.ofVirtual().start(() -> assertThrows(UpstreamBudgetExceededException.class,
+                () -> UpstreamPriority.REFRESH.call(() -> quota.call("currentWeather", "oslo", () -> "refreshed"))));
+
+        // Act
+        while (meterRegistry.get("weather.upstream.ratelimit.queue").tag("priority", "refresh").gauge().value() == 0) {
+            Thread.sleep(5);
+        }
+        int available = smallGuard.getBulkhead().getAvailableCalls();
+
+        // Assert
+        assertEquals(1, available);
+        refresh.join(5000);
+        assertEquals(1, smallGuard.getBulkhead().getAvailableCalls());
+    }
+
+    @Test
+    void call_WhenUpstreamAnswers429_ShouldFailWithoutStaleValueForUnknownKey() {
+        // Arrange
+        UpstreamQuota quota = new UpstreamQuota(guard, null, staleValues, Duration.ofSeconds(1), meterRegistry);
+
+        // Act & Assert
+        UpstreamBudgetExceededException exception = assertThrows(UpstreamBudgetExceededException.class,
+                () -> Fallbacks.orFallback(() -> quota.call("currentWeather", "oslo", () -> {
+                    throw HttpClientErrorException.create(HttpStatus.TOO_MANY_REQUESTS, "Too Many Requests",
+                            null, null, null);
+                })));
+        assertNull(exception.getFallback());
+        assertEquals(1, meterRegistry.get("weather.upstream.budget.exceeded")
+                .tag("cache", "currentWeather").tag("fallback", "none").counter().count());
+    }
+}
@@ -0,0 +1,157 @@
+package com.example.weatherApp.service.ratelimit;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class UpstreamRateLimiterTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ManualBucket bucket = new ManualBucket();
+
+    @Test
+    void acquire_WhenBucketIsEmpty_ShouldAdmitUserRequestsBeforeBackgroundWork() throws Exception {
+        // Arrange: a pre-warm call queues first, then a user request
+        UpstreamRateLimiter limiter = limiter(1, Duration.ofSeconds(5));
+        List<UpstreamPriority> admitted = new CopyOnWriteArrayList<>();
+        Thread prefetch = Thread.ofVirtual().start(() -> acquire(limiter, UpstreamPriority.PREFETCH, admitted));
+        awaitQueued(UpstreamPriority.PREFETCH);
+        Thread user = Thread.ofVirtual().start(() -> acquire(limiter, UpstreamPriority.USER, admitted));
+        awaitQueued(UpstreamPriority.USER);
+
+        // Act
+        bucket.tokens.set(1);
+        user.join(2000);
+        bucket.tokens.set(1);
+        prefetch.join(2000);
+
+        // Assert
+        assertEquals(List.of(UpstreamPriority.USER, UpstreamPriority.PREFETCH), admitted);
+    }
+
+    @Test
+    void acquire_WhenNoTokenWithinMaxWait_ShouldReject() {
+        // Arrange
+        UpstreamRateLimiter limiter = limiter(1, Duration.ofMillis(50));
+
+        // Act
+        boolean granted = limiter.acquire(UpstreamPriority.USER);
+
+        // Assert
+        assertFalse(granted);
+        assertEquals(1, meterRegistry.get("weather.upstream.ratelimit.wait")
+                .tag("priority", "user").tag("result", "rejected").timer().count());
+        assertEquals(0, meterRegistry.get("weather.upstream.ratelimit.queue").tag("priority", "user").gauge().value());
+    }
+
+    @Test
+    void acquire_ShouldLeaseTokensFromTheBucketInBatches() {
+        // Arrange
+        UpstreamRateLimiter limiter = limiter(5, Duration.ZERO);
+        bucket.tokens.set(10);
+
+        // Act
+        for (int i = 0; i < 5; i++) {
+            assertTrue(limiter.acquire(UpstreamPriority.USER));
+        }
+
+        // Assert
+        assertEquals(1, bucket.takes.get());
+        assertEquals(5, meterRegistry.get("weather.upstream.ratelimit.tokens").gauge().value());
+    }
+
+    @Test
+    void acquire_WhileTokensAreLeased_ShouldNotBlockOtherCallersBeyondTheirMaxWait() throws Exception {
+        // Arrange: a bucket round trip that hangs until released
+        CountDownLatch release = new CountDownLatch(1);
+        TokenBucket slowBucket = new TokenBucket() {
+            @Override
+            public long take(long max) {
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return max;
+            }
+
+            @Override
+            public double available() {
+                return 0;
+            }
+        };
+        UpstreamRateLimiter limiter = new UpstreamRateLimiter(slowBucket, 1, 100,
+                Map.of(UpstreamPriority.PREFETCH, Duration.ofSeconds(5), UpstreamPriority.USER, Duration.ofMillis(50)),
+                meterRegistry);
+        List<UpstreamPriority> admitted = new CopyOnWriteArrayList<>();
+        Thread prefetch = Thread.ofVirtual().start(() -> acquire(limiter, UpstreamPriority.PREFETCH, admitted));
+        awaitQueued(UpstreamPriority.PREFETCH);
+
+        // Act
+        long started = System.nanoTime();
+        boolean granted = limiter.acquire(UpstreamPriority.USER);
+        long waited = System.nanoTime() - started;
+        release.countDown();
+        prefetch.join(2000);
+
+        // Assert
+        assertFalse(granted);
+        assertTrue(waited < TimeUnit.SECONDS.toNanos(1), "waited " + waited + "ns");
+        assertEquals(List.of(UpstreamPriority.PREFETCH), admitted);
+    }
+
+    private UpstreamRateLimiter limiter(int leaseSize, Duration maxWait) {
+        return new UpstreamRateLimiter(bucket, leaseSize, 100,
+                Map.of(UpstreamPriority.USER, maxWait,
+                        UpstreamPriority.REFRESH, maxWait,
+                        UpstreamPriority.PREFETCH, maxWait),
+                meterRegistry);
+    }
+
+    private void awaitQueued(UpstreamPriority priority) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(2);
+        while (meterRegistry.get("weather.upstream.ratelimit.queue")
+                .tag("priority", priority.name().toLowerCase()).gauge().value() < 1) {
+            assertTrue(System.nanoTime() < deadline, priority + " never queued");
+            Thread.sleep(5);
+        }
+    }
+
+    private static void acquire(UpstreamRateLimiter limiter, UpstreamPriority priority,
+                                List<UpstreamPriority> admitted) {
+        if (limiter.acquire(priority)) {
+            admitted.add(priority);
+        }
+    }
+
+    private static class ManualBucket implements TokenBucket {
+
+        private final AtomicLong tokens = new AtomicLong();
+        private final AtomicInteger takes = new AtomicInteger();
+
+        @Override
+        public long take(long max) {
+            takes.incrementAndGet();
+            long granted = Math.min(max, tokens.get());
+            tokens.addAndGet(-granted);
+            return granted;
+        }
+
+        @Override
+        public double available() {
+            return tokens.get();
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.example.weatherApp.service.resilience;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class CircuitBreakerTest {
+
+    private final AtomicLong nanoTime = new AtomicLong();
+    private final List<String> transitions = new CopyOnWriteArrayList<>();
+
+    @Test
+    void onFailure_WhenFailureRateReachesThreshold_ShouldOpenAndRejectCalls() {
+        // Arrange: 2 failures in 4 calls is the 50% threshold
+        CircuitBreaker breaker = breaker();
+        record(breaker, false, true, false);
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+
+        // Act
+        record(breaker, true);
+
+        // Assert
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        assertFalse(breaker.tryAcquirePermission());
+        assertEquals(Duration.ofSeconds(30), breaker.getRemainingOpenTime());
+        assertEquals(List.of("CLOSED->OPEN"), transitions);
+    }
+
+    @Test
+    void tryAcquirePermission_AfterOpenDuration_ShouldProbeAndCloseWhenProbesSucceed() {
+        // Arrange
+        CircuitBreaker breaker = openBreaker();
+        nanoTime.addAndGet(Duration.ofSeconds(30).toNanos());
+
+        // Act: two probes are let through, a third call waits for their outcome
+        assertTrue(breaker.tryAcquirePermission());
+        assertTrue(breaker.tryAcquirePermission());
+        boolean third = breaker.tryAcquirePermission();
+        breaker.onSuccess();
+        breaker.onSuccess();
+
+        // Assert
+        assertFalse(third);
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+        assertEquals(0, breaker.getBufferedCalls());
+        assertEquals(List.of("CLOSED->OPEN", "OPEN->HALF_OPEN", "HALF_OPEN->CLOSED"), transitions);
+    }
+
+    @Test
+    void onFailure_WhenProbeFails_ShouldOpenAgain() {
+        // Arrange
+        CircuitBreaker breaker = openBreaker();
+        nanoTime.addAndGet(Duration.ofSeconds(30).toNanos());
+        assertTrue(breaker.tryAcquirePermission());
+
+        // Act
+        breaker.onFailure();
+
+        // Assert
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        assertFalse(breaker.tryAcquirePermission());
+        assertEquals(List.of("CLOSED->OPEN", "OPEN->HALF_OPEN", "HALF_OPEN->OPEN"), transitions);
+    }
+
+    private CircuitBreaker breaker() {
+        return new CircuitBreaker(10, 4, 50, Duration.ofSeconds(30), 2,
+                (from, to) -> transitions.add(from + "->" + to), nanoTime::get);
+    }
+
+    private CircuitBreaker openBreaker() {
+        CircuitBreaker breaker = breaker();
+        record(breaker, true, true, true, true);
+        return breaker;
+    }
+
+    private static void record(CircuitBreaker breaker, boolean... failures) {
+        for (boolean failure : failures) {
+            assertTrue(breaker.tryAcquirePermission());
+            if (failure) {
+                breaker.onFailure();
+            } else {
+                breaker.onSuccess();
+            }
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.example.weatherApp.service.resilience;
+
+import com.example.weatherApp.config.ResilienceProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.ResourceAccessException;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class UpstreamGuardTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void call_WhenBulkheadIsFull_ShouldFailFastWithFallback() throws Exception {
+        // Arrange: one slot, taken by a call that hangs
+        ResilienceProperties.Dependency settings = new ResilienceProperties.Dependency();
+        settings.setMaxConcurrentCalls(1);
+        settings.setMaxWait(Duration.ZERO);
+        UpstreamGuard guard = new UpstreamGuard("ipGeolocation", settings, meterRegistry);
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Thread slow = Thread.ofVirtual().start(() -> guard.call(() -> {
+            entered.countDown();
+            await(release);
+            return "slow";
+        }, () -> null));
+        assertTrue(entered.await(2, TimeUnit.SECONDS));
+
+        // Act
+        UpstreamUnavailableException exception = assertThrows(UpstreamUnavailableException.class,
+                () -> guard.call(() -> "not called", () -> "default"));
+
+        // Assert
+        assertEquals("default", exception.getFallback());
+        assertEquals(1, meterRegistry.get("weather.upstream.rejected")
+                .tag("dependency", "ipGeolocation").tag("reason", "bulkhead_full").counter().count());
+        release.countDown();
+        slow.join(2000);
+        assertEquals(1, guard.getBulkhead().getAvailableCalls());
+        assertEquals(CircuitBreaker.State.CLOSED, guard.getCircuitBreaker().getState());
+    }
+
+    @Test
+    void call_ShouldOpenOnUpstreamFailuresButNotOnClientErrors() {
+        // Arrange: 404s count as successes, two failures more make the 50% threshold
+        ResilienceProperties.Dependency settings = new ResilienceProperties.Dependency();
+        settings.setSlidingWindowSize(4);
+        settings.setMinimumCalls(4);
+        UpstreamGuard guard = new UpstreamGuard("openWeatherMap", settings, meterRegistry);
+        for (int i = 0; i < 2; i++) {
+            assertThrows(HttpClientErrorException.class, () -> guard.call(() -> {
+                throw HttpClientErrorException.create(HttpStatus.NOT_FOUND, "Not Found", null, null, null);
+            }, () -> null));
+        }
+        assertEquals(CircuitBreaker.State.CLOSED, guard.getCircuitBreaker().getState());
+
+        // Act: without a fallback the failure itself is thrown
+        for (int i = 0; i < 2; i++) {
+            assertThrows(ResourceAccessException.class, () -> guard.call(() -> {
+                throw new ResourceAccessException("Read timed out");
+            }, () -> null));
+        }
+        UpstreamUnavailableException rejected = assertThrows(UpstreamUnavailableException.class,
+                () -> guard.call(() -> "not called", () -> "stale"));
+
+        // Assert
+        assertEquals("stale", rejected.getFallback());
+        assertTrue(rejected.getRetryAfter().compareTo(Duration.ofSeconds(29)) > 0, "retry after " + rejected.getRetryAfter());
+        assertEquals(1, meterRegistry.get("weather.upstream.circuit.state")
+                .tag("dependency", "openWeatherMap").tag("state", "open").gauge().value());
+        assertEquals(1, meterRegistry.get("weather.upstream.circuit.transitions")
+                .tag("dependency", "openWeatherMap").tag("from", "closed").tag("to", "open").counter().count());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(2, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}